@@ -51,8 +51,9 @@ import net.william278.huskhomes.random.NormalDistributionEngine;
 import net.william278.huskhomes.random.RandomTeleportEngine;
 import net.william278.huskhomes.user.BukkitUser;
 import net.william278.huskhomes.user.ConsoleUser;
+import net.william278.huskhomes.user.GlobalPlayerList;
 import net.william278.huskhomes.user.OnlineUser;
-import net.william278.huskhomes.user.SavedUser;
+import net.william278.huskhomes.user.SavedUserRegistry;
 import net.william278.huskhomes.util.*;
 import org.bstats.bukkit.Metrics;
 import org.bstats.charts.SimplePie;
@@ -83,7 +84,7 @@ public class BukkitHuskHomes extends JavaPlugin implements HuskHomes, BukkitTask
      */
     private static final int METRICS_ID = 8430;
     private ConcurrentHashMap<UUID, ScheduledTask> tasks;
-    private Set<SavedUser> savedUsers;
+    private SavedUserRegistry savedUsers;
     private Settings settings;
     private Locales locales;
     private Database database;
@@ -95,7 +96,7 @@ public class BukkitHuskHomes extends JavaPlugin implements HuskHomes, BukkitTask
     private UnsafeBlocks unsafeBlocks;
     private List<Hook> hooks;
     private List<Command> commands;
-    private Map<String, List<String>> globalPlayerList;
+    private GlobalPlayerList globalPlayerList;
     private Set<UUID> currentlyOnWarmup;
     private Server server;
     @Nullable
@@ -132,8 +133,8 @@ public class BukkitHuskHomes extends JavaPlugin implements HuskHomes, BukkitTask
         this.audiences = BukkitAudiences.create(this);
         this.paperLib = new MorePaperLib(this);
         this.tasks = new ConcurrentHashMap<>();
-        this.savedUsers = new HashSet<>();
-        this.globalPlayerList = new HashMap<>();
+        this.savedUsers = new SavedUserRegistry();
+        this.globalPlayerList = new GlobalPlayerList();
         this.currentlyOnWarmup = new HashSet<>();
         this.validator = new Validator(this);
 
@@ -290,7 +291,7 @@ public class BukkitHuskHomes extends JavaPlugin implements HuskHomes, BukkitTask
 
     @NotNull
     @Override
-    public Set<SavedUser> getSavedUsers() {
+    public SavedUserRegistry getSavedUsers() {
         return savedUsers;
     }
 
@@ -409,7 +410,7 @@ public class BukkitHuskHomes extends JavaPlugin implements HuskHomes, BukkitTask
 
     @Override
     @NotNull
-    public Map<String, List<String>> getGlobalPlayerList() {
+    public GlobalPlayerList getGlobalPlayerList() {
         return globalPlayerList;
     }
 
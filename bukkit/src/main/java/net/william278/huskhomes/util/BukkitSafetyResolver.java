@@ -26,13 +26,28 @@ import org.bukkit.ChunkSnapshot;
 import org.bukkit.Material;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 public interface BukkitSafetyResolver extends SafetyResolver {
 
+    int CHUNK_SIZE = 16;
+
     @Override
     default CompletableFuture<Optional<Location>> findSafeGroundLocation(@NotNull Location location) {
+        return findSafeColumns(location).thenApply(columns -> columns
+                .flatMap(safe -> safe.getNearest(location.getX(), location.getZ())));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote The chunk is loaded asynchronously where supported, and every column of its snapshot checked
+     */
+    @Override
+    default CompletableFuture<Optional<SafeColumns>> findSafeColumns(@NotNull Location location) {
         final org.bukkit.Location bukkitLocation = BukkitAdapter.adaptLocation(location).orElse(null);
         if (bukkitLocation == null || bukkitLocation.getWorld() == null) {
             return CompletableFuture.completedFuture(Optional.empty());
@@ -43,48 +58,74 @@ public interface BukkitSafetyResolver extends SafetyResolver {
             return CompletableFuture.completedFuture(Optional.empty());
         }
 
-        // Search nearby blocks for a safe location
+        // Search the whole chunk for safe columns
+        final int minY = bukkitLocation.getWorld().getMinHeight();
         return PaperLib.getChunkAtAsync(bukkitLocation)
                 .thenApply(Chunk::getChunkSnapshot)
-                .thenApply(snapshot -> findSafeLocationNear(
-                        location,
-                        snapshot,
-                        bukkitLocation.getWorld().getMinHeight()
-                ));
+                .thenApply(snapshot -> Optional.of(findSafeColumns(location, snapshot, minY))
+                        .filter(columns -> !columns.isEmpty()));
     }
 
     /**
-     * Search for a safe ground location near the given location
+     * Find every column of a chunk snapshot whose surface block is safe to stand on
      *
-     * @param location The location to search around
+     * @param location A location in the chunk
      * @param snapshot The chunk snapshot to search
      * @param minY     The minimum Y value of the world
-     * @return An optional safe location, within 4 blocks of the given location
+     * @return The safe columns of the chunk
      */
-    private Optional<Location> findSafeLocationNear(@NotNull Location location, @NotNull ChunkSnapshot snapshot, int minY) {
-        final int chunkX = ((int) location.getX()) & 0xF;
-        final int chunkZ = ((int) location.getZ()) & 0xF;
-
-        for (int dX = -SEARCH_RADIUS; dX <= SEARCH_RADIUS; dX++) {
-            for (int dZ = -SEARCH_RADIUS; dZ <= SEARCH_RADIUS; dZ++) {
-                final int x = chunkX + dX;
-                final int z = chunkZ + dZ;
-                if (x < 0 || x >= 16 || z < 0 || z >= 16) {
-                    continue;
-                }
+    @NotNull
+    private SafeColumns findSafeColumns(@NotNull Location location, @NotNull ChunkSnapshot snapshot, int minY) {
+        final Set<Material> unsafeMaterials = getUnsafeMaterials();
+        final int[] columns = new int[CHUNK_SIZE * CHUNK_SIZE];
+        int size = 0;
+        for (int x = 0; x < CHUNK_SIZE; x++) {
+            for (int z = 0; z < CHUNK_SIZE; z++) {
                 final int y = Math.max((minY + 1), snapshot.getHighestBlockYAt(x, z));
-                final Material blockType = snapshot.getBlockType(chunkX, y, chunkZ);
-                if (isBlockSafe(blockType.getKey().toString())) {
-                    return Optional.of(Location.at(
-                            (location.getX() + dX) + 0.5d,
-                            y + 1,
-                            (location.getZ() + dZ) + 0.5d,
-                            location.getWorld()
-                    ));
+                final Material blockType = snapshot.getBlockType(x, y, z);
+                if (!unsafeMaterials.contains(blockType)) {
+                    columns[size++] = SafeColumns.pack(x, y, z);
                 }
             }
         }
-        return Optional.empty();
+        return new SafeColumns(location.getWorld(), snapshot.getX(), snapshot.getZ(), columns, size);
+    }
+
+    /**
+     * Returns if the block, by provided material, is safe
+     *
+     * @param material The block {@link Material}
+     * @return {@code true} if the block is not on the unsafe blocks list, {@code false} otherwise
+     */
+    default boolean isBlockSafe(@NotNull Material material) {
+        return !getUnsafeMaterials().contains(material);
+    }
+
+    // Get the unsafe blocks list, resolved to block materials
+    @NotNull
+    private Set<Material> getUnsafeMaterials() {
+        return getPlugin().getUnsafeBlocks().getCompiled(UnsafeMaterials.class, UnsafeMaterials::compile).materials();
+    }
+
+    /**
+     * The unsafe blocks list, resolved to a set of {@link Material materials}
+     *
+     * @param materials The unsafe block materials
+     */
+    record UnsafeMaterials(@NotNull Set<Material> materials) {
+
+        @NotNull
+        private static UnsafeMaterials compile(@NotNull Set<String> blockIds) {
+            final Set<Material> materials = EnumSet.noneOf(Material.class);
+            for (String blockId : blockIds) {
+                final Material material = Material.matchMaterial(blockId);
+                if (material != null) {
+                    materials.add(material);
+                }
+            }
+            return new UnsafeMaterials(materials);
+        }
+
     }
 
 }
@@ -42,8 +42,10 @@ import net.william278.huskhomes.position.Position;
 import net.william278.huskhomes.position.World;
 import net.william278.huskhomes.random.RandomTeleportEngine;
 import net.william278.huskhomes.user.ConsoleUser;
+import net.william278.huskhomes.user.GlobalPlayerList;
 import net.william278.huskhomes.user.OnlineUser;
 import net.william278.huskhomes.user.SavedUser;
+import net.william278.huskhomes.user.SavedUserRegistry;
 import net.william278.huskhomes.user.User;
 import net.william278.huskhomes.util.*;
 import org.intellij.lang.annotations.Subst;
@@ -58,7 +60,6 @@ import java.util.*;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Represents a cross-platform instance of the plugin
@@ -104,20 +105,45 @@ public interface HuskHomes extends TaskRunner, EventDispatcher, SafetyResolver,
     }
 
     @NotNull
-    Set<SavedUser> getSavedUsers();
+    SavedUserRegistry getSavedUsers();
 
     default Optional<SavedUser> getSavedUser(@NotNull User user) {
-        return getSavedUsers().stream()
-                .filter(savedUser -> savedUser.getUser().equals(user))
-                .findFirst();
+        return getSavedUsers().get(user.getUuid());
     }
 
+    /**
+     * Edit a user's data. The edit is applied immediately, and saved to the database with the next
+     * {@link #flushUserData() flush}
+     *
+     * @param user   The {@link User} to edit the data of
+     * @param editor A {@link Consumer} passed the user's data to edit
+     */
     default void editUserData(@NotNull User user, @NotNull Consumer<SavedUser> editor) {
-        runAsync(() -> getSavedUser(user)
-                .ifPresent(result -> {
-                    editor.accept(result);
-                    getDatabase().updateUserData(result);
-                }));
+        getSavedUsers().edit(user.getUuid(), editor);
+    }
+
+    /**
+     * Save the data of all users with unsaved edits to the database, in a single batch. If saving fails, the users
+     * are left with unsaved edits to be saved with the next flush
+     */
+    default void flushUserData() {
+        final List<SavedUser> dirty = getSavedUsers().drainDirty();
+        if (!dirty.isEmpty() && !getDatabase().updateUserData(dirty)) {
+            getSavedUsers().markDirty(dirty);
+        }
+    }
+
+    /**
+     * Save a user's data to the database now if it has unsaved edits, such as before they switch server
+     *
+     * @param user The {@link User} to save the data of
+     */
+    default void flushUserData(@NotNull User user) {
+        getSavedUsers().drainDirty(user.getUuid()).ifPresent(savedUser -> {
+            if (!getDatabase().updateUserData(savedUser)) {
+                getSavedUsers().markDirty(List.of(savedUser));
+            }
+        });
     }
 
     /**
@@ -347,13 +373,47 @@ public interface HuskHomes extends TaskRunner, EventDispatcher, SafetyResolver,
     boolean isDependencyLoaded(@NotNull String name);
 
     @NotNull
-    Map<String, List<String>> getGlobalPlayerList();
+    GlobalPlayerList getGlobalPlayerList();
 
     default List<String> getPlayerList(boolean includeVanished) {
-        return Stream.concat(
-                getGlobalPlayerList().values().stream().flatMap(Collection::stream),
-                getLocalPlayerList(includeVanished).stream()
-        ).distinct().sorted().toList();
+        return getPlayerList(includeVanished, "", Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the names of players online on the network that start with a prefix
+     *
+     * @param includeVanished Whether to include vanished players on this server
+     * @param prefix          The prefix names must start with, ignoring case
+     * @param limit           The maximum number of names to return
+     * @return The matching names, in alphabetical order ignoring case
+     */
+    @NotNull
+    default List<String> getPlayerList(boolean includeVanished, @NotNull String prefix, int limit) {
+        final List<String> global = getGlobalPlayerList().getPlayers(prefix, limit);
+        final List<String> local = getLocalPlayerList(includeVanished).stream()
+                .filter(name -> name.regionMatches(true, 0, prefix, 0, prefix.length()))
+                .sorted(String.CASE_INSENSITIVE_ORDER)
+                .toList();
+        if (local.isEmpty()) {
+            return global;
+        }
+
+        // Merge the local players into the already sorted network list
+        final List<String> players = new ArrayList<>(global.size() + local.size());
+        int i = 0, j = 0;
+        while ((i < global.size() || j < local.size()) && players.size() < limit) {
+            final int compare = i == global.size() ? 1 : j == local.size() ? -1
+                    : String.CASE_INSENSITIVE_ORDER.compare(global.get(i), local.get(j));
+            if (compare < 0) {
+                players.add(global.get(i++));
+            } else {
+                if (compare == 0) {
+                    i++;
+                }
+                players.add(local.get(j++));
+            }
+        }
+        return players;
     }
 
     @NotNull
@@ -362,14 +422,6 @@ public interface HuskHomes extends TaskRunner, EventDispatcher, SafetyResolver,
         return getPlayerList(true);
     }
 
-    default void setPlayerList(@NotNull String server, @NotNull List<String> players) {
-        getGlobalPlayerList().values().forEach(list -> {
-            list.removeAll(players);
-            list.removeAll(getLocalPlayerList());
-        });
-        getGlobalPlayerList().put(server, players);
-    }
-
     @NotNull
     default List<String> getLocalPlayerList(boolean includeVanished) {
         return getOnlineUsers().stream()
@@ -164,12 +164,7 @@ public abstract class BaseHuskHomesAPI {
      * @since 4.0
      */
     public final void editUserData(@NotNull String username, @NotNull Consumer<SavedUser> editor) {
-        plugin.getSavedUsers().stream().findAny().ifPresent(savedUser -> {
-            if (savedUser.getUsername().equalsIgnoreCase(username)) {
-                editor.accept(savedUser);
-                saveUserData(savedUser);
-            }
-        });
+        plugin.getSavedUsers().get(username).ifPresent(savedUser -> plugin.editUserData(savedUser.getUser(), editor));
     }
 
     /**
@@ -180,12 +175,7 @@ public abstract class BaseHuskHomesAPI {
      * @since 4.0
      */
     public final void editUserData(@NotNull UUID uuid, @NotNull Consumer<SavedUser> editor) {
-        plugin.getSavedUsers().stream().findAny().ifPresent(savedUser -> {
-            if (savedUser.getUser().getUuid().equals(uuid)) {
-                editor.accept(savedUser);
-                saveUserData(savedUser);
-            }
-        });
+        plugin.getSavedUsers().edit(uuid, editor);
     }
 
     /**
@@ -0,0 +1,119 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.command;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A thread-safe cache of list data and rendered lists for a {@link ListCommand}, shared between all viewers.
+ * <p>
+ * Values are cached against the data version they were loaded from. {@link #invalidate() Invalidating} the cache
+ * moves on to a new version and evicts older values. A value whose data changed while it was loading is returned to
+ * the callers waiting on that load, but is not cached, so later callers load it afresh.
+ * The cache is bounded, evicting the oldest values first once full.
+ */
+public class ListCache {
+
+    private static final int MAX_ENTRIES = 256;
+
+    private final AtomicLong version = new AtomicLong();
+    private final Map<Key, CompletableFuture<Object>> values = new ConcurrentHashMap<>();
+    private final Queue<Key> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Get a value for the current data version, loading and caching it if absent. Concurrent callers requesting the
+     * same absent value wait for a single load rather than each loading it. Values are loaded on the calling thread,
+     * outside any lock on the cache.
+     *
+     * @param key    Key identifying the value; must implement {@code equals} and {@code hashCode}
+     * @param loader Supplier loading the value if it is not cached
+     * @param <T>    The value type
+     * @return The cached or loaded value
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NotNull Object key, @NotNull Supplier<T> loader) {
+        final Key versionedKey = new Key(version.get(), key);
+        CompletableFuture<Object> value = values.get(versionedKey);
+        if (value == null) {
+            final CompletableFuture<Object> loading = new CompletableFuture<>();
+            value = values.putIfAbsent(versionedKey, loading);
+            if (value == null) {
+                value = loading;
+                load(versionedKey, loading, loader);
+            }
+        }
+
+        try {
+            return (T) value.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Load a value, keeping it cached only if the data version did not change while it loaded
+    private void load(@NotNull Key key, @NotNull CompletableFuture<Object> loading, @NotNull Supplier<?> loader) {
+        try {
+            loading.complete(loader.get());
+        } catch (RuntimeException e) {
+            values.remove(key, loading);
+            loading.completeExceptionally(e);
+            return;
+        }
+        if (version.get() != key.version()) {
+            values.remove(key, loading);
+            return;
+        }
+
+        insertionOrder.add(key);
+        while (values.size() > MAX_ENTRIES) {
+            final Key eldest = insertionOrder.poll();
+            if (eldest == null) {
+                break;
+            }
+            values.remove(eldest);
+        }
+    }
+
+    /**
+     * Move on to a new data version, evicting all cached values
+     */
+    public void invalidate() {
+        final long current = version.incrementAndGet();
+        values.keySet().removeIf(key -> key.version() < current);
+        insertionOrder.removeIf(key -> key.version() < current);
+    }
+
+    private record Key(long version, @NotNull Object key) {
+    }
+
+}
@@ -43,7 +43,7 @@ public class PrivateHomeCommand extends HomeCommand {
             }
 
             // If the user has a home, teleport them there, otherwise show them their home list
-            final List<Home> homes = plugin.getDatabase().getHomes(user);
+            final List<Home> homes = plugin.getManager().homes().getHomes(user);
             if (homes.size() == 1) {
                 super.execute(executor, homes.get(0), args);
                 return;
@@ -29,9 +29,11 @@ import net.william278.huskhomes.user.User;
 import net.william278.paginedown.PaginatedList;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 public class PrivateHomeListCommand extends ListCommand {
@@ -80,31 +82,25 @@ public class PrivateHomeListCommand extends ListCommand {
             return;
         }
 
-        if (cachedLists.containsKey(user.getUuid())) {
-            executor.sendMessage(cachedLists.get(user.getUuid()).getNearestValidPage(page));
-            return;
-        }
-
-        final List<Home> homes = plugin.getDatabase().getHomes(user);
-        plugin.fireEvent(plugin.getViewHomeListEvent(homes, executor, false),
-                (event) -> this.generateList(executor, user, event.getHomes()).ifPresent(homeList -> {
-                    cachedLists.put(user.getUuid(), homeList);
-                    executor.sendMessage(homeList.getNearestValidPage(page));
-                }));
+        final List<Home> homes = cachedLists.get(user.getUuid(), () -> plugin.getDatabase().getHomes(user));
+        plugin.fireEvent(plugin.getViewHomeListEvent(new ArrayList<>(homes), executor, false), (event) -> {
+            final List<Home> listed = List.copyOf(event.getHomes());
+            final boolean otherUser = !executor.equals(user);
+            final Optional<PaginatedList> homeList = cachedLists.get(
+                    new HomeListKey(user.getUuid(), otherUser, listed.stream().map(Home::getUuid).toList()),
+                    () -> this.generateList(user, otherUser, listed));
+            homeList.ifPresentOrElse(list -> executor.sendMessage(list.getNearestValidPage(page)),
+                    () -> plugin.getLocales().getLocale(otherUser ? "error_no_homes_set_other" : "error_no_homes_set",
+                            user.getUsername()).ifPresent(executor::sendMessage));
+        });
     }
 
-    private Optional<PaginatedList> generateList(@NotNull CommandUser executor, @NotNull User user, @NotNull List<Home> homes) {
+    private Optional<PaginatedList> generateList(@NotNull User user, boolean otherUser, @NotNull List<Home> homes) {
         if (homes.isEmpty()) {
-            if (!executor.equals(user)) {
-                plugin.getLocales().getLocale("error_no_homes_set_other", user.getUsername())
-                        .ifPresent(executor::sendMessage);
-            } else {
-                plugin.getLocales().getLocale("error_no_homes_set").ifPresent(executor::sendMessage);
-            }
             return Optional.empty();
         }
 
-        final String homeListArguments = !executor.equals(user) ? " " + user.getUsername() : "";
+        final String homeListArguments = otherUser ? " " + user.getUsername() : "";
         final PaginatedList homeList = PaginatedList.of(homes.stream().map(home ->
                         plugin.getLocales()
                                 .getRawLocale("home_list_item",
@@ -121,4 +117,8 @@ public class PrivateHomeListCommand extends ListCommand {
         return Optional.of(homeList);
     }
 
+    // Home lists are rendered differently when viewing another user's homes
+    private record HomeListKey(@NotNull UUID owner, boolean otherUser, @NotNull List<UUID> homes) {
+    }
+
 }
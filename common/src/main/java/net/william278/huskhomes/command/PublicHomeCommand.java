@@ -46,7 +46,7 @@ public class PublicHomeCommand extends HomeCommand implements TabProvider {
     @NotNull
     public List<String> suggest(@NotNull CommandUser executor, @NotNull String[] args) {
         if (args.length <= 2) {
-            return filter(plugin.getManager().homes().getPublicHomeNames(), args);
+            return plugin.getManager().homes().completePublicHomeNames(getPrefix(args), MAX_SUGGESTIONS);
         }
         return List.of();
     }
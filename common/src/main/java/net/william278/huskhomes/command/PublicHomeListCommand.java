@@ -23,10 +23,10 @@ import net.william278.huskhomes.HuskHomes;
 import net.william278.huskhomes.config.Locales;
 import net.william278.huskhomes.position.Home;
 import net.william278.huskhomes.user.CommandUser;
-import net.william278.huskhomes.user.OnlineUser;
 import net.william278.paginedown.PaginatedList;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -44,25 +44,19 @@ public class PublicHomeListCommand extends ListCommand {
     }
 
     protected void showPublicHomeList(@NotNull CommandUser executor, int pageNumber) {
-        if (executor instanceof OnlineUser user && cachedLists.containsKey(user.getUuid())) {
-            executor.sendMessage(cachedLists.get(user.getUuid()).getNearestValidPage(pageNumber));
-            return;
-        }
-
-        final List<Home> homes = plugin.getDatabase().getPublicHomes();
-        plugin.fireEvent(plugin.getViewHomeListEvent(homes, executor, true),
-                (event) -> this.generateList(executor, event.getHomes()).ifPresent(homeList -> {
-                    if (executor instanceof OnlineUser onlineUser) {
-                        cachedLists.put(onlineUser.getUuid(), homeList);
-                    }
-                    executor.sendMessage(homeList.getNearestValidPage(pageNumber));
-                }));
+        final List<Home> homes = cachedLists.get("public_homes", () -> plugin.getDatabase().getPublicHomes());
+        plugin.fireEvent(plugin.getViewHomeListEvent(new ArrayList<>(homes), executor, true), (event) -> {
+            final List<Home> listed = List.copyOf(event.getHomes());
+            final Optional<PaginatedList> homeList = cachedLists.get(
+                    listed.stream().map(Home::getUuid).toList(), () -> this.generateList(listed));
+            homeList.ifPresentOrElse(list -> executor.sendMessage(list.getNearestValidPage(pageNumber)),
+                    () -> plugin.getLocales().getLocale("error_no_public_homes_set")
+                            .ifPresent(executor::sendMessage));
+        });
     }
 
-    private Optional<PaginatedList> generateList(@NotNull CommandUser executor, @NotNull List<Home> publicHomes) {
+    private Optional<PaginatedList> generateList(@NotNull List<Home> publicHomes) {
         if (publicHomes.isEmpty()) {
-            plugin.getLocales().getLocale("error_no_public_homes_set")
-                    .ifPresent(executor::sendMessage);
             return Optional.empty();
         }
 
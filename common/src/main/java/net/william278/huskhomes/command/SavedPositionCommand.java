@@ -85,8 +85,9 @@ public abstract class SavedPositionCommand<T extends SavedPosition> extends Comm
                 return Optional.empty();
             }
 
-            final Optional<Home> optionalHome = plugin.getDatabase().getUserDataByName(ownerUsername)
-                    .flatMap(owner -> resolveHomeByName(owner.getUser(), ownerHomeName));
+            final Optional<Home> optionalHome = plugin.getManager().homes().getCachedPublicHome(ownerUsername, ownerHomeName)
+                    .or(() -> plugin.getDatabase().getUserDataByName(ownerUsername)
+                            .flatMap(owner -> resolveHomeByName(owner.getUser(), ownerHomeName)));
             if (optionalHome.isEmpty()) {
                 plugin.getLocales().getLocale(executor.hasPermission(getOtherPermission())
                                 ? "error_home_invalid_other" : "error_public_home_invalid", ownerUsername, ownerHomeName)
@@ -119,11 +120,11 @@ public abstract class SavedPositionCommand<T extends SavedPosition> extends Comm
     }
 
     private Optional<Home> resolveHomeByName(@NotNull User owner, @NotNull String homeName) {
-        return plugin.getDatabase()
+        return plugin.getManager().homes()
                 .getHome(owner, homeName)
                 .or(() -> {
                     try {
-                        return plugin.getDatabase().getHome(UUID.fromString(homeName));
+                        return plugin.getManager().homes().getHome(UUID.fromString(homeName));
                     } catch (IllegalArgumentException e) {
                         return Optional.empty();
                     }
@@ -186,23 +187,18 @@ public abstract class SavedPositionCommand<T extends SavedPosition> extends Comm
         if (positionType == Home.class) {
             return switch (args.length) {
                 case 0, 1 -> {
-                    if (args.length == 1 && args[0].contains(Home.IDENTIFIER_DELIMITER)) {
-                        if (executor.hasPermission(getOtherPermission())) {
-                            yield filter(plugin.getManager().homes().getUserHomeNames(), args);
-                        }
-                        yield filter(plugin.getManager().homes().getUserHomeNames(), args);
+                    final String prefix = getPrefix(args);
+                    if (executor instanceof OnlineUser user && !prefix.contains(Home.IDENTIFIER_DELIMITER)) {
+                        yield plugin.getManager().homes().completeUserHomeNames(user, prefix, MAX_SUGGESTIONS);
                     }
-                    if (executor instanceof OnlineUser user) {
-                        yield filter(plugin.getManager().homes().getUserHomes().get(user.getUsername()), args);
-                    }
-                    yield filter(plugin.getManager().homes().getUserHomeNames(), args);
+                    yield plugin.getManager().homes().completeUserHomeNames(prefix, MAX_SUGGESTIONS);
                 }
                 case 2 -> filter(arguments.stream().toList(), args);
                 default -> List.of();
             };
         } else {
             return switch (args.length) {
-                case 0, 1 -> filter(plugin.getManager().warps().getUsableWarps(executor), args);
+                case 0, 1 -> plugin.getManager().warps().completeUsableWarps(executor, getPrefix(args), MAX_SUGGESTIONS);
                 case 2 -> filter(arguments.stream().toList(), args);
                 default -> List.of();
             };
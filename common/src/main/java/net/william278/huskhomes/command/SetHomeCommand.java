@@ -58,7 +58,7 @@ public class SetHomeCommand extends SetPositionCommand {
     }
 
     private boolean createDefaultHome(@NotNull OnlineUser user) {
-        final List<Home> homes = plugin.getDatabase().getHomes(user);
+        final List<Home> homes = plugin.getManager().homes().getHomes(user);
         final Optional<String> name = homes.isEmpty() ? Optional.of("home") :
                 (homes.size() == 1 && plugin.getSettings().doOverwriteExistingHomesWarps())
                         ? Optional.of(homes.get(0).getName()) : Optional.empty();
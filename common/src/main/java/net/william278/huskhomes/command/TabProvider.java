@@ -27,6 +27,11 @@ import java.util.List;
 
 public interface TabProvider {
 
+    /**
+     * The maximum number of suggestions to offer for completions served from an index
+     */
+    int MAX_SUGGESTIONS = 100;
+
     @Nullable
     List<String> suggest(@NotNull CommandUser user, @NotNull String[] args);
 
@@ -47,4 +52,15 @@ public interface TabProvider {
                 .toList();
     }
 
+    /**
+     * Get the argument currently being completed
+     *
+     * @param args The command arguments
+     * @return The last argument, trimmed, or an empty string if there are no arguments
+     */
+    @NotNull
+    default String getPrefix(@NotNull String[] args) {
+        return args.length == 0 ? "" : args[args.length - 1].trim();
+    }
+
 }
\ No newline at end of file
@@ -23,10 +23,10 @@ import net.william278.huskhomes.HuskHomes;
 import net.william278.huskhomes.config.Locales;
 import net.william278.huskhomes.position.Warp;
 import net.william278.huskhomes.user.CommandUser;
-import net.william278.huskhomes.user.OnlineUser;
 import net.william278.paginedown.PaginatedList;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -44,25 +44,19 @@ public class WarpListCommand extends ListCommand {
     }
 
     protected void showWarpList(@NotNull CommandUser executor, int pageNumber) {
-        if (executor instanceof OnlineUser user && cachedLists.containsKey(user.getUuid())) {
-            executor.sendMessage(cachedLists.get(user.getUuid()).getNearestValidPage(pageNumber));
-            return;
-        }
-
         final List<Warp> warps = getItems(executor);
-        plugin.fireEvent(plugin.getViewWarpListEvent(warps, executor),
-                (event) -> this.generateList(executor, event.getWarps()).ifPresent(homeList -> {
-                    if (executor instanceof OnlineUser onlineUser) {
-                        cachedLists.put(onlineUser.getUuid(), homeList);
-                    }
-                    executor.sendMessage(homeList.getNearestValidPage(pageNumber));
-                }));
+        plugin.fireEvent(plugin.getViewWarpListEvent(warps, executor), (event) -> {
+            final List<Warp> listed = List.copyOf(event.getWarps());
+            final Optional<PaginatedList> warpList = cachedLists.get(
+                    listed.stream().map(Warp::getUuid).toList(), () -> this.generateList(listed));
+            warpList.ifPresentOrElse(list -> executor.sendMessage(list.getNearestValidPage(pageNumber)),
+                    () -> plugin.getLocales().getLocale("error_no_warps_set")
+                            .ifPresent(executor::sendMessage));
+        });
     }
 
-    private Optional<PaginatedList> generateList(@NotNull CommandUser executor, @NotNull List<Warp> warps) {
+    private Optional<PaginatedList> generateList(@NotNull List<Warp> warps) {
         if (warps.isEmpty()) {
-            plugin.getLocales().getLocale("error_no_warps_set")
-                    .ifPresent(executor::sendMessage);
             return Optional.empty();
         }
 
@@ -83,7 +77,7 @@ public class WarpListCommand extends ListCommand {
 
     @NotNull
     private List<Warp> getItems(@NotNull CommandUser executor) {
-        List<Warp> warps = plugin.getDatabase().getWarps();
+        List<Warp> warps = new ArrayList<>(cachedLists.get("warps", () -> plugin.getDatabase().getWarps()));
         if (plugin.getSettings().doPermissionRestrictWarps() && !executor.hasPermission(Warp.getWildcardPermission())) {
             warps = warps.stream()
                     .filter(warp -> executor.hasPermission(getPermission(warp.getPermission())))
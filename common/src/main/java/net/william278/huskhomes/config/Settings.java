@@ -26,6 +26,7 @@ import net.william278.huskhomes.command.Command;
 import net.william278.huskhomes.database.Database;
 import net.william278.huskhomes.hook.EconomyHook;
 import net.william278.huskhomes.network.Broker;
+import net.william278.huskhomes.network.MessageDispatcher;
 import net.william278.huskhomes.position.World;
 import org.jetbrains.annotations.NotNull;
 
@@ -92,6 +93,31 @@ public class Settings {
     @YamlKey("database.mysql.connection_pool.timeout")
     private long mySqlConnectionPoolTimeout = 20000;
 
+    @YamlComment("Number of read-only SQLite connections to pool, enabling WAL mode so reads can run concurrently. Set to 0 to use a single connection")
+    @YamlKey("database.sqlite.read_pool_size")
+    private int sqLiteReadPoolSize = 0;
+
+    @YamlComment("Buffer last, offline & respawn position writes and save them in batches. Staleness is in seconds")
+    @YamlKey("database.write_behind.enabled")
+    private boolean databaseWriteBehind = false;
+
+    @YamlKey("database.write_behind.max_staleness")
+    private long databaseWriteBehindMaxStaleness = 5;
+
+    @YamlKey("database.write_behind.max_pending_writes")
+    private int databaseWriteBehindMaxPendingWrites = 250;
+
+    @YamlComment("Serve home lookups of online users and public homes from the in-memory cache, only querying the database on a cache miss")
+    @YamlKey("database.read_through_cache")
+    private boolean databaseReadThroughCache = false;
+
+    @YamlComment("Bounds on cached homes of users. Homes of online players are always cached; others are evicted when idle (in seconds) or over the maximum")
+    @YamlKey("database.user_home_cache.max_users")
+    private int userHomeCacheMaxUsers = 1000;
+
+    @YamlKey("database.user_home_cache.max_idle")
+    private long userHomeCacheMaxIdle = 600;
+
     @YamlKey("database.table_names")
     private Map<String, String> tableNames = Map.of(
             Database.Table.PLAYER_DATA.name().toLowerCase(), Database.Table.PLAYER_DATA.getDefaultName(),
@@ -99,7 +125,8 @@ public class Settings {
             Database.Table.SAVED_POSITION_DATA.name().toLowerCase(), Database.Table.SAVED_POSITION_DATA.getDefaultName(),
             Database.Table.HOME_DATA.name().toLowerCase(), Database.Table.HOME_DATA.getDefaultName(),
             Database.Table.WARP_DATA.name().toLowerCase(), Database.Table.WARP_DATA.getDefaultName(),
-            Database.Table.TELEPORT_DATA.name().toLowerCase(), Database.Table.TELEPORT_DATA.getDefaultName()
+            Database.Table.TELEPORT_DATA.name().toLowerCase(), Database.Table.TELEPORT_DATA.getDefaultName(),
+            Database.Table.META_DATA.name().toLowerCase(), Database.Table.META_DATA.getDefaultName()
     );
 
     @NotNull
@@ -204,6 +231,23 @@ public class Settings {
     @YamlKey("cross_server.redis_credentials.use_ssl")
     private boolean redisUseSsl = false;
 
+    @YamlComment("Threads handling messages received from Redis; messages to the same target, and broadcasts from the same server, are handled in order. Overflow policy when a queue is full: BLOCK, DROP_NEWEST or DROP_OLDEST")
+    @YamlKey("cross_server.redis_dispatch.threads")
+    private int redisDispatchThreads = 4;
+
+    @YamlKey("cross_server.redis_dispatch.queue_size")
+    private int redisDispatchQueueSize = 1000;
+
+    @YamlKey("cross_server.redis_dispatch.overflow_policy")
+    private MessageDispatcher.OverflowPolicy redisDispatchOverflowPolicy = MessageDispatcher.OverflowPolicy.BLOCK;
+
+    @YamlComment("Send messages over a Redis Stream instead of PubSub, so servers catch up on messages missed while disconnected. Max length is the approximate number of messages kept")
+    @YamlKey("cross_server.redis_streams.enabled")
+    private boolean redisStreams = false;
+
+    @YamlKey("cross_server.redis_streams.max_length")
+    private long redisStreamMaxLength = 10000;
+
 
     // Rtp command settings
     @YamlComment("Random teleport (/rtp) command settings")
@@ -225,6 +269,23 @@ public class Settings {
     @YamlKey("rtp.restricted_worlds")
     private List<String> rtpRestrictedWorlds = List.of("world_nether", "world_the_end");
 
+    @YamlComment("Number of candidate locations to check at once per /rtp, and at most across the server. Each candidate may load a chunk")
+    @YamlKey("rtp.parallel_candidates")
+    private int rtpParallelCandidates = 1;
+
+    @YamlKey("rtp.max_candidates_in_flight")
+    private int rtpMaxCandidatesInFlight = 8;
+
+    @YamlComment("Keep a pool of safe locations per world, found in the background, so /rtp does not search on demand. Max age is in seconds")
+    @YamlKey("rtp.location_pool.enabled")
+    private boolean rtpLocationPool = false;
+
+    @YamlKey("rtp.location_pool.depth")
+    private int rtpLocationPoolDepth = 10;
+
+    @YamlKey("rtp.location_pool.max_age")
+    private long rtpLocationPoolMaxAge = 300;
+
 
     // Economy settings
     @YamlComment("Charge for certain actions (requires Vault)")
@@ -324,6 +385,34 @@ public class Settings {
         return mySqlConnectionPoolTimeout;
     }
 
+    public int getSqLiteReadPoolSize() {
+        return sqLiteReadPoolSize;
+    }
+
+    public boolean doDatabaseWriteBehind() {
+        return databaseWriteBehind;
+    }
+
+    public long getDatabaseWriteBehindMaxStaleness() {
+        return databaseWriteBehindMaxStaleness;
+    }
+
+    public int getDatabaseWriteBehindMaxPendingWrites() {
+        return databaseWriteBehindMaxPendingWrites;
+    }
+
+    public boolean doDatabaseReadThroughCache() {
+        return databaseReadThroughCache;
+    }
+
+    public int getUserHomeCacheMaxUsers() {
+        return userHomeCacheMaxUsers;
+    }
+
+    public long getUserHomeCacheMaxIdle() {
+        return userHomeCacheMaxIdle;
+    }
+
     public Map<String, String> getTableNames() {
         return tableNames;
     }
@@ -443,6 +532,26 @@ public class Settings {
         return redisUseSsl;
     }
 
+    public int getRedisDispatchThreads() {
+        return redisDispatchThreads;
+    }
+
+    public int getRedisDispatchQueueSize() {
+        return redisDispatchQueueSize;
+    }
+
+    public MessageDispatcher.OverflowPolicy getRedisDispatchOverflowPolicy() {
+        return redisDispatchOverflowPolicy;
+    }
+
+    public boolean doRedisStreams() {
+        return redisStreams;
+    }
+
+    public long getRedisStreamMaxLength() {
+        return redisStreamMaxLength;
+    }
+
     public int getRtpCooldownLength() {
         return rtpCooldownLength;
     }
@@ -463,6 +572,26 @@ public class Settings {
         return rtpDistributionStandardDeviation;
     }
 
+    public int getRtpParallelCandidates() {
+        return rtpParallelCandidates;
+    }
+
+    public int getRtpMaxCandidatesInFlight() {
+        return rtpMaxCandidatesInFlight;
+    }
+
+    public boolean doRtpLocationPool() {
+        return rtpLocationPool;
+    }
+
+    public int getRtpLocationPoolDepth() {
+        return rtpLocationPoolDepth;
+    }
+
+    public long getRtpLocationPoolMaxAge() {
+        return rtpLocationPoolMaxAge;
+    }
+
     public boolean isWorldRtpRestricted(@NotNull World world) {
         final String worldName = world.getName();
         final String filteredName = worldName.startsWith("minecraft:") ? worldName.substring(10) : worldName;
@@ -35,11 +35,16 @@ import org.jetbrains.annotations.Nullable;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.logging.Level;
 import java.util.stream.Collectors;
 
 /**
@@ -51,6 +56,12 @@ public abstract class Database {
 
     protected final HuskHomes plugin;
 
+    /**
+     * Buffer of pending position slot writes, present only if write-behind is enabled
+     */
+    @Nullable
+    private final PositionWriteQueue writeQueue;
+
     /**
      * Loads SQL table creation schema statements from a resource file as a string array
      *
@@ -78,7 +89,8 @@ public abstract class Database {
                 .replaceAll("%teleports_table%", plugin.getSettings().getTableName(Table.TELEPORT_DATA))
                 .replaceAll("%saved_positions_table%", plugin.getSettings().getTableName(Table.SAVED_POSITION_DATA))
                 .replaceAll("%homes_table%", plugin.getSettings().getTableName(Table.HOME_DATA))
-                .replaceAll("%warps_table%", plugin.getSettings().getTableName(Table.WARP_DATA));
+                .replaceAll("%warps_table%", plugin.getSettings().getTableName(Table.WARP_DATA))
+                .replaceAll("%meta_table%", plugin.getSettings().getTableName(Table.META_DATA));
     }
 
     /**
@@ -88,6 +100,7 @@ public abstract class Database {
      */
     protected Database(@NotNull HuskHomes plugin) {
         this.plugin = plugin;
+        this.writeQueue = plugin.getSettings().doDatabaseWriteBehind() ? new PositionWriteQueue(this, plugin) : null;
     }
 
     /**
@@ -95,6 +108,70 @@ public abstract class Database {
      */
     public abstract void initialize() throws IllegalStateException;
 
+    /**
+     * <b>(Internal use only)</b> - Apply each {@link Migration} newer than the schema version recorded in the
+     * metadata table, in order, updating the recorded version after each. Migrations must be safe to run again if they
+     * previously failed partway through.
+     *
+     * @param connection SQL connection
+     * @param type       The {@link Type} of database, determining which migration scripts to run
+     * @throws SQLException if an SQL exception occurs applying a migration
+     * @throws IOException  if a migration script could not be read
+     */
+    protected final void performMigrations(@NotNull Connection connection, @NotNull Type type) throws SQLException, IOException {
+        final int schemaVersion = getSchemaVersion(connection);
+        for (Migration migration : Migration.values()) {
+            if (migration.getVersion() <= schemaVersion) {
+                continue;
+            }
+
+            // Apply the migration in a transaction, so it can be rolled back if it fails partway through. MySQL commits
+            // schema changes implicitly, so its migration scripts instead check each step has not already been made
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                for (String migrationStatement : getSchemaStatements(migration.getScript(type))) {
+                    if (!migrationStatement.isBlank()) {
+                        statement.execute(migrationStatement);
+                    }
+                }
+                setSchemaVersion(connection, migration.getVersion());
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            plugin.log(Level.INFO, "Applied database migration #" + migration.getVersion()
+                                   + " (" + migration.name().toLowerCase() + ")");
+        }
+    }
+
+    // Get the schema version recorded in the metadata table; 0 if none has been recorded
+    private int getSchemaVersion(@NotNull Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
+                SELECT `schema_version`
+                FROM `%meta_table%`;"""))) {
+            final ResultSet resultSet = statement.executeQuery();
+            return resultSet.next() ? resultSet.getInt("schema_version") : 0;
+        }
+    }
+
+    // Record the schema version in the metadata table
+    private void setSchemaVersion(@NotNull Connection connection, int version) throws SQLException {
+        try (PreparedStatement deleteStatement = connection.prepareStatement(formatStatementTables("""
+                DELETE FROM `%meta_table%`;"""))) {
+            deleteStatement.executeUpdate();
+        }
+        try (PreparedStatement insertStatement = connection.prepareStatement(formatStatementTables("""
+                INSERT INTO `%meta_table%` (`schema_version`)
+                VALUES (?);"""))) {
+            insertStatement.setInt(1, version);
+            insertStatement.executeUpdate();
+        }
+    }
+
     /**
      * <b>(Internal use only)</b> - Sets a position to the position table in the database
      *
@@ -277,8 +354,19 @@ public abstract class Database {
      * Updates a user in the database with new {@link SavedUser}
      *
      * @param savedUser The {@link SavedUser} to update
+     * @return {@code true} if the data was saved
+     */
+    public boolean updateUserData(@NotNull SavedUser savedUser) {
+        return this.updateUserData(List.of(savedUser));
+    }
+
+    /**
+     * Updates a batch of users in the database with new {@link SavedUser} data, in a single transaction
+     *
+     * @param savedUsers The {@link SavedUser}s to update
+     * @return {@code true} if the data was saved
      */
-    public abstract void updateUserData(@NotNull SavedUser savedUser);
+    public abstract boolean updateUserData(@NotNull Collection<SavedUser> savedUsers);
 
     /**
      * Sets or clears the current {@link Teleport} being executed by a {@link User}
@@ -304,7 +392,9 @@ public abstract class Database {
      * @param user The {@link User} to check
      * @return A future returning an optional with the {@link Position} present if it has been set
      */
-    public abstract Optional<Position> getLastPosition(@NotNull User user);
+    public final Optional<Position> getLastPosition(@NotNull User user) {
+        return this.readPosition(user, PositionSlot.LAST_POSITION);
+    }
 
     /**
      * Sets the last teleport {@link Position} of a {@link User}
@@ -312,7 +402,9 @@ public abstract class Database {
      * @param user     The {@link User} to set the last position of
      * @param position The {@link Position} to set as their last position
      */
-    public abstract void setLastPosition(@NotNull User user, @NotNull Position position);
+    public final void setLastPosition(@NotNull User user, @NotNull Position position) {
+        this.writePosition(user, PositionSlot.LAST_POSITION, position);
+    }
 
     /**
      * Get the offline {@link Position} of a specified {@link User}
@@ -320,7 +412,9 @@ public abstract class Database {
      * @param user The {@link User} to check
      * @return A future returning an optional with the {@link Position} present if it has been set
      */
-    public abstract Optional<Position> getOfflinePosition(@NotNull User user);
+    public final Optional<Position> getOfflinePosition(@NotNull User user) {
+        return this.readPosition(user, PositionSlot.OFFLINE_POSITION);
+    }
 
     /**
      * Sets the offline {@link Position} of a {@link User}
@@ -328,7 +422,9 @@ public abstract class Database {
      * @param user     The {@link User} to set the offline position of
      * @param position The {@link Position} to set as their offline position
      */
-    public abstract void setOfflinePosition(@NotNull User user, @NotNull Position position);
+    public final void setOfflinePosition(@NotNull User user, @NotNull Position position) {
+        this.writePosition(user, PositionSlot.OFFLINE_POSITION, position);
+    }
 
     /**
      * Get the respawn {@link Position} of a specified {@link User}
@@ -336,7 +432,9 @@ public abstract class Database {
      * @param user The {@link User} to check
      * @return A future returning an optional with the {@link Position} present if it has been set
      */
-    public abstract Optional<Position> getRespawnPosition(@NotNull User user);
+    public final Optional<Position> getRespawnPosition(@NotNull User user) {
+        return this.readPosition(user, PositionSlot.RESPAWN_POSITION);
+    }
 
     /**
      * Sets or clears the respawn {@link Position} of a {@link User}
@@ -345,14 +443,71 @@ public abstract class Database {
      * @param position The {@link Position} to set as their respawn position
      *                 Pass as {@code null} to clear the player's current respawn position.<p>
      */
-    public abstract void setRespawnPosition(@NotNull User user, @Nullable Position position);
+    public final void setRespawnPosition(@NotNull User user, @Nullable Position position) {
+        this.writePosition(user, PositionSlot.RESPAWN_POSITION, position);
+    }
+
+    // Get a position slot, preferring a pending write-behind value over the stored one
+    private Optional<Position> readPosition(@NotNull User user, @NotNull PositionSlot slot) {
+        if (writeQueue != null) {
+            final Optional<PositionWrite> pending = writeQueue.getPending(user, slot);
+            if (pending.isPresent()) {
+                return Optional.ofNullable(pending.get().position());
+            }
+        }
+        return this.getSlotPosition(user, slot);
+    }
+
+    // Set a position slot, deferring the write to the write-behind queue if it is enabled
+    private void writePosition(@NotNull User user, @NotNull PositionSlot slot, @Nullable Position position) {
+        final PositionWrite write = new PositionWrite(user, slot, position);
+        if (writeQueue != null) {
+            writeQueue.queue(write);
+            return;
+        }
+        this.setSlotPositions(List.of(write));
+    }
+
+    /**
+     * Flush any pending write-behind position writes for a {@link User} to the database.
+     * <p>
+     * This should be called before a user is handed off to another server, so that the destination server reads
+     * up-to-date positions alongside their {@link #getCurrentTeleport(OnlineUser) current teleport}.
+     *
+     * @param user The {@link User} to flush pending writes for
+     */
+    public final void flushPendingWrites(@NotNull User user) {
+        if (writeQueue != null) {
+            writeQueue.flush(user);
+        }
+    }
+
+    /**
+     * <b>(Internal use only)</b> - Get the {@link Position} stored in a user's {@link PositionSlot}
+     *
+     * @param user The {@link User} to get the position of
+     * @param slot The {@link PositionSlot} to read
+     * @return An optional with the {@link Position} present if it has been set
+     */
+    protected abstract Optional<Position> getSlotPosition(@NotNull User user, @NotNull PositionSlot slot);
+
+    /**
+     * <b>(Internal use only)</b> - Apply a batch of {@link PositionWrite}s to users' position slots.
+     * <p>
+     * Writes in a batch are expected to target distinct user and slot pairs, and are applied in a single transaction.
+     *
+     * @param writes The writes to apply
+     * @return {@code true} if the writes were saved, or {@code false} if the transaction failed and was rolled back
+     */
+    protected abstract boolean setSlotPositions(@NotNull Collection<PositionWrite> writes);
 
     /**
      * Sets or updates a {@link Home} into the home data table on the database.
      *
      * @param home The {@link Home} to set - or update - in the database.
+     * @return {@code true} if the home was saved, or {@code false} if an exception occurred saving it
      */
-    public abstract void saveHome(@NotNull Home home);
+    public abstract boolean saveHome(@NotNull Home home);
 
     /**
      * Sets or updates a {@link Warp} into the warp data table on the database.
@@ -391,9 +546,13 @@ public abstract class Database {
     public abstract int deleteAllWarps();
 
     /**
-     * Close any remaining connection to the database source
+     * Close any remaining connection to the database source, flushing pending position writes first
      */
-    public abstract void terminate();
+    public void terminate() {
+        if (writeQueue != null) {
+            writeQueue.close();
+        }
+    }
 
 
     /**
@@ -415,6 +574,67 @@ public abstract class Database {
         }
     }
 
+    /**
+     * Versioned changes to the database schema, applied in order on initialization if they have not been already.
+     * <p>
+     * Each migration has a script per {@link Type}, at {@code database/migrations/<type>/<version>_<name>.sql}
+     */
+    public enum Migration {
+        ADD_LOOKUP_INDEXES(1);
+
+        private final int version;
+
+        Migration(int version) {
+            this.version = version;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        @NotNull
+        public String getScript(@NotNull Type type) {
+            return "database/migrations/" + type.name().toLowerCase() + "/" + version + "_" + name().toLowerCase() + ".sql";
+        }
+    }
+
+    /**
+     * Identifies the position slots stored against each user on the player data table
+     */
+    public enum PositionSlot {
+        LAST_POSITION("last_position", "last teleport position"),
+        OFFLINE_POSITION("offline_position", "offline position"),
+        RESPAWN_POSITION("respawn_position", "respawn position");
+
+        private final String column;
+        private final String displayName;
+
+        PositionSlot(@NotNull String column, @NotNull String displayName) {
+            this.column = column;
+            this.displayName = displayName;
+        }
+
+        @NotNull
+        public String getColumn() {
+            return column;
+        }
+
+        @NotNull
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    /**
+     * Represents a write of a {@link Position} - or a clear, if {@code null} - to a user's {@link PositionSlot}
+     *
+     * @param user     The {@link User} whose slot is being written
+     * @param slot     The {@link PositionSlot} being written
+     * @param position The {@link Position} to set, or {@code null} to clear the slot
+     */
+    public record PositionWrite(@NotNull User user, @NotNull PositionSlot slot, @Nullable Position position) {
+    }
+
     /**
      * Represents the names of tables in the database
      */
@@ -424,7 +644,8 @@ public abstract class Database {
         SAVED_POSITION_DATA("huskhomes_saved_positions"),
         HOME_DATA("huskhomes_homes"),
         WARP_DATA("huskhomes_warps"),
-        TELEPORT_DATA("huskhomes_teleports");
+        TELEPORT_DATA("huskhomes_teleports"),
+        META_DATA("huskhomes_metadata");
 
         private final String defaultName;
 
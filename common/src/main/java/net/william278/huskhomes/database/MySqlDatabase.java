@@ -42,7 +42,11 @@ import java.util.logging.Level;
 public class MySqlDatabase extends Database {
 
     private static final String DATA_POOL_NAME = "HuskHomesHikariPool";
+    private static final int MIN_STATEMENT_CACHE_SIZE = 250;
+    private static final int MIN_STATEMENT_CACHE_SQL_LIMIT = 2048;
     private HikariDataSource dataSource;
+    private StatementCatalog<Query> statements;
+    private final PositionUpserter upserter = new PositionUpserter(Type.MYSQL, this::formatStatementTables);
 
     public MySqlDatabase(@NotNull HuskHomes plugin) {
         super(plugin);
@@ -60,6 +64,9 @@ public class MySqlDatabase extends Database {
 
     @Override
     public void initialize() throws IllegalStateException {
+        // Format the statements run by the plugin
+        statements = new StatementCatalog<>(Query.class, Query::getSql, this::formatStatementTables);
+
         // Initialize the Hikari pooled connection
         dataSource = new HikariDataSource();
         dataSource.setJdbcUrl("jdbc:mysql://" +
@@ -82,11 +89,13 @@ public class MySqlDatabase extends Database {
         dataSource.setConnectionTimeout(plugin.getSettings().getMySqlConnectionPoolTimeout());
         dataSource.setPoolName(DATA_POOL_NAME);
 
-        // Set additional connection pool properties
+        // Set additional connection pool properties; size the prepared statement cache to hold the whole catalog
+        final int statementCacheSize = Math.max(MIN_STATEMENT_CACHE_SIZE, statements.size() * 2);
+        final int statementCacheSqlLimit = Math.max(MIN_STATEMENT_CACHE_SQL_LIMIT, statements.getMaxLength());
         dataSource.setDataSourceProperties(new Properties() {{
             put("cachePrepStmts", "true");
-            put("prepStmtCacheSize", "250");
-            put("prepStmtCacheSqlLimit", "2048");
+            put("prepStmtCacheSize", String.valueOf(statementCacheSize));
+            put("prepStmtCacheSqlLimit", String.valueOf(statementCacheSqlLimit));
             put("useServerPrepStmts", "true");
             put("useLocalSessionState", "true");
             put("useLocalTransactionState", "true");
@@ -108,6 +117,14 @@ public class MySqlDatabase extends Database {
                 throw new IllegalStateException("Failed to create database tables. Please ensure you are running MySQL v8.0+ " +
                                                 "and that your connecting user account has privileges to create tables.", e);
             }
+
+            // Apply schema migrations
+            try {
+                performMigrations(connection, Type.MYSQL);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to migrate the database schema. Please ensure your connecting " +
+                                                "user account has privileges to alter tables and create indexes.", e);
+            }
         } catch (SQLException | IOException e) {
             throw new IllegalStateException("Failed to establish a connection to the MySQL database. " +
                                             "Please check the supplied database credentials in the config file", e);
@@ -116,42 +133,12 @@ public class MySqlDatabase extends Database {
 
     @Override
     protected int setPosition(@NotNull Position position, @NotNull Connection connection) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                        INSERT INTO `%positions_table%` (`x`,`y`,`z`,`yaw`,`pitch`,`world_name`,`world_uuid`,`server_name`)
-                        VALUES (?,?,?,?,?,?,?,?);"""),
-                Statement.RETURN_GENERATED_KEYS)) {
-
-            statement.setDouble(1, position.getX());
-            statement.setDouble(2, position.getY());
-            statement.setDouble(3, position.getZ());
-            statement.setFloat(4, position.getYaw());
-            statement.setFloat(5, position.getPitch());
-            statement.setString(6, position.getWorld().getName());
-            statement.setString(7, position.getWorld().getUuid().toString());
-            statement.setString(8, position.getServer());
-            statement.executeUpdate();
-
-            final ResultSet resultSet = statement.getGeneratedKeys();
-            if (resultSet.next()) {
-                return resultSet.getInt(1);
-            }
-            throw new SQLException("Failed to insert position into database");
-        }
+        return upserter.insertPosition(position, connection);
     }
 
     @Override
     protected void updatePosition(int positionId, @NotNull Position position, @NotNull Connection connection) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                UPDATE `%positions_table%`
-                SET `x`=?,
-                `y`=?,
-                `z`=?,
-                `yaw`=?,
-                `pitch`=?,
-                `world_uuid`=?,
-                `world_name`=?,
-                `server_name`=?
-                WHERE `id`=?"""))) {
+        try (PreparedStatement statement = connection.prepareStatement(statements.get(Query.UPDATE_POSITION))) {
             statement.setDouble(1, position.getX());
             statement.setDouble(2, position.getY());
             statement.setDouble(3, position.getZ());
@@ -167,9 +154,7 @@ public class MySqlDatabase extends Database {
 
     @Override
     protected int setSavedPosition(@NotNull SavedPosition position, @NotNull Connection connection) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                        INSERT INTO `%saved_positions_table%` (`position_id`, `name`, `description`, `tags`, `timestamp`)
-                        VALUES (?,?,?,?,?);"""),
+        try (PreparedStatement statement = connection.prepareStatement(statements.get(Query.INSERT_SAVED_POSITION),
                 Statement.RETURN_GENERATED_KEYS)) {
 
             statement.setInt(1, setPosition(position, connection));
@@ -189,31 +174,7 @@ public class MySqlDatabase extends Database {
 
     @Override
     protected void updateSavedPosition(int savedPositionId, @NotNull SavedPosition position, @NotNull Connection connection) throws SQLException {
-        try (PreparedStatement selectStatement = connection.prepareStatement(formatStatementTables("""
-                SELECT `position_id`
-                FROM `%saved_positions_table%`
-                WHERE `id`=?;"""))) {
-            selectStatement.setInt(1, savedPositionId);
-
-            final ResultSet resultSet = selectStatement.executeQuery();
-            if (resultSet.next()) {
-                final int positionId = resultSet.getInt("position_id");
-                updatePosition(positionId, position, connection);
-
-                try (PreparedStatement updateStatement = connection.prepareStatement(formatStatementTables("""
-                        UPDATE `%saved_positions_table%`
-                        SET `name`=?,
-                        `description`=?,
-                        `tags`=?
-                        WHERE `id`=?;"""))) {
-                    updateStatement.setString(1, position.getName());
-                    updateStatement.setString(2, position.getMeta().getDescription());
-                    updateStatement.setString(3, position.getMeta().getSerializedTags());
-                    updateStatement.setInt(4, savedPositionId);
-                    updateStatement.executeUpdate();
-                }
-            }
-        }
+        upserter.updateSavedPosition(savedPositionId, position, connection);
     }
 
     @Override
@@ -222,10 +183,7 @@ public class MySqlDatabase extends Database {
                     if (!existingUserData.getUsername().equals(onlineUser.getUsername())) {
                         // Update a player's name if it has changed in the database
                         try (Connection connection = getConnection()) {
-                            try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                                    UPDATE `%players_table%`
-                                    SET `username`=?
-                                    WHERE `uuid`=?"""))) {
+                            try (PreparedStatement statement = connection.prepareStatement(statements.get(Query.UPDATE_USERNAME))) {
 
                                 statement.setString(1, onlineUser.getUsername());
                                 statement.setString(2, existingUserData.getUserUuid().toString());
@@ -240,9 +198,7 @@ public class MySqlDatabase extends Database {
                 () -> {
                     // Insert new player data into the database
                     try (Connection connection = getConnection()) {
-                        try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                                INSERT INTO `%players_table%` (`uuid`,`username`)
-                                VALUES (?,?);"""))) {
+                        try (PreparedStatement statement = connection.prepareStatement(statements.get(Query.INSERT_USER))) {
 
                             statement.setString(1, onlineUser.getUuid().toString());
                             statement.setString(2, onlineUser.getUsername());
@@ -257,10 +213,7 @@ public class MySqlDatabase extends Database {
     @Override
     public Optional<SavedUser> getUserDataByName(@NotNull String name) {
         try (Connection connection = getConnection()) {
-            try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                    SELECT `uuid`, `username`, `home_slots`, `ignoring_requests`, `rtp_cooldown`
-                    FROM `%players_table%`
-                    WHERE `username`=?"""))) {
+            try (PreparedStatement statement = connection.prepareStatement(statements.get(Query.GET_USER_BY_NAME))) {
                 statement.setString(1, name);
 
                 final ResultSet resultSet = statement.executeQuery();
@@ -282,10 +235,7 @@ public class MySqlDatabase extends Database {
     @Override
     public Optional<SavedUser> getUserData(@NotNull UUID uuid) {
         try (Connection connection = getConnection()) {
-            try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                    SELECT `uuid`, `username`, `home_slots`, `ignoring_requests`, `rtp_cooldown`
-                    FROM `%players_table%`
-                    WHERE `uuid`=?"""))) {
+            try (PreparedStatement statement = connection.prepareStatement(statements.get(Query.GET_USER))) {
 
                 statement.setString(1, uuid.toString());
 
@@ -309,14 +259,7 @@ public class MySqlDatabase extends Database {
     public List<Home> getHomes(@NotNull User user) {
         final List<Home> userHomes = new ArrayList<>();
         try (Connection connection = getConnection()) {
-            try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                    SELECT `%homes_table%`.`uuid` AS `home_uuid`, `owner_uuid`, `name`, `description`, `tags`, `timestamp`, `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`, `public`
-                    FROM `%homes_table%`
-                    INNER JOIN `%saved_positions_table%` ON `%homes_table%`.`saved_position_id`=`%saved_positions_table%`.`id`
-                    INNER JOIN `%positions_table%` ON `%saved_positions_table%`.`position_id`=`%positions_table%`.`id`
-                    INNER JOIN `%players_table%` ON `%homes_table%`.`owner_uuid`=`%players_table%`.`uuid`
-                    WHERE `owner_uuid`=?
-                    ORDER BY `name`;"""))) {
+            try (PreparedStatement statement = connection.prepareStatement(statements.get(Query.GET_HOMES))) {
 
                 statement.setString(1, user.getUuid().toString());
 
@@ -349,12 +292,7 @@ public class MySqlDatabase extends Database {
     public List<Warp> getWarps() {
         final List<Warp> warps = new ArrayList<>();
         try (Connection connection = getConnection()) {
-            try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                    SELECT `%warps_table%`.`uuid` AS `warp_uuid`, `name`, `description`, `tags`, `timestamp`, `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`
-                    FROM `%warps_table%`
-                    INNER JOIN `%saved_positions_table%` ON `%warps_table%`.`saved_position_id`=`%saved_positions_table%`.`id`
-                    INNER JOIN `%positions_table%` ON `%saved_positions_table%`.`position_id`=`%positions_table%`.`id`
-                    ORDER BY `name`;"""))) {
+            try (PreparedStatement statement = connection.prepareStatement(statements.get(Query.GET_WARPS))) {
 
                 final ResultSet resultSet = statement.executeQuery();
                 while (resultSet.next()) {
@@ -383,14 +321,7 @@ public class MySqlDatabase extends Database {
     public List<Home> getPublicHomes() {
         final List<Home> userHomes = new ArrayList<>();
         try (Connection connection = getConnection()) {
-            try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                    SELECT `%homes_table%`.`uuid` AS `home_uuid`, `owner_uuid`, `username` AS `owner_username`, `name`, `description`, `tags`, `timestamp`, `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`, `public`
-                    FROM `%homes_table%`
-                    INNER JOIN `%saved_positions_table%` ON `%homes_table%`.`saved_position_id`=`%saved_positions_table%`.`id`
-                    INNER JOIN `%positions_table%` ON `%saved_positions_table%`.`position_id`=`%positions_table%`.`id`
-                    INNER JOIN `%players_table%` ON `%homes_table%`.`owner_uuid`=`%players_table%`.`uuid`
-                    WHERE `public`=true
-                    ORDER BY `name`;"""))) {
+            try (PreparedStatement statement = connection.prepareStatement(statements.get(Query.GET_PUBLIC_HOMES))) {
 
                 final ResultSet resultSet = statement.executeQuery();
                 while (resultSet.next()) {
@@ -421,14 +352,7 @@ public class MySqlDatabase extends Database {
     @Override
     public Optional<Home> getHome(@NotNull User user, @NotNull String homeName, boolean caseInsensitive) {
         try (Connection connection = getConnection()) {
-            try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                    SELECT `%homes_table%`.`uuid` AS `home_uuid`, `owner_uuid`, `username` AS `owner_username`, `name`, `description`, `tags`, `timestamp`, `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`, `public`
-                    FROM `%homes_table%`
-                    INNER JOIN `%saved_positions_table%` ON `%homes_table%`.`saved_position_id`=`%saved_positions_table%`.`id`
-                    INNER JOIN `%positions_table%` ON `%saved_positions_table%`.`position_id`=`%positions_table%`.`id`
-                    INNER JOIN `%players_table%` ON `%homes_table%`.`owner_uuid`=`%players_table%`.`uuid`
-                    WHERE `owner_uuid`=?
-                    """ + (caseInsensitive ? "AND UPPER(`name`) LIKE UPPER(?);" : "AND `name`=?;")))) {
+            try (PreparedStatement statement = connection.prepareStatement(statements.get(caseInsensitive ? Query.GET_HOME_BY_NAME_CASE_INSENSITIVE : Query.GET_HOME_BY_NAME))) {
                 statement.setString(1, user.getUuid().toString());
                 statement.setString(2, homeName);
 
@@ -460,13 +384,7 @@ public class MySqlDatabase extends Database {
     @Override
     public Optional<Home> getHome(@NotNull UUID uuid) {
         try (Connection connection = getConnection()) {
-            try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                    SELECT `%homes_table%`.`uuid` AS `home_uuid`, `owner_uuid`, `username` AS `owner_username`, `name`, `description`, `tags`, `timestamp`, `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`, `public`
-                    FROM `%homes_table%`
-                    INNER JOIN `%saved_positions_table%` ON `%homes_table%`.`saved_position_id`=`%saved_positions_table%`.`id`
-                    INNER JOIN `%positions_table%` ON `%saved_positions_table%`.`position_id`=`%positions_table%`.`id`
-                    INNER JOIN `%players_table%` ON `%homes_table%`.`owner_uuid`=`%players_table%`.`uuid`
-                    WHERE `%homes_table%`.`uuid`=?;"""))) {
+            try (PreparedStatement statement = connection.prepareStatement(statements.get(Query.GET_HOME))) {
                 statement.setString(1, uuid.toString());
 
                 final ResultSet resultSet = statement.executeQuery();
@@ -498,12 +416,7 @@ public class MySqlDatabase extends Database {
     @Override
     public Optional<Warp> getWarp(@NotNull String warpName, boolean caseInsensitive) {
         try (Connection connection = getConnection()) {
-            try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                    SELECT `%warps_table%`.`uuid` AS `warp_uuid`, `name`, `description`, `tags`, `timestamp`, `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`
-                    FROM `%warps_table%`
-                    INNER JOIN `%saved_positions_table%` ON `%warps_table%`.`saved_position_id`=`%saved_positions_table%`.`id`
-                    INNER JOIN `%positions_table%` ON `%saved_positions_table%`.`position_id`=`%positions_table%`.`id`
-                    """ + (caseInsensitive ? "WHERE UPPER(`name`) LIKE UPPER(?);" : "WHERE `name`=?;")))) {
+            try (PreparedStatement statement = connection.prepareStatement(statements.get(caseInsensitive ? Query.GET_WARP_BY_NAME_CASE_INSENSITIVE : Query.GET_WARP_BY_NAME))) {
                 statement.setString(1, warpName);
 
                 final ResultSet resultSet = statement.executeQuery();
@@ -532,12 +445,7 @@ public class MySqlDatabase extends Database {
     @Override
     public Optional<Warp> getWarp(@NotNull UUID uuid) {
         try (Connection connection = getConnection()) {
-            try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                    SELECT `%warps_table%`.`uuid` AS `warp_uuid`, `name`, `description`, `tags`, `timestamp`, `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`
-                    FROM `%warps_table%`
-                    INNER JOIN `%saved_positions_table%` ON `%warps_table%`.`saved_position_id`=`%saved_positions_table%`.`id`
-                    INNER JOIN `%positions_table%` ON `%saved_positions_table%`.`position_id`=`%positions_table%`.`id`
-                    WHERE `%warps_table%`.uuid=?;"""))) {
+            try (PreparedStatement statement = connection.prepareStatement(statements.get(Query.GET_WARP))) {
                 statement.setString(1, uuid.toString());
 
                 final ResultSet resultSet = statement.executeQuery();
@@ -566,11 +474,7 @@ public class MySqlDatabase extends Database {
     @Override
     public Optional<Teleport> getCurrentTeleport(@NotNull OnlineUser onlineUser) {
         try (Connection connection = getConnection()) {
-            try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                    SELECT `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`, `type`
-                    FROM `%teleports_table%`
-                    INNER JOIN `%positions_table%` ON `%teleports_table%`.`destination_id` = `%positions_table%`.`id`
-                    WHERE `player_uuid`=?"""))) {
+            try (PreparedStatement statement = connection.prepareStatement(statements.get(Query.GET_CURRENT_TELEPORT))) {
                 statement.setString(1, onlineUser.getUuid().toString());
 
                 final ResultSet resultSet = statement.executeQuery();
@@ -600,44 +504,47 @@ public class MySqlDatabase extends Database {
     }
 
     @Override
-    public void updateUserData(@NotNull SavedUser savedUser) {
+    public boolean updateUserData(@NotNull Collection<SavedUser> savedUsers) {
+        if (savedUsers.isEmpty()) {
+            return true;
+        }
         try (Connection connection = getConnection()) {
-            try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                    UPDATE `%players_table%`
-                    SET `home_slots`=?, `ignoring_requests`=?, `rtp_cooldown`=?
-                    WHERE `uuid`=?"""))) {
-
-                statement.setInt(1, savedUser.getHomeSlots());
-                statement.setBoolean(2, savedUser.isIgnoringTeleports());
-                statement.setTimestamp(3, Timestamp.from(savedUser.getRtpCooldown()));
-                statement.setString(4, savedUser.getUserUuid().toString());
-                statement.executeUpdate();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(statements.get(Query.UPDATE_USER))) {
+                for (SavedUser savedUser : savedUsers) {
+                    statement.setInt(1, savedUser.getHomeSlots());
+                    statement.setBoolean(2, savedUser.isIgnoringTeleports());
+                    statement.setTimestamp(3, Timestamp.from(savedUser.getRtpCooldown()));
+                    statement.setString(4, savedUser.getUserUuid().toString());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
             }
+            return true;
         } catch (SQLException e) {
-            plugin.log(Level.SEVERE, "Failed to update user data for " + savedUser.getUsername() + " on the database", e);
+            plugin.log(Level.SEVERE, "Failed to update user data for " + savedUsers.size() + " user(s) on the database", e);
         }
+        return false;
     }
 
     @Override
     public void setCurrentTeleport(@NotNull User user, @Nullable Teleport teleport) {
         try (Connection connection = getConnection()) {
             // Clear the user's current teleport
-            try (PreparedStatement deleteStatement = connection.prepareStatement(formatStatementTables("""
-                    DELETE FROM `%positions_table%`
-                    WHERE `id`=(
-                        SELECT `destination_id`
-                        FROM `%teleports_table%`
-                        WHERE `%teleports_table%`.`player_uuid`=?
-                    );"""))) {
+            try (PreparedStatement deleteStatement = connection.prepareStatement(statements.get(Query.DELETE_CURRENT_TELEPORT))) {
                 deleteStatement.setString(1, user.getUuid().toString());
                 deleteStatement.executeUpdate();
             }
 
             // Set the user's teleport into the database (if it's not null)
             if (teleport != null) {
-                try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                        INSERT INTO `%teleports_table%` (`player_uuid`, `destination_id`, `type`)
-                        VALUES (?,?,?);"""))) {
+                try (PreparedStatement statement = connection.prepareStatement(statements.get(Query.INSERT_CURRENT_TELEPORT))) {
                     statement.setString(1, user.getUuid().toString());
                     statement.setInt(2, setPosition((Position) teleport.getTarget(), connection));
                     statement.setInt(3, teleport.getType().getTypeId());
@@ -651,72 +558,14 @@ public class MySqlDatabase extends Database {
     }
 
     @Override
-    public Optional<Position> getLastPosition(@NotNull User user) {
-        try (Connection connection = getConnection()) {
-            try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                    SELECT `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`
-                    FROM `%players_table%`
-                    INNER JOIN `%positions_table%` ON `%players_table%`.`last_position` = `%positions_table%`.`id`
-                    WHERE `uuid`=?"""))) {
-                statement.setString(1, user.getUuid().toString());
-
-                final ResultSet resultSet = statement.executeQuery();
-                if (resultSet.next()) {
-                    return Optional.of(Position.at(resultSet.getDouble("x"),
-                            resultSet.getDouble("y"),
-                            resultSet.getDouble("z"),
-                            resultSet.getFloat("yaw"),
-                            resultSet.getFloat("pitch"),
-                            World.from(resultSet.getString("world_name"),
-                                    UUID.fromString(resultSet.getString("world_uuid"))),
-                            resultSet.getString("server_name")));
-                }
-            }
-        } catch (SQLException e) {
-            plugin.log(Level.SEVERE, "Failed to query the last teleport position of " + user.getUsername(), e);
-        }
-        return Optional.empty();
-    }
-
-    @Override
-    public void setLastPosition(@NotNull User user, @NotNull Position position) {
-        try (Connection connection = getConnection()) {
-            try (PreparedStatement queryStatement = connection.prepareStatement(formatStatementTables("""
-                    SELECT `last_position`
-                    FROM `%players_table%`
-                    INNER JOIN `%positions_table%` ON `%players_table%`.last_position = `%positions_table%`.`id`
-                    WHERE `uuid`=?;"""))) {
-                queryStatement.setString(1, user.getUuid().toString());
-
-                final ResultSet resultSet = queryStatement.executeQuery();
-                if (resultSet.next()) {
-                    // Update the last position
-                    updatePosition(resultSet.getInt("last_position"), position, connection);
-                } else {
-                    // Set the last position
-                    try (PreparedStatement updateStatement = connection.prepareStatement(formatStatementTables("""
-                            UPDATE `%players_table%`
-                            SET `last_position`=?
-                            WHERE `uuid`=?;"""))) {
-                        updateStatement.setInt(1, setPosition(position, connection));
-                        updateStatement.setString(2, user.getUuid().toString());
-                        updateStatement.executeUpdate();
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            plugin.log(Level.SEVERE, "Failed to set the last position of " + user.getUsername(), e);
-        }
-    }
-
-    @Override
-    public Optional<Position> getOfflinePosition(@NotNull User user) {
+    protected Optional<Position> getSlotPosition(@NotNull User user, @NotNull PositionSlot slot) {
+        final Query query = switch (slot) {
+            case LAST_POSITION -> Query.GET_LAST_POSITION;
+            case OFFLINE_POSITION -> Query.GET_OFFLINE_POSITION;
+            case RESPAWN_POSITION -> Query.GET_RESPAWN_POSITION;
+        };
         try (Connection connection = getConnection()) {
-            try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                    SELECT `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`
-                    FROM `%players_table%`
-                    INNER JOIN `%positions_table%` ON `%players_table%`.`offline_position` = `%positions_table%`.`id`
-                    WHERE `uuid`=?"""))) {
+            try (PreparedStatement statement = connection.prepareStatement(statements.get(query))) {
                 statement.setString(1, user.getUuid().toString());
 
                 final ResultSet resultSet = statement.executeQuery();
@@ -732,123 +581,40 @@ public class MySqlDatabase extends Database {
                 }
             }
         } catch (SQLException e) {
-            plugin.log(Level.SEVERE, "Failed to query the offline position of " + user.getUsername(), e);
+            plugin.log(Level.SEVERE, "Failed to query the " + slot.getDisplayName() + " of " + user.getUsername(), e);
         }
         return Optional.empty();
     }
 
     @Override
-    public void setOfflinePosition(@NotNull User user, @NotNull Position position) {
-        try (Connection connection = getConnection()) {
-            try (PreparedStatement queryStatement = connection.prepareStatement(formatStatementTables("""
-                    SELECT `offline_position` FROM `%players_table%`
-                    INNER JOIN `%positions_table%` ON `%players_table%`.`offline_position` = `%positions_table%`.`id`
-                    WHERE `uuid`=?;"""))) {
-                queryStatement.setString(1, user.getUuid().toString());
-
-                final ResultSet resultSet = queryStatement.executeQuery();
-                if (resultSet.next()) {
-                    // Update the offline position
-                    updatePosition(resultSet.getInt("offline_position"), position, connection);
-                } else {
-                    // Set the offline position
-                    try (PreparedStatement updateStatement = connection.prepareStatement(formatStatementTables("""
-                            UPDATE `%players_table%`
-                            SET `offline_position`=?
-                            WHERE `uuid`=?;"""))) {
-                        updateStatement.setInt(1, setPosition(position, connection));
-                        updateStatement.setString(2, user.getUuid().toString());
-                        updateStatement.executeUpdate();
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            plugin.log(Level.SEVERE, "Failed to set the offline position of " + user.getUsername(), e);
-        }
-    }
-
-    @Override
-    public Optional<Position> getRespawnPosition(@NotNull User user) {
-        try (Connection connection = getConnection()) {
-            try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                    SELECT `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`
-                    FROM `%players_table%`
-                    INNER JOIN `%positions_table%` ON `%players_table%`.`respawn_position` = `%positions_table%`.`id`
-                    WHERE `uuid`=?"""))) {
-                statement.setString(1, user.getUuid().toString());
-
-                final ResultSet resultSet = statement.executeQuery();
-                if (resultSet.next()) {
-                    return Optional.of(Position.at(resultSet.getDouble("x"),
-                            resultSet.getDouble("y"),
-                            resultSet.getDouble("z"),
-                            resultSet.getFloat("yaw"),
-                            resultSet.getFloat("pitch"),
-                            World.from(resultSet.getString("world_name"),
-                                    UUID.fromString(resultSet.getString("world_uuid"))),
-                            resultSet.getString("server_name")));
-                }
-            }
-        } catch (SQLException e) {
-            plugin.log(Level.SEVERE, "Failed to query the respawn position of " + user.getUsername(), e);
+    protected boolean setSlotPositions(@NotNull Collection<PositionWrite> writes) {
+        if (writes.isEmpty()) {
+            return true;
         }
-        return Optional.empty();
-    }
-
-    @Override
-    public void setRespawnPosition(@NotNull User user, @Nullable Position position) {
         try (Connection connection = getConnection()) {
-            try (PreparedStatement queryStatement = connection.prepareStatement(formatStatementTables("""
-                    SELECT `respawn_position` FROM `%players_table%`
-                    INNER JOIN `%positions_table%` ON `%players_table%`.respawn_position = `%positions_table%`.`id`
-                    WHERE `uuid`=?;"""))) {
-                queryStatement.setString(1, user.getUuid().toString());
-
-                final ResultSet resultSet = queryStatement.executeQuery();
-                if (resultSet.next()) {
-                    if (position == null) {
-                        // Delete a respawn position
-                        try (PreparedStatement deleteStatement = connection.prepareStatement(formatStatementTables("""
-                                DELETE FROM `%positions_table%`
-                                WHERE `id`=(
-                                    SELECT `respawn_position`
-                                    FROM `%players_table%`
-                                    WHERE `%players_table%`.`uuid`=?
-                                );"""))) {
-                            deleteStatement.setString(1, user.getUuid().toString());
-                            deleteStatement.executeUpdate();
-                        }
-                    } else {
-                        // Update the respawn position
-                        updatePosition(resultSet.getInt("respawn_position"), position, connection);
-                    }
-                } else {
-                    if (position != null) {
-                        // Set a respawn position
-                        try (PreparedStatement updateStatement = connection.prepareStatement(formatStatementTables("""
-                                UPDATE `%players_table%`
-                                SET `respawn_position`=?
-                                WHERE `uuid`=?;"""))) {
-                            updateStatement.setInt(1, setPosition(position, connection));
-                            updateStatement.setString(2, user.getUuid().toString());
-                            updateStatement.executeUpdate();
-                        }
-                    }
-                }
+            connection.setAutoCommit(false);
+            try {
+                upserter.upsertSlots(writes, connection);
+                connection.commit();
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
             }
         } catch (SQLException e) {
-            plugin.log(Level.SEVERE, "Failed to set the respawn position of " + user.getUsername(), e);
+            plugin.log(Level.SEVERE, "Failed to write " + writes.size() + " position slot(s) to the database", e);
         }
+        return false;
     }
 
     @Override
-    public void saveHome(@NotNull Home home) {
-        getHome(home.getUuid()).ifPresentOrElse(presentHome -> {
+    public boolean saveHome(@NotNull Home home) {
+        if (getHome(home.getUuid()).isPresent()) {
             try (Connection connection = getConnection()) {
                 // Update the home's saved position, including metadata
-                try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                        SELECT `saved_position_id` FROM `%homes_table%`
-                        WHERE `uuid`=?;"""))) {
+                try (PreparedStatement statement = connection.prepareStatement(statements.get(Query.GET_HOME_SAVED_POSITION))) {
                     statement.setString(1, home.getUuid().toString());
 
                     final ResultSet resultSet = statement.executeQuery();
@@ -858,23 +624,19 @@ public class MySqlDatabase extends Database {
                 }
 
                 // Update the home privacy
-                try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                        UPDATE `%homes_table%`
-                        SET `public`=?
-                        WHERE `uuid`=?;"""))) {
+                try (PreparedStatement statement = connection.prepareStatement(statements.get(Query.UPDATE_HOME))) {
                     statement.setBoolean(1, home.isPublic());
                     statement.setString(2, home.getUuid().toString());
                     statement.executeUpdate();
                 }
+                return true;
             } catch (SQLException e) {
                 plugin.log(Level.SEVERE,
                         "Failed to update a home in the database for " + home.getOwner().getUsername(), e);
             }
-        }, () -> {
+        } else {
             try (Connection connection = getConnection()) {
-                try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                        INSERT INTO `%homes_table%` (`uuid`, `saved_position_id`, `owner_uuid`, `public`)
-                        VALUES (?,?,?,?);"""))) {
+                try (PreparedStatement statement = connection.prepareStatement(statements.get(Query.INSERT_HOME))) {
                     statement.setString(1, home.getUuid().toString());
                     statement.setInt(2, setSavedPosition(home, connection));
                     statement.setString(3, home.getOwner().getUuid().toString());
@@ -882,20 +644,20 @@ public class MySqlDatabase extends Database {
 
                     statement.executeUpdate();
                 }
+                return true;
             } catch (SQLException e) {
                 plugin.log(Level.SEVERE,
                         "Failed to set a home to the database for " + home.getOwner().getUsername(), e);
             }
-        });
+        }
+        return false;
     }
 
     @Override
     public void saveWarp(@NotNull Warp warp) {
         getWarp(warp.getUuid()).ifPresentOrElse(presentWarp -> {
             try (Connection connection = getConnection()) {
-                try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                        SELECT `saved_position_id` FROM `%warps_table%`
-                        WHERE `uuid`=?;"""))) {
+                try (PreparedStatement statement = connection.prepareStatement(statements.get(Query.GET_WARP_SAVED_POSITION))) {
                     statement.setString(1, warp.getUuid().toString());
 
                     final ResultSet resultSet = statement.executeQuery();
@@ -908,9 +670,7 @@ public class MySqlDatabase extends Database {
             }
         }, () -> {
             try (Connection connection = getConnection()) {
-                try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                        INSERT INTO `%warps_table%` (`uuid`, `saved_position_id`)
-                        VALUES (?,?);"""))) {
+                try (PreparedStatement statement = connection.prepareStatement(statements.get(Query.INSERT_WARP))) {
                     statement.setString(1, warp.getUuid().toString());
                     statement.setInt(2, setSavedPosition(warp, connection));
 
@@ -925,17 +685,7 @@ public class MySqlDatabase extends Database {
     @Override
     public void deleteHome(@NotNull UUID uuid) {
         try (Connection connection = getConnection()) {
-            try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                    DELETE FROM `%positions_table%`
-                    WHERE `%positions_table%`.`id`=(
-                        SELECT `position_id`
-                        FROM `%saved_positions_table%`
-                        WHERE `%saved_positions_table%`.`id`=(
-                            SELECT `saved_position_id`
-                            FROM `%homes_table%`
-                            WHERE `uuid`=?
-                        )
-                    );"""))) {
+            try (PreparedStatement statement = connection.prepareStatement(statements.get(Query.DELETE_HOME))) {
                 statement.setString(1, uuid.toString());
 
                 statement.executeUpdate();
@@ -948,17 +698,7 @@ public class MySqlDatabase extends Database {
     @Override
     public int deleteAllHomes(@NotNull User user) {
         try (Connection connection = getConnection()) {
-            try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                    DELETE FROM `%positions_table%`
-                    WHERE `%positions_table%`.`id` IN (
-                        SELECT `position_id`
-                        FROM `%saved_positions_table%`
-                        WHERE `%saved_positions_table%`.`id` IN (
-                            SELECT `saved_position_id`
-                            FROM `%homes_table%`
-                            WHERE `owner_uuid`=?
-                        )
-                    );"""))) {
+            try (PreparedStatement statement = connection.prepareStatement(statements.get(Query.DELETE_ALL_HOMES))) {
 
                 statement.setString(1, user.getUuid().toString());
                 return statement.executeUpdate();
@@ -972,17 +712,7 @@ public class MySqlDatabase extends Database {
     @Override
     public void deleteWarp(@NotNull UUID uuid) {
         try (Connection connection = getConnection()) {
-            try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                    DELETE FROM `%positions_table%`
-                    WHERE `%positions_table%`.`id`=(
-                        SELECT `position_id`
-                        FROM `%saved_positions_table%`
-                        WHERE `%saved_positions_table%`.`id`=(
-                            SELECT `saved_position_id`
-                            FROM `%warps_table%`
-                            WHERE `uuid`=?
-                        )
-                    );"""))) {
+            try (PreparedStatement statement = connection.prepareStatement(statements.get(Query.DELETE_WARP))) {
                 statement.setString(1, uuid.toString());
 
                 statement.executeUpdate();
@@ -995,16 +725,7 @@ public class MySqlDatabase extends Database {
     @Override
     public int deleteAllWarps() {
         try (Connection connection = getConnection()) {
-            try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
-                    DELETE FROM `%positions_table%`
-                    WHERE `%positions_table%`.`id` IN (
-                        SELECT `position_id`
-                        FROM `%saved_positions_table%`
-                        WHERE `%saved_positions_table%`.`id` IN (
-                            SELECT `saved_position_id`
-                            FROM `%warps_table%`
-                        )
-                    );"""))) {
+            try (PreparedStatement statement = connection.prepareStatement(statements.get(Query.DELETE_ALL_WARPS))) {
                 return statement.executeUpdate();
             }
         } catch (SQLException e) {
@@ -1015,6 +736,7 @@ public class MySqlDatabase extends Database {
 
     @Override
     public void terminate() {
+        super.terminate();
         if (dataSource != null) {
             if (!dataSource.isClosed()) {
                 dataSource.close();
@@ -1022,4 +744,206 @@ public class MySqlDatabase extends Database {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Statements run by the MySQL database, formatted with table names once on initialization
+     */
+    private enum Query {
+        UPDATE_POSITION("""
+                UPDATE `%positions_table%`
+                SET `x`=?,
+                `y`=?,
+                `z`=?,
+                `yaw`=?,
+                `pitch`=?,
+                `world_uuid`=?,
+                `world_name`=?,
+                `server_name`=?
+                WHERE `id`=?"""),
+        INSERT_SAVED_POSITION("""
+                INSERT INTO `%saved_positions_table%` (`position_id`, `name`, `description`, `tags`, `timestamp`)
+                VALUES (?,?,?,?,?);"""),
+        UPDATE_USERNAME("""
+                UPDATE `%players_table%`
+                SET `username`=?
+                WHERE `uuid`=?"""),
+        INSERT_USER("""
+                INSERT INTO `%players_table%` (`uuid`,`username`)
+                VALUES (?,?);"""),
+        GET_USER_BY_NAME("""
+                SELECT `uuid`, `username`, `home_slots`, `ignoring_requests`, `rtp_cooldown`
+                FROM `%players_table%`
+                WHERE `username`=?"""),
+        GET_USER("""
+                SELECT `uuid`, `username`, `home_slots`, `ignoring_requests`, `rtp_cooldown`
+                FROM `%players_table%`
+                WHERE `uuid`=?"""),
+        GET_HOMES("""
+                SELECT `%homes_table%`.`uuid` AS `home_uuid`, `owner_uuid`, `name`, `description`, `tags`, `timestamp`, `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`, `public`
+                FROM `%homes_table%`
+                INNER JOIN `%saved_positions_table%` ON `%homes_table%`.`saved_position_id`=`%saved_positions_table%`.`id`
+                INNER JOIN `%positions_table%` ON `%saved_positions_table%`.`position_id`=`%positions_table%`.`id`
+                INNER JOIN `%players_table%` ON `%homes_table%`.`owner_uuid`=`%players_table%`.`uuid`
+                WHERE `owner_uuid`=?
+                ORDER BY `name`;"""),
+        GET_WARPS("""
+                SELECT `%warps_table%`.`uuid` AS `warp_uuid`, `name`, `description`, `tags`, `timestamp`, `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`
+                FROM `%warps_table%`
+                INNER JOIN `%saved_positions_table%` ON `%warps_table%`.`saved_position_id`=`%saved_positions_table%`.`id`
+                INNER JOIN `%positions_table%` ON `%saved_positions_table%`.`position_id`=`%positions_table%`.`id`
+                ORDER BY `name`;"""),
+        GET_PUBLIC_HOMES("""
+                SELECT `%homes_table%`.`uuid` AS `home_uuid`, `owner_uuid`, `username` AS `owner_username`, `name`, `description`, `tags`, `timestamp`, `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`, `public`
+                FROM `%homes_table%`
+                INNER JOIN `%saved_positions_table%` ON `%homes_table%`.`saved_position_id`=`%saved_positions_table%`.`id`
+                INNER JOIN `%positions_table%` ON `%saved_positions_table%`.`position_id`=`%positions_table%`.`id`
+                INNER JOIN `%players_table%` ON `%homes_table%`.`owner_uuid`=`%players_table%`.`uuid`
+                WHERE `public`=true
+                ORDER BY `name`;"""),
+        GET_HOME_BY_NAME("""
+                SELECT `%homes_table%`.`uuid` AS `home_uuid`, `owner_uuid`, `username` AS `owner_username`, `name`, `description`, `tags`, `timestamp`, `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`, `public`
+                FROM `%homes_table%`
+                INNER JOIN `%saved_positions_table%` ON `%homes_table%`.`saved_position_id`=`%saved_positions_table%`.`id`
+                INNER JOIN `%positions_table%` ON `%saved_positions_table%`.`position_id`=`%positions_table%`.`id`
+                INNER JOIN `%players_table%` ON `%homes_table%`.`owner_uuid`=`%players_table%`.`uuid`
+                WHERE `owner_uuid`=?
+                AND `name`=?;"""),
+        GET_HOME_BY_NAME_CASE_INSENSITIVE("""
+                SELECT `%homes_table%`.`uuid` AS `home_uuid`, `owner_uuid`, `username` AS `owner_username`, `name`, `description`, `tags`, `timestamp`, `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`, `public`
+                FROM `%homes_table%`
+                INNER JOIN `%saved_positions_table%` ON `%homes_table%`.`saved_position_id`=`%saved_positions_table%`.`id`
+                INNER JOIN `%positions_table%` ON `%saved_positions_table%`.`position_id`=`%positions_table%`.`id`
+                INNER JOIN `%players_table%` ON `%homes_table%`.`owner_uuid`=`%players_table%`.`uuid`
+                WHERE `owner_uuid`=?
+                AND `name_lower`=LOWER(?);"""),
+        GET_HOME("""
+                SELECT `%homes_table%`.`uuid` AS `home_uuid`, `owner_uuid`, `username` AS `owner_username`, `name`, `description`, `tags`, `timestamp`, `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`, `public`
+                FROM `%homes_table%`
+                INNER JOIN `%saved_positions_table%` ON `%homes_table%`.`saved_position_id`=`%saved_positions_table%`.`id`
+                INNER JOIN `%positions_table%` ON `%saved_positions_table%`.`position_id`=`%positions_table%`.`id`
+                INNER JOIN `%players_table%` ON `%homes_table%`.`owner_uuid`=`%players_table%`.`uuid`
+                WHERE `%homes_table%`.`uuid`=?;"""),
+        GET_WARP_BY_NAME("""
+                SELECT `%warps_table%`.`uuid` AS `warp_uuid`, `name`, `description`, `tags`, `timestamp`, `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`
+                FROM `%warps_table%`
+                INNER JOIN `%saved_positions_table%` ON `%warps_table%`.`saved_position_id`=`%saved_positions_table%`.`id`
+                INNER JOIN `%positions_table%` ON `%saved_positions_table%`.`position_id`=`%positions_table%`.`id`
+                WHERE `name`=?;"""),
+        GET_WARP_BY_NAME_CASE_INSENSITIVE("""
+                SELECT `%warps_table%`.`uuid` AS `warp_uuid`, `name`, `description`, `tags`, `timestamp`, `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`
+                FROM `%warps_table%`
+                INNER JOIN `%saved_positions_table%` ON `%warps_table%`.`saved_position_id`=`%saved_positions_table%`.`id`
+                INNER JOIN `%positions_table%` ON `%saved_positions_table%`.`position_id`=`%positions_table%`.`id`
+                WHERE `name_lower`=LOWER(?);"""),
+        GET_WARP("""
+                SELECT `%warps_table%`.`uuid` AS `warp_uuid`, `name`, `description`, `tags`, `timestamp`, `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`
+                FROM `%warps_table%`
+                INNER JOIN `%saved_positions_table%` ON `%warps_table%`.`saved_position_id`=`%saved_positions_table%`.`id`
+                INNER JOIN `%positions_table%` ON `%saved_positions_table%`.`position_id`=`%positions_table%`.`id`
+                WHERE `%warps_table%`.uuid=?;"""),
+        GET_CURRENT_TELEPORT("""
+                SELECT `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`, `type`
+                FROM `%teleports_table%`
+                INNER JOIN `%positions_table%` ON `%teleports_table%`.`destination_id` = `%positions_table%`.`id`
+                WHERE `player_uuid`=?"""),
+        UPDATE_USER("""
+                UPDATE `%players_table%`
+                SET `home_slots`=?, `ignoring_requests`=?, `rtp_cooldown`=?
+                WHERE `uuid`=?"""),
+        DELETE_CURRENT_TELEPORT("""
+                DELETE FROM `%positions_table%`
+                WHERE `id`=(
+                    SELECT `destination_id`
+                    FROM `%teleports_table%`
+                    WHERE `%teleports_table%`.`player_uuid`=?
+                );"""),
+        INSERT_CURRENT_TELEPORT("""
+                INSERT INTO `%teleports_table%` (`player_uuid`, `destination_id`, `type`)
+                VALUES (?,?,?);"""),
+        GET_LAST_POSITION("""
+                SELECT `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`
+                FROM `%players_table%`
+                INNER JOIN `%positions_table%` ON `%players_table%`.`last_position` = `%positions_table%`.`id`
+                WHERE `uuid`=?"""),
+        GET_OFFLINE_POSITION("""
+                SELECT `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`
+                FROM `%players_table%`
+                INNER JOIN `%positions_table%` ON `%players_table%`.`offline_position` = `%positions_table%`.`id`
+                WHERE `uuid`=?"""),
+        GET_RESPAWN_POSITION("""
+                SELECT `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`
+                FROM `%players_table%`
+                INNER JOIN `%positions_table%` ON `%players_table%`.`respawn_position` = `%positions_table%`.`id`
+                WHERE `uuid`=?"""),
+        GET_HOME_SAVED_POSITION("""
+                SELECT `saved_position_id` FROM `%homes_table%`
+                WHERE `uuid`=?;"""),
+        UPDATE_HOME("""
+                UPDATE `%homes_table%`
+                SET `public`=?
+                WHERE `uuid`=?;"""),
+        INSERT_HOME("""
+                INSERT INTO `%homes_table%` (`uuid`, `saved_position_id`, `owner_uuid`, `public`)
+                VALUES (?,?,?,?);"""),
+        GET_WARP_SAVED_POSITION("""
+                SELECT `saved_position_id` FROM `%warps_table%`
+                WHERE `uuid`=?;"""),
+        INSERT_WARP("""
+                INSERT INTO `%warps_table%` (`uuid`, `saved_position_id`)
+                VALUES (?,?);"""),
+        DELETE_HOME("""
+                DELETE FROM `%positions_table%`
+                WHERE `%positions_table%`.`id`=(
+                    SELECT `position_id`
+                    FROM `%saved_positions_table%`
+                    WHERE `%saved_positions_table%`.`id`=(
+                        SELECT `saved_position_id`
+                        FROM `%homes_table%`
+                        WHERE `uuid`=?
+                    )
+                );"""),
+        DELETE_ALL_HOMES("""
+                DELETE FROM `%positions_table%`
+                WHERE `%positions_table%`.`id` IN (
+                    SELECT `position_id`
+                    FROM `%saved_positions_table%`
+                    WHERE `%saved_positions_table%`.`id` IN (
+                        SELECT `saved_position_id`
+                        FROM `%homes_table%`
+                        WHERE `owner_uuid`=?
+                    )
+                );"""),
+        DELETE_WARP("""
+                DELETE FROM `%positions_table%`
+                WHERE `%positions_table%`.`id`=(
+                    SELECT `position_id`
+                    FROM `%saved_positions_table%`
+                    WHERE `%saved_positions_table%`.`id`=(
+                        SELECT `saved_position_id`
+                        FROM `%warps_table%`
+                        WHERE `uuid`=?
+                    )
+                );"""),
+        DELETE_ALL_WARPS("""
+                DELETE FROM `%positions_table%`
+                WHERE `%positions_table%`.`id` IN (
+                    SELECT `position_id`
+                    FROM `%saved_positions_table%`
+                    WHERE `%saved_positions_table%`.`id` IN (
+                        SELECT `saved_position_id`
+                        FROM `%warps_table%`
+                    )
+                );""");
+
+        private final String sql;
+
+        Query(@NotNull String sql) {
+            this.sql = sql;
+        }
+
+        @NotNull
+        private String getSql() {
+            return sql;
+        }
+    }
+
+}
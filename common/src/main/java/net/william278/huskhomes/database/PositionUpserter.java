@@ -0,0 +1,333 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.database;
+
+import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.position.SavedPosition;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.*;
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * Dialect-aware upserts of positions, shared by the {@link MySqlDatabase} and {@link SqLiteDatabase}.
+ * <p>
+ * Slot writes update the position a player's slot points to directly, rather than looking up its ID first, so a
+ * batch of writes to slots that are already set is a single batched statement. Only slots being set for the first
+ * time need a position inserting and linking. Update counts are not trusted to tell these apart, as drivers may
+ * report rows whose values were unchanged (such as MySQL with {@code useAffectedRows}) or no count at all; any
+ * write without a positive count is checked against the slot before a position is inserted for it. Inserts use
+ * {@code RETURNING} on SQLite, as its generated keys otherwise cost an extra query, and the generated keys of the
+ * insert on MySQL.
+ */
+final class PositionUpserter {
+
+    private static final String INSERT_POSITION = """
+            INSERT INTO `%positions_table%` (`x`,`y`,`z`,`yaw`,`pitch`,`world_name`,`world_uuid`,`server_name`)
+            VALUES (?,?,?,?,?,?,?,?)""";
+    private static final String UPDATE_SAVED_POSITION = """
+            UPDATE `%saved_positions_table%`
+            INNER JOIN `%positions_table%` ON `%saved_positions_table%`.`position_id` = `%positions_table%`.`id`
+            SET `x`=?,
+            `y`=?,
+            `z`=?,
+            `yaw`=?,
+            `pitch`=?,
+            `world_uuid`=?,
+            `world_name`=?,
+            `server_name`=?,
+            `name`=?,
+            `description`=?,
+            `tags`=?
+            WHERE `%saved_positions_table%`.`id`=?;""";
+    private static final String UPDATE_SAVED_POSITION_LOCATION = """
+            UPDATE `%positions_table%`
+            SET `x`=?,
+            `y`=?,
+            `z`=?,
+            `yaw`=?,
+            `pitch`=?,
+            `world_uuid`=?,
+            `world_name`=?,
+            `server_name`=?
+            WHERE `id`=(
+                SELECT `position_id`
+                FROM `%saved_positions_table%`
+                WHERE `%saved_positions_table%`.`id`=?
+            );""";
+    private static final String UPDATE_SAVED_POSITION_META = """
+            UPDATE `%saved_positions_table%`
+            SET `name`=?,
+            `description`=?,
+            `tags`=?
+            WHERE `id`=?;""";
+    private static final String UPDATE_SLOT = """
+            UPDATE `%positions_table%`
+            SET `x`=?,
+            `y`=?,
+            `z`=?,
+            `yaw`=?,
+            `pitch`=?,
+            `world_uuid`=?,
+            `world_name`=?,
+            `server_name`=?
+            WHERE `id`=(
+                SELECT `%slot%`
+                FROM `%players_table%`
+                WHERE `%players_table%`.`uuid`=?
+            );""";
+    private static final String DELETE_SLOT = """
+            DELETE FROM `%positions_table%`
+            WHERE `id`=(
+                SELECT `%slot%`
+                FROM `%players_table%`
+                WHERE `%players_table%`.`uuid`=?
+            );""";
+    private static final String SELECT_UNSET_SLOTS = """
+            SELECT `uuid`
+            FROM `%players_table%`
+            WHERE `%slot%` IS NULL
+            AND `uuid` IN (%uuids%);""";
+    private static final String LINK_SLOT = """
+            UPDATE `%players_table%`
+            SET `%slot%`=?
+            WHERE `uuid`=?;""";
+
+    // Maximum number of users whose slots are checked in a single query
+    private static final int MAX_SELECTED_SLOTS = 500;
+
+    private final Database.Type dialect;
+
+    // Statements formatted once on creation; saved position updates are one statement on MySQL, or two on SQLite
+    private final String insertStatement;
+    private final String updateSavedStatement;
+    private final String updateSavedMetaStatement;
+    private final Map<Database.PositionSlot, String> updateSlotStatements = new EnumMap<>(Database.PositionSlot.class);
+    private final Map<Database.PositionSlot, String> deleteSlotStatements = new EnumMap<>(Database.PositionSlot.class);
+    private final Map<Database.PositionSlot, String> linkSlotStatements = new EnumMap<>(Database.PositionSlot.class);
+    private final Map<Database.PositionSlot, String> selectUnsetStatements = new EnumMap<>(Database.PositionSlot.class);
+
+    /**
+     * Create an upserter for a database dialect
+     *
+     * @param dialect        The {@link Database.Type} to generate statements for
+     * @param tableFormatter Function formatting table name placeholders in statements
+     */
+    PositionUpserter(@NotNull Database.Type dialect, @NotNull UnaryOperator<String> tableFormatter) {
+        this.dialect = dialect;
+        this.insertStatement = tableFormatter.apply(INSERT_POSITION)
+                               + (dialect == Database.Type.SQLITE ? " RETURNING `id`;" : ";");
+        this.updateSavedStatement = tableFormatter.apply(dialect == Database.Type.MYSQL
+                ? UPDATE_SAVED_POSITION : UPDATE_SAVED_POSITION_LOCATION);
+        this.updateSavedMetaStatement = tableFormatter.apply(UPDATE_SAVED_POSITION_META);
+        for (Database.PositionSlot slot : Database.PositionSlot.values()) {
+            updateSlotStatements.put(slot, tableFormatter.apply(UPDATE_SLOT).replaceAll("%slot%", slot.getColumn()));
+            deleteSlotStatements.put(slot, tableFormatter.apply(DELETE_SLOT).replaceAll("%slot%", slot.getColumn()));
+            linkSlotStatements.put(slot, tableFormatter.apply(LINK_SLOT).replaceAll("%slot%", slot.getColumn()));
+            selectUnsetStatements.put(slot, tableFormatter.apply(SELECT_UNSET_SLOTS).replaceAll("%slot%", slot.getColumn()));
+        }
+    }
+
+    /**
+     * Insert a position, returning its ID
+     *
+     * @param position   The {@link Position} to insert
+     * @param connection SQL connection
+     * @return The newly inserted row ID
+     * @throws SQLException if an SQL exception occurs doing this
+     */
+    int insertPosition(@NotNull Position position, @NotNull Connection connection) throws SQLException {
+        if (dialect == Database.Type.SQLITE) {
+            try (PreparedStatement statement = connection.prepareStatement(insertStatement)) {
+                setInsertParameters(statement, position);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        return resultSet.getInt(1);
+                    }
+                }
+            }
+            throw new SQLException("Failed to insert position into database");
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(insertStatement, Statement.RETURN_GENERATED_KEYS)) {
+            setInsertParameters(statement, position);
+            statement.executeUpdate();
+            try (ResultSet resultSet = statement.getGeneratedKeys()) {
+                if (resultSet.next()) {
+                    return resultSet.getInt(1);
+                }
+            }
+            throw new SQLException("Failed to insert position into database");
+        }
+    }
+
+    /**
+     * Update a saved position and its metadata. This is a single multi-table update on MySQL; SQLite does not support
+     * those, so the position is updated through its saved position ID and the metadata updated separately.
+     *
+     * @param savedPositionId ID of the saved position to update
+     * @param position        The new {@link SavedPosition}
+     * @param connection      SQL connection
+     * @throws SQLException if an SQL exception occurs doing this
+     */
+    void updateSavedPosition(int savedPositionId, @NotNull SavedPosition position,
+                             @NotNull Connection connection) throws SQLException {
+        if (dialect == Database.Type.MYSQL) {
+            try (PreparedStatement statement = connection.prepareStatement(updateSavedStatement)) {
+                setUpdateParameters(statement, position);
+                statement.setString(9, position.getName());
+                statement.setString(10, position.getMeta().getDescription());
+                statement.setString(11, position.getMeta().getSerializedTags());
+                statement.setInt(12, savedPositionId);
+                statement.executeUpdate();
+            }
+            return;
+        }
+
+        try (PreparedStatement positionStatement = connection.prepareStatement(updateSavedStatement)) {
+            setUpdateParameters(positionStatement, position);
+            positionStatement.setInt(9, savedPositionId);
+            positionStatement.executeUpdate();
+        }
+        try (PreparedStatement metaStatement = connection.prepareStatement(updateSavedMetaStatement)) {
+            metaStatement.setString(1, position.getName());
+            metaStatement.setString(2, position.getMeta().getDescription());
+            metaStatement.setString(3, position.getMeta().getSerializedTags());
+            metaStatement.setInt(4, savedPositionId);
+            metaStatement.executeUpdate();
+        }
+    }
+
+    /**
+     * Apply a batch of writes to users' position slots. Writes are expected to target distinct user and slot pairs.
+     *
+     * @param writes     The writes to apply
+     * @param connection SQL connection
+     * @throws SQLException if an SQL exception occurs doing this
+     */
+    void upsertSlots(@NotNull Collection<Database.PositionWrite> writes, @NotNull Connection connection) throws SQLException {
+        final Map<Database.PositionSlot, List<Database.PositionWrite>> updates = new EnumMap<>(Database.PositionSlot.class);
+        final Map<Database.PositionSlot, List<Database.PositionWrite>> deletes = new EnumMap<>(Database.PositionSlot.class);
+        for (Database.PositionWrite write : writes) {
+            (write.position() == null ? deletes : updates)
+                    .computeIfAbsent(write.slot(), slot -> new ArrayList<>()).add(write);
+        }
+
+        // Update the positions already linked to each slot, collecting slots that have not yet been set
+        final Map<Database.PositionSlot, List<Database.PositionWrite>> inserts = new EnumMap<>(Database.PositionSlot.class);
+        for (Map.Entry<Database.PositionSlot, List<Database.PositionWrite>> entry : updates.entrySet()) {
+            try (PreparedStatement statement = connection.prepareStatement(updateSlotStatements.get(entry.getKey()))) {
+                for (Database.PositionWrite write : entry.getValue()) {
+                    setUpdateParameters(statement, Objects.requireNonNull(write.position()));
+                    statement.setString(9, write.user().getUuid().toString());
+                    statement.addBatch();
+                }
+
+                // Writes without a positive update count may or may not have updated a set slot
+                final int[] updated = statement.executeBatch();
+                final List<Database.PositionWrite> unconfirmed = new ArrayList<>();
+                for (int i = 0; i < updated.length; i++) {
+                    if (updated[i] <= 0) {
+                        unconfirmed.add(entry.getValue().get(i));
+                    }
+                }
+                if (!unconfirmed.isEmpty()) {
+                    final List<Database.PositionWrite> unset = getUnsetSlots(entry.getKey(), unconfirmed, connection);
+                    if (!unset.isEmpty()) {
+                        inserts.put(entry.getKey(), unset);
+                    }
+                }
+            }
+        }
+
+        // Delete the positions linked to cleared slots; the slot is then nulled by its foreign key
+        for (Map.Entry<Database.PositionSlot, List<Database.PositionWrite>> entry : deletes.entrySet()) {
+            try (PreparedStatement statement = connection.prepareStatement(deleteSlotStatements.get(entry.getKey()))) {
+                for (Database.PositionWrite write : entry.getValue()) {
+                    statement.setString(1, write.user().getUuid().toString());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+
+        // Insert positions for slots being set for the first time, then link them to the player
+        for (Map.Entry<Database.PositionSlot, List<Database.PositionWrite>> entry : inserts.entrySet()) {
+            try (PreparedStatement statement = connection.prepareStatement(linkSlotStatements.get(entry.getKey()))) {
+                for (Database.PositionWrite write : entry.getValue()) {
+                    statement.setInt(1, insertPosition(Objects.requireNonNull(write.position()), connection));
+                    statement.setString(2, write.user().getUuid().toString());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+    }
+
+    // Get the writes whose user's slot has not been set, so a position must be inserted and linked to it
+    @NotNull
+    private List<Database.PositionWrite> getUnsetSlots(@NotNull Database.PositionSlot slot,
+                                                       @NotNull List<Database.PositionWrite> writes,
+                                                       @NotNull Connection connection) throws SQLException {
+        final List<Database.PositionWrite> unset = new ArrayList<>();
+        for (int start = 0; start < writes.size(); start += MAX_SELECTED_SLOTS) {
+            final List<Database.PositionWrite> chunk = writes.subList(start, Math.min(writes.size(), start + MAX_SELECTED_SLOTS));
+            final String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            try (PreparedStatement statement = connection.prepareStatement(
+                    selectUnsetStatements.get(slot).replace("%uuids%", placeholders))) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    statement.setString(i + 1, chunk.get(i).user().getUuid().toString());
+                }
+
+                final Set<String> unsetUsers = new HashSet<>();
+                final ResultSet resultSet = statement.executeQuery();
+                while (resultSet.next()) {
+                    unsetUsers.add(resultSet.getString("uuid"));
+                }
+                chunk.stream().filter(write -> unsetUsers.contains(write.user().getUuid().toString())).forEach(unset::add);
+            }
+        }
+        return unset;
+    }
+
+    private static void setInsertParameters(@NotNull PreparedStatement statement, @NotNull Position position) throws SQLException {
+        statement.setDouble(1, position.getX());
+        statement.setDouble(2, position.getY());
+        statement.setDouble(3, position.getZ());
+        statement.setFloat(4, position.getYaw());
+        statement.setFloat(5, position.getPitch());
+        statement.setString(6, position.getWorld().getName());
+        statement.setString(7, position.getWorld().getUuid().toString());
+        statement.setString(8, position.getServer());
+    }
+
+    private static void setUpdateParameters(@NotNull PreparedStatement statement, @NotNull Position position) throws SQLException {
+        statement.setDouble(1, position.getX());
+        statement.setDouble(2, position.getY());
+        statement.setDouble(3, position.getZ());
+        statement.setFloat(4, position.getYaw());
+        statement.setFloat(5, position.getPitch());
+        statement.setString(6, position.getWorld().getUuid().toString());
+        statement.setString(7, position.getWorld().getName());
+        statement.setString(8, position.getServer());
+    }
+
+}
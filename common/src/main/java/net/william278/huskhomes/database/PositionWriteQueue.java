@@ -0,0 +1,221 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.database;
+
+import net.william278.huskhomes.HuskHomes;
+import net.william278.huskhomes.user.User;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+
+/**
+ * A write-behind buffer for {@link Database.PositionSlot position slot} writes.
+ * <p>
+ * Repeated writes to the same slot of a user are coalesced, so only the latest is saved. Pending writes are flushed
+ * to the database in a single batch once the oldest has waited for the configured maximum staleness, or early if the
+ * number of pending writes reaches the configured maximum. Writes in a batch that fails to save are put back to be
+ * retried on the next flush, unless a newer write to the same slot has since been queued. Reads should check
+ * {@link #getPending(User, Database.PositionSlot)} first, so that users always see their own latest writes.
+ */
+public class PositionWriteQueue {
+
+    private final Database database;
+    private final HuskHomes plugin;
+    private final long maxStaleness;
+    private final int maxPendingWrites;
+
+    // Writes waiting to be flushed, and writes currently being flushed (still readable until they are saved)
+    private final Map<SlotKey, Database.PositionWrite> pending = new ConcurrentHashMap<>();
+    private final Map<SlotKey, Database.PositionWrite> flushing = new ConcurrentHashMap<>();
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    // Held to read when queueing, and to write when closing, so no write is queued after the final flush
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private boolean closed = false;
+
+    protected PositionWriteQueue(@NotNull Database database, @NotNull HuskHomes plugin) {
+        this.database = database;
+        this.plugin = plugin;
+        this.maxStaleness = Math.max(1, plugin.getSettings().getDatabaseWriteBehindMaxStaleness());
+        this.maxPendingWrites = Math.max(1, plugin.getSettings().getDatabaseWriteBehindMaxPendingWrites());
+        this.executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "HuskHomes-PositionWriteQueue");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Queue a write, replacing any pending write to the same slot
+     *
+     * @param write The {@link Database.PositionWrite} to queue
+     */
+    public void queue(@NotNull Database.PositionWrite write) {
+        closeLock.readLock().lock();
+        try {
+            if (!closed) {
+                pending.put(new SlotKey(write.user().getUuid(), write.slot()), write);
+                if (pending.size() >= maxPendingWrites) {
+                    executor.execute(this::flush);
+                } else {
+                    scheduleFlush();
+                }
+                return;
+            }
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        database.setSlotPositions(List.of(write));
+    }
+
+    // Schedule a flush once the maximum staleness has passed, unless one is already scheduled. Must hold the close lock
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            executor.schedule(() -> flush(), maxStaleness, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Get the latest write to a user's slot that has not yet been saved to the database, if there is one
+     *
+     * @param user The {@link User} to get the pending write of
+     * @param slot The {@link Database.PositionSlot} to check
+     * @return The pending write, if present
+     */
+    public Optional<Database.PositionWrite> getPending(@NotNull User user, @NotNull Database.PositionSlot slot) {
+        final SlotKey key = new SlotKey(user.getUuid(), slot);
+        return Optional.ofNullable(pending.get(key)).or(() -> Optional.ofNullable(flushing.get(key)));
+    }
+
+    /**
+     * Flush all pending writes to the database
+     */
+    public void flush() {
+        flushScheduled.set(false);
+        flushMatching(key -> true);
+    }
+
+    /**
+     * Flush the pending writes of a {@link User} to the database, blocking until they have been saved
+     *
+     * @param user The {@link User} to flush the writes of
+     */
+    public void flush(@NotNull User user) {
+        flushMatching(key -> key.user().equals(user.getUuid()));
+    }
+
+    /**
+     * Stop scheduling flushes and save all remaining pending writes. Writes queued after closing are saved immediately.
+     */
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            closed = true;
+            executor.shutdown();
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                plugin.log(Level.WARNING, "Timed out waiting for queued position writes to finish saving");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!flushMatching(key -> true)) {
+            plugin.log(Level.WARNING, "Failed to save " + pending.size() + " queued position write(s) on shutdown");
+        }
+    }
+
+    // Move matching pending writes into the in-flight map and save them as a single batch, returning if it was saved
+    private boolean flushMatching(@NotNull Predicate<SlotKey> filter) {
+        flushLock.lock();
+        try {
+            final List<Map.Entry<SlotKey, Database.PositionWrite>> batch = new ArrayList<>();
+            for (Map.Entry<SlotKey, Database.PositionWrite> entry : pending.entrySet()) {
+                final SlotKey key = entry.getKey();
+                final Database.PositionWrite write = entry.getValue();
+                if (!filter.test(key)) {
+                    continue;
+                }
+
+                // Publish to the in-flight map before removing, so reads never fall through to stale data
+                flushing.put(key, write);
+                if (pending.remove(key, write)) {
+                    batch.add(Map.entry(key, write));
+                } else {
+                    flushing.remove(key, write);
+                }
+            }
+            if (batch.isEmpty()) {
+                return true;
+            }
+
+            boolean saved = false;
+            try {
+                saved = database.setSlotPositions(batch.stream().map(Map.Entry::getValue).toList());
+            } finally {
+                // Put back unsaved writes before they leave the in-flight map, so reads never fall through to stale data
+                if (!saved) {
+                    batch.forEach(entry -> pending.putIfAbsent(entry.getKey(), entry.getValue()));
+                }
+                batch.forEach(entry -> flushing.remove(entry.getKey(), entry.getValue()));
+            }
+            if (!saved) {
+                retryFlush();
+            }
+            return saved;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Schedule another attempt to save writes put back after a failed flush, if the queue is still open
+    private void retryFlush() {
+        closeLock.readLock().lock();
+        try {
+            if (!closed) {
+                scheduleFlush();
+            }
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    // Identifies a single position slot of a user
+    private record SlotKey(@NotNull UUID user, @NotNull Database.PositionSlot slot) {
+    }
+
+}
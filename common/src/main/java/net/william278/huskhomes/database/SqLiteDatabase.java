@@ -33,10 +33,8 @@ import org.sqlite.SQLiteConfig;
 import java.io.File;
 import java.io.IOException;
 import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 
 /**
@@ -55,11 +53,40 @@ public class SqLiteDatabase extends Database {
      */
     private static final String DATABASE_FILE_NAME = "HuskHomesData.db";
 
+    /**
+     * How long to wait for a lock on the database held by another connection, in milliseconds
+     */
+    private static final int BUSY_TIMEOUT_MILLIS = 5000;
+
     /**
      * The persistent SQLite database connection
      */
     private Connection connection;
 
+    /**
+     * The persistent connection wrapped to ignore being closed, for reading from when reads are not pooled. Created
+     * once per connection rather than per read
+     */
+    private Connection sharedReadConnection;
+
+    /**
+     * Connection dedicated to batches of writes made in a single transaction, so committing or rolling back a batch
+     * never takes in writes made concurrently on the shared connection. Batches are serialized by {@link #batchLock}
+     */
+    private Connection batchConnection;
+    private final ReentrantLock batchLock = new ReentrantLock();
+
+    /**
+     * Pool of read-only connections, if reads are pooled
+     */
+    @Nullable
+    private SqLiteReadPool readPool;
+
+    /**
+     * Dialect-specific position upsert statements
+     */
+    private final PositionUpserter upserter = new PositionUpserter(Type.SQLITE, this::formatStatementTables);
+
 
     public SqLiteDatabase(@NotNull HuskHomes plugin) {
         super(plugin);
@@ -75,6 +102,55 @@ public class SqLiteDatabase extends Database {
         return connection;
     }
 
+    /**
+     * Run a batch of writes in a single transaction on the dedicated batch connection, rolling it back on failure
+     *
+     * @param batch The writes to make
+     * @throws SQLException if an SQL exception occurs doing this
+     */
+    private void writeBatch(@NotNull BatchWriter batch) throws SQLException {
+        batchLock.lock();
+        try {
+            if (batchConnection == null || batchConnection.isClosed()) {
+                batchConnection = DriverManager.getConnection(getUrl(), getConfig(false).toProperties());
+                batchConnection.setAutoCommit(false);
+            }
+            try {
+                batch.write(batchConnection);
+                batchConnection.commit();
+            } catch (SQLException e) {
+                batchConnection.rollback();
+                throw e;
+            }
+        } finally {
+            batchLock.unlock();
+        }
+    }
+
+    // Get a connection for reading from, which must be closed after use
+    private Connection getReadConnection() throws SQLException {
+        if (readPool != null) {
+            return readPool.borrow();
+        }
+        getConnection();
+        return sharedReadConnection;
+    }
+
+    // Get the SQLite connection properties; in WAL mode readers do not block the writer or each other
+    @NotNull
+    private SQLiteConfig getConfig(boolean readOnly) {
+        final SQLiteConfig config = new SQLiteConfig();
+        config.enforceForeignKeys(true);
+        config.setEncoding(SQLiteConfig.Encoding.UTF8);
+        config.setSynchronous(SQLiteConfig.SynchronousMode.FULL);
+        config.setBusyTimeout(BUSY_TIMEOUT_MILLIS);
+        if (plugin.getSettings().getSqLiteReadPoolSize() > 0) {
+            config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+            config.setReadOnly(readOnly);
+        }
+        return config;
+    }
+
     private void setConnection() {
         try {
             // Ensure that the database file exists
@@ -85,14 +161,9 @@ public class SqLiteDatabase extends Database {
             // Specify use of the JDBC SQLite driver
             Class.forName("org.sqlite.JDBC");
 
-            // Set SQLite database properties
-            SQLiteConfig config = new SQLiteConfig();
-            config.enforceForeignKeys(true);
-            config.setEncoding(SQLiteConfig.Encoding.UTF8);
-            config.setSynchronous(SQLiteConfig.SynchronousMode.FULL);
-
             // Establish the connection
-            connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath(), config.toProperties());
+            connection = DriverManager.getConnection(getUrl(), getConfig(false).toProperties());
+            sharedReadConnection = SqLiteReadPool.nonClosing(connection);
         } catch (IOException e) {
             plugin.log(Level.SEVERE, "An exception occurred creating the database file", e);
         } catch (SQLException e) {
@@ -116,36 +187,32 @@ public class SqLiteDatabase extends Database {
                     statement.execute(tableCreationStatement);
                 }
             }
+
+            // Apply schema migrations
+            performMigrations(getConnection(), Type.SQLITE);
         } catch (SQLException | IOException e) {
             throw new IllegalStateException("Failed to initialize the SQLite database", e);
         }
+
+        // Open the read connection pool, if enabled
+        final int readPoolSize = plugin.getSettings().getSqLiteReadPoolSize();
+        if (readPoolSize > 0) {
+            try {
+                readPool = new SqLiteReadPool(getUrl(), getConfig(true).toProperties(), readPoolSize);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to open the SQLite read connection pool", e);
+            }
+        }
+    }
+
+    @NotNull
+    private String getUrl() {
+        return "jdbc:sqlite:" + databaseFile.getAbsolutePath();
     }
 
     @Override
     protected int setPosition(@NotNull Position position, @NotNull Connection connection) throws SQLException {
-        try (PreparedStatement statement = getConnection().prepareStatement(formatStatementTables("""
-                        INSERT INTO `%positions_table%` (`x`,`y`,`z`,`yaw`,`pitch`,`world_name`,`world_uuid`,`server_name`)
-                        VALUES (?,?,?,?,?,?,?,?);"""),
-                Statement.RETURN_GENERATED_KEYS)) {
-
-            statement.setDouble(1, position.getX());
-            statement.setDouble(2, position.getY());
-            statement.setDouble(3, position.getZ());
-            statement.setFloat(4, position.getYaw());
-            statement.setFloat(5, position.getPitch());
-            statement.setString(6, position.getWorld().getName());
-            statement.setString(7, position.getWorld().getUuid().toString());
-            statement.setString(8, position.getServer());
-            statement.executeUpdate();
-
-            // Return the ID of the newly inserted row
-            try (ResultSet resultSet = statement.getGeneratedKeys()) {
-                if (resultSet.next()) {
-                    return resultSet.getInt(1);
-                }
-            }
-            throw new SQLException("No generated key found");
-        }
+        return upserter.insertPosition(position, connection);
     }
 
     @Override
@@ -200,31 +267,7 @@ public class SqLiteDatabase extends Database {
 
     @Override
     protected void updateSavedPosition(int savedPositionId, @NotNull SavedPosition position, @NotNull Connection connection) throws SQLException {
-        try (PreparedStatement selectStatement = connection.prepareStatement(formatStatementTables("""
-                SELECT `position_id`
-                FROM `%saved_positions_table%`
-                WHERE `id`=?;"""))) {
-            selectStatement.setInt(1, savedPositionId);
-
-            final ResultSet resultSet = selectStatement.executeQuery();
-            if (resultSet.next()) {
-                final int positionId = resultSet.getInt("position_id");
-                updatePosition(positionId, position, connection);
-
-                try (PreparedStatement updateStatement = connection.prepareStatement(formatStatementTables("""
-                        UPDATE `%saved_positions_table%`
-                        SET `name`=?,
-                        `description`=?,
-                        `tags`=?
-                        WHERE `id`=?;"""))) {
-                    updateStatement.setString(1, position.getName());
-                    updateStatement.setString(2, position.getMeta().getDescription());
-                    updateStatement.setString(3, position.getMeta().getSerializedTags());
-                    updateStatement.setInt(4, savedPositionId);
-                    updateStatement.executeUpdate();
-                }
-            }
-        }
+        upserter.updateSavedPosition(savedPositionId, position, connection);
     }
 
     @Override
@@ -268,7 +311,8 @@ public class SqLiteDatabase extends Database {
     @Override
     public Optional<SavedUser> getUserDataByName(@NotNull String name) {
         try {
-            try (PreparedStatement statement = getConnection().prepareStatement(formatStatementTables("""
+            try (Connection readConnection = getReadConnection();
+                 PreparedStatement statement = readConnection.prepareStatement(formatStatementTables("""
                     SELECT `uuid`, `username`, `home_slots`, `ignoring_requests`, `rtp_cooldown`
                     FROM `%players_table%`
                     WHERE `username`=?"""))) {
@@ -293,7 +337,8 @@ public class SqLiteDatabase extends Database {
     @Override
     public Optional<SavedUser> getUserData(@NotNull UUID uuid) {
         try {
-            try (PreparedStatement statement = getConnection().prepareStatement(formatStatementTables("""
+            try (Connection readConnection = getReadConnection();
+                 PreparedStatement statement = readConnection.prepareStatement(formatStatementTables("""
                     SELECT `uuid`, `username`, `home_slots`, `ignoring_requests`, `rtp_cooldown`
                     FROM `%players_table%`
                     WHERE `uuid`=?"""))) {
@@ -320,7 +365,8 @@ public class SqLiteDatabase extends Database {
     public List<Home> getHomes(@NotNull User user) {
         final List<Home> userHomes = new ArrayList<>();
         try {
-            try (PreparedStatement statement = getConnection().prepareStatement(formatStatementTables("""
+            try (Connection readConnection = getReadConnection();
+                 PreparedStatement statement = readConnection.prepareStatement(formatStatementTables("""
                     SELECT `%homes_table%`.`uuid` AS `home_uuid`, `owner_uuid`, `name`, `description`, `tags`, `timestamp`, `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`, `public`
                     FROM `%homes_table%`
                     INNER JOIN `%saved_positions_table%` ON `%homes_table%`.`saved_position_id`=`%saved_positions_table%`.`id`
@@ -360,7 +406,8 @@ public class SqLiteDatabase extends Database {
     public List<Warp> getWarps() {
         final List<Warp> warps = new ArrayList<>();
         try {
-            try (PreparedStatement statement = getConnection().prepareStatement(formatStatementTables("""
+            try (Connection readConnection = getReadConnection();
+                 PreparedStatement statement = readConnection.prepareStatement(formatStatementTables("""
                     SELECT `%warps_table%`.`uuid` AS `warp_uuid`, `name`, `description`, `tags`, `timestamp`, `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`
                     FROM `%warps_table%`
                     INNER JOIN `%saved_positions_table%` ON `%warps_table%`.`saved_position_id`=`%saved_positions_table%`.`id`
@@ -394,7 +441,8 @@ public class SqLiteDatabase extends Database {
     public List<Home> getPublicHomes() {
         final List<Home> userHomes = new ArrayList<>();
         try {
-            try (PreparedStatement statement = getConnection().prepareStatement(formatStatementTables("""
+            try (Connection readConnection = getReadConnection();
+                 PreparedStatement statement = readConnection.prepareStatement(formatStatementTables("""
                     SELECT `%homes_table%`.`uuid` AS `home_uuid`, `owner_uuid`, `username` AS `owner_username`, `name`, `description`, `tags`, `timestamp`, `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`, `public`
                     FROM `%homes_table%`
                     INNER JOIN `%saved_positions_table%` ON `%homes_table%`.`saved_position_id`=`%saved_positions_table%`.`id`
@@ -432,14 +480,15 @@ public class SqLiteDatabase extends Database {
     @Override
     public Optional<Home> getHome(@NotNull User user, @NotNull String homeName, boolean caseInsensitive) {
         try {
-            try (PreparedStatement statement = getConnection().prepareStatement(formatStatementTables("""
+            try (Connection readConnection = getReadConnection();
+                 PreparedStatement statement = readConnection.prepareStatement(formatStatementTables("""
                                                                                                               SELECT `%homes_table%`.`uuid` AS `home_uuid`, `owner_uuid`, `username` AS `owner_username`, `name`, `description`, `tags`, `timestamp`, `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`, `public`
                                                                                                               FROM `%homes_table%`
                                                                                                               INNER JOIN `%saved_positions_table%` ON `%homes_table%`.`saved_position_id`=`%saved_positions_table%`.`id`
                                                                                                               INNER JOIN `%positions_table%` ON `%saved_positions_table%`.`position_id`=`%positions_table%`.`id`
                                                                                                               INNER JOIN `%players_table%` ON `%homes_table%`.`owner_uuid`=`%players_table%`.`uuid`
                                                                                                               WHERE `owner_uuid`=?
-                                                                                                              """ + (caseInsensitive ? "AND UPPER(`name`) LIKE UPPER(?);" : "AND `name`=?;")))) {
+                                                                                                              """ + (caseInsensitive ? "AND `name_lower`=LOWER(?);" : "AND `name`=?;")))) {
                 statement.setString(1, user.getUuid().toString());
                 statement.setString(2, homeName);
 
@@ -471,7 +520,8 @@ public class SqLiteDatabase extends Database {
     @Override
     public Optional<Home> getHome(@NotNull UUID uuid) {
         try {
-            try (PreparedStatement statement = getConnection().prepareStatement(formatStatementTables("""
+            try (Connection readConnection = getReadConnection();
+                 PreparedStatement statement = readConnection.prepareStatement(formatStatementTables("""
                     SELECT `%homes_table%`.`uuid` AS `home_uuid`, `owner_uuid`, `username` AS `owner_username`, `name`, `description`, `tags`, `timestamp`, `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`, `public`
                     FROM `%homes_table%`
                     INNER JOIN `%saved_positions_table%` ON `%homes_table%`.`saved_position_id`=`%saved_positions_table%`.`id`
@@ -509,12 +559,13 @@ public class SqLiteDatabase extends Database {
     @Override
     public Optional<Warp> getWarp(@NotNull String warpName, boolean caseInsensitive) {
         try {
-            try (PreparedStatement statement = getConnection().prepareStatement(formatStatementTables("""
+            try (Connection readConnection = getReadConnection();
+                 PreparedStatement statement = readConnection.prepareStatement(formatStatementTables("""
                                                                                                               SELECT `%warps_table%`.`uuid` AS `warp_uuid`, `name`, `description`, `tags`, `timestamp`, `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`
                                                                                                               FROM `%warps_table%`
                                                                                                               INNER JOIN `%saved_positions_table%` ON `%warps_table%`.`saved_position_id`=`%saved_positions_table%`.`id`
                                                                                                               INNER JOIN `%positions_table%` ON `%saved_positions_table%`.`position_id`=`%positions_table%`.`id`
-                                                                                                              """ + (caseInsensitive ? "WHERE UPPER(`name`) LIKE UPPER(?);" : "WHERE `name`=?;")))) {
+                                                                                                              """ + (caseInsensitive ? "WHERE `name_lower`=LOWER(?);" : "WHERE `name`=?;")))) {
                 statement.setString(1, warpName);
 
                 final ResultSet resultSet = statement.executeQuery();
@@ -543,7 +594,8 @@ public class SqLiteDatabase extends Database {
     @Override
     public Optional<Warp> getWarp(@NotNull UUID uuid) {
         try {
-            try (PreparedStatement statement = getConnection().prepareStatement(formatStatementTables("""
+            try (Connection readConnection = getReadConnection();
+                 PreparedStatement statement = readConnection.prepareStatement(formatStatementTables("""
                     SELECT `%warps_table%`.`uuid` AS `warp_uuid`, `name`, `description`, `tags`, `timestamp`, `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`
                     FROM `%warps_table%`
                     INNER JOIN `%saved_positions_table%` ON `%warps_table%`.`saved_position_id`=`%saved_positions_table%`.`id`
@@ -577,7 +629,8 @@ public class SqLiteDatabase extends Database {
     @Override
     public Optional<Teleport> getCurrentTeleport(@NotNull OnlineUser onlineUser) {
 
-        try (PreparedStatement statement = getConnection().prepareStatement(formatStatementTables("""
+        try (Connection readConnection = getReadConnection();
+             PreparedStatement statement = readConnection.prepareStatement(formatStatementTables("""
                 SELECT `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`, `type`
                 FROM `%teleports_table%`
                 INNER JOIN `%positions_table%` ON `%teleports_table%`.`destination_id` = `%positions_table%`.`id`
@@ -611,20 +664,31 @@ public class SqLiteDatabase extends Database {
     }
 
     @Override
-    public void updateUserData(@NotNull SavedUser savedUser) {
-        try (PreparedStatement statement = getConnection().prepareStatement(formatStatementTables("""
-                UPDATE `%players_table%`
-                SET `home_slots`=?, `ignoring_requests`=?, `rtp_cooldown`=?
-                WHERE `uuid`=?"""))) {
-
-            statement.setInt(1, savedUser.getHomeSlots());
-            statement.setBoolean(2, savedUser.isIgnoringTeleports());
-            statement.setTimestamp(3, Timestamp.from(savedUser.getRtpCooldown()));
-            statement.setString(4, savedUser.getUserUuid().toString());
-            statement.executeUpdate();
+    public boolean updateUserData(@NotNull Collection<SavedUser> savedUsers) {
+        if (savedUsers.isEmpty()) {
+            return true;
+        }
+        try {
+            writeBatch(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(formatStatementTables("""
+                        UPDATE `%players_table%`
+                        SET `home_slots`=?, `ignoring_requests`=?, `rtp_cooldown`=?
+                        WHERE `uuid`=?"""))) {
+                    for (SavedUser savedUser : savedUsers) {
+                        statement.setInt(1, savedUser.getHomeSlots());
+                        statement.setBoolean(2, savedUser.isIgnoringTeleports());
+                        statement.setTimestamp(3, Timestamp.from(savedUser.getRtpCooldown()));
+                        statement.setString(4, savedUser.getUserUuid().toString());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            });
+            return true;
         } catch (SQLException e) {
-            plugin.log(Level.SEVERE, "Failed to update user data for " + savedUser.getUsername() + " on the database", e);
+            plugin.log(Level.SEVERE, "Failed to update user data for " + savedUsers.size() + " user(s) on the database", e);
         }
+        return false;
     }
 
     @Override
@@ -663,12 +727,13 @@ public class SqLiteDatabase extends Database {
     }
 
     @Override
-    public Optional<Position> getLastPosition(@NotNull User user) {
-        try (PreparedStatement statement = getConnection().prepareStatement(formatStatementTables("""
+    protected Optional<Position> getSlotPosition(@NotNull User user, @NotNull PositionSlot slot) {
+        try (Connection readConnection = getReadConnection();
+             PreparedStatement statement = readConnection.prepareStatement(formatStatementTables("""
                 SELECT `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`
                 FROM `%players_table%`
-                INNER JOIN `%positions_table%` ON `%players_table%`.`last_position` = `%positions_table%`.`id`
-                WHERE `uuid`=?"""))) {
+                INNER JOIN `%positions_table%` ON `%players_table%`.`%slot%` = `%positions_table%`.`id`
+                WHERE `uuid`=?""").replaceAll("%slot%", slot.getColumn()))) {
             statement.setString(1, user.getUuid().toString());
 
             final ResultSet resultSet = statement.executeQuery();
@@ -683,171 +748,28 @@ public class SqLiteDatabase extends Database {
                         resultSet.getString("server_name")));
             }
         } catch (SQLException e) {
-            plugin.log(Level.SEVERE, "Failed to query the last teleport position of " + user.getUsername(), e);
+            plugin.log(Level.SEVERE, "Failed to query the " + slot.getDisplayName() + " of " + user.getUsername(), e);
         }
         return Optional.empty();
     }
 
     @Override
-    public void setLastPosition(@NotNull User user, @NotNull Position position) {
-
-        try (PreparedStatement queryStatement = getConnection().prepareStatement(formatStatementTables("""
-                SELECT `last_position` FROM `%players_table%`
-                INNER JOIN `%positions_table%` ON `%players_table%`.last_position = `%positions_table%`.`id`
-                WHERE `uuid`=?;"""))) {
-            queryStatement.setString(1, user.getUuid().toString());
-
-            final ResultSet resultSet = queryStatement.executeQuery();
-            if (resultSet.next()) {
-                // Update the last position
-                updatePosition(resultSet.getInt("last_position"), position, connection);
-            } else {
-                // Set the last position
-                try (PreparedStatement updateStatement = getConnection().prepareStatement(formatStatementTables("""
-                        UPDATE `%players_table%`
-                        SET `last_position`=?
-                        WHERE `uuid`=?;"""))) {
-                    updateStatement.setInt(1, setPosition(position, connection));
-                    updateStatement.setString(2, user.getUuid().toString());
-                    updateStatement.executeUpdate();
-                }
-            }
-
-        } catch (SQLException e) {
-            plugin.log(Level.SEVERE, "Failed to set the last position of " + user.getUsername(), e);
-        }
-    }
-
-    @Override
-    public Optional<Position> getOfflinePosition(@NotNull User user) {
-
-        try (PreparedStatement statement = getConnection().prepareStatement(formatStatementTables("""
-                SELECT `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`
-                FROM `%players_table%`
-                INNER JOIN `%positions_table%` ON `%players_table%`.`offline_position` = `%positions_table%`.`id`
-                WHERE `uuid`=?"""))) {
-            statement.setString(1, user.getUuid().toString());
-
-            final ResultSet resultSet = statement.executeQuery();
-            if (resultSet.next()) {
-                return Optional.of(Position.at(resultSet.getDouble("x"),
-                        resultSet.getDouble("y"),
-                        resultSet.getDouble("z"),
-                        resultSet.getFloat("yaw"),
-                        resultSet.getFloat("pitch"),
-                        World.from(resultSet.getString("world_name"),
-                                UUID.fromString(resultSet.getString("world_uuid"))),
-                        resultSet.getString("server_name")));
-            }
-
-        } catch (SQLException e) {
-            plugin.log(Level.SEVERE, "Failed to query the offline position of " + user.getUsername(), e);
-        }
-        return Optional.empty();
-    }
-
-    @Override
-    public void setOfflinePosition(@NotNull User user, @NotNull Position position) {
-        try (PreparedStatement queryStatement = getConnection().prepareStatement(formatStatementTables("""
-                SELECT `offline_position` FROM `%players_table%`
-                INNER JOIN `%positions_table%` ON `%players_table%`.offline_position = `%positions_table%`.`id`
-                WHERE `uuid`=?;"""))) {
-            queryStatement.setString(1, user.getUuid().toString());
-
-            final ResultSet resultSet = queryStatement.executeQuery();
-            if (resultSet.next()) {
-                // Update the offline position
-                updatePosition(resultSet.getInt("offline_position"), position, connection);
-            } else {
-                // Set the offline position
-                try (PreparedStatement updateStatement = getConnection().prepareStatement(formatStatementTables("""
-                        UPDATE `%players_table%`
-                        SET `offline_position`=?
-                        WHERE `uuid`=?;"""))) {
-                    updateStatement.setInt(1, setPosition(position, connection));
-                    updateStatement.setString(2, user.getUuid().toString());
-                    updateStatement.executeUpdate();
-                }
-            }
-        } catch (SQLException e) {
-            plugin.log(Level.SEVERE, "Failed to set the offline position of " + user.getUsername(), e);
+    protected boolean setSlotPositions(@NotNull Collection<PositionWrite> writes) {
+        if (writes.isEmpty()) {
+            return true;
         }
-    }
-
-    @Override
-    public Optional<Position> getRespawnPosition(@NotNull User user) {
-        try (PreparedStatement statement = getConnection().prepareStatement(formatStatementTables("""
-                SELECT `x`, `y`, `z`, `yaw`, `pitch`, `world_name`, `world_uuid`, `server_name`
-                FROM `%players_table%`
-                INNER JOIN `%positions_table%` ON `%players_table%`.`respawn_position` = `%positions_table%`.`id`
-                WHERE `uuid`=?"""))) {
-            statement.setString(1, user.getUuid().toString());
-
-            final ResultSet resultSet = statement.executeQuery();
-            if (resultSet.next()) {
-                return Optional.of(Position.at(resultSet.getDouble("x"),
-                        resultSet.getDouble("y"),
-                        resultSet.getDouble("z"),
-                        resultSet.getFloat("yaw"),
-                        resultSet.getFloat("pitch"),
-                        World.from(resultSet.getString("world_name"),
-                                UUID.fromString(resultSet.getString("world_uuid"))),
-                        resultSet.getString("server_name")));
-            }
-        } catch (SQLException e) {
-            plugin.log(Level.SEVERE, "Failed to query the respawn position of " + user.getUsername(), e);
-        }
-        return Optional.empty();
-    }
-
-    @Override
-    public void setRespawnPosition(@NotNull User user, @Nullable Position position) {
-        try (PreparedStatement queryStatement = getConnection().prepareStatement(formatStatementTables("""
-                SELECT `respawn_position` FROM `%players_table%`
-                INNER JOIN `%positions_table%` ON `%players_table%`.respawn_position = `%positions_table%`.`id`
-                WHERE `uuid`=?;"""))) {
-            queryStatement.setString(1, user.getUuid().toString());
-
-            final ResultSet resultSet = queryStatement.executeQuery();
-            if (resultSet.next()) {
-                if (position == null) {
-                    // Delete a respawn position
-                    try (PreparedStatement deleteStatement = getConnection().prepareStatement(formatStatementTables("""
-                            DELETE FROM `%positions_table%`
-                            WHERE `id`=(
-                                SELECT `respawn_position`
-                                FROM `%players_table%`
-                                WHERE `%players_table%`.`uuid`=?
-                            );"""))) {
-                        deleteStatement.setString(1, user.getUuid().toString());
-                        deleteStatement.executeUpdate();
-                    }
-                } else {
-                    // Update the respawn position
-                    updatePosition(resultSet.getInt("respawn_position"), position, connection);
-                }
-            } else {
-                if (position != null) {
-                    // Set a respawn position
-                    try (PreparedStatement updateStatement = getConnection().prepareStatement(formatStatementTables("""
-                            UPDATE `%players_table%`
-                            SET `respawn_position`=?
-                            WHERE `uuid`=?;"""))) {
-                        updateStatement.setInt(1, setPosition(position, connection));
-                        updateStatement.setString(2, user.getUuid().toString());
-                        updateStatement.executeUpdate();
-                    }
-                }
-            }
-
+        try {
+            writeBatch(connection -> upserter.upsertSlots(writes, connection));
+            return true;
         } catch (SQLException e) {
-            plugin.log(Level.SEVERE, "Failed to set the respawn position of " + user.getUsername(), e);
+            plugin.log(Level.SEVERE, "Failed to write " + writes.size() + " position slot(s) to the database", e);
         }
+        return false;
     }
 
     @Override
-    public void saveHome(@NotNull Home home) {
-        getHome(home.getUuid()).ifPresentOrElse(presentHome -> {
+    public boolean saveHome(@NotNull Home home) {
+        if (getHome(home.getUuid()).isPresent()) {
             try {
                 // Update the home's saved position, including metadata
                 try (PreparedStatement statement = getConnection().prepareStatement(formatStatementTables("""
@@ -870,11 +792,12 @@ public class SqLiteDatabase extends Database {
                     statement.setString(2, home.getUuid().toString());
                     statement.executeUpdate();
                 }
+                return true;
             } catch (SQLException e) {
                 plugin.log(Level.SEVERE,
                         "Failed to update a home in the database for " + home.getOwner().getUsername(), e);
             }
-        }, () -> {
+        } else {
             try (PreparedStatement statement = getConnection().prepareStatement(formatStatementTables("""
                     INSERT INTO `%homes_table%` (`uuid`, `saved_position_id`, `owner_uuid`, `public`)
                     VALUES (?,?,?,?);"""))) {
@@ -884,12 +807,14 @@ public class SqLiteDatabase extends Database {
                 statement.setBoolean(4, home.isPublic());
 
                 statement.executeUpdate();
+                return true;
             } catch (SQLException e) {
                 e.printStackTrace();
                 plugin.log(Level.SEVERE,
                         "Failed to set a home to the database for " + home.getOwner().getUsername(), e);
             }
-        });
+        }
+        return false;
     }
 
     @Override
@@ -1009,6 +934,20 @@ public class SqLiteDatabase extends Database {
 
     @Override
     public void terminate() {
+        super.terminate();
+        if (readPool != null) {
+            readPool.close();
+        }
+        batchLock.lock();
+        try {
+            if (batchConnection != null && !batchConnection.isClosed()) {
+                batchConnection.close();
+            }
+        } catch (SQLException e) {
+            plugin.log(Level.WARNING, "Failed to properly close the SQLite batch connection");
+        } finally {
+            batchLock.unlock();
+        }
         try {
             if (connection != null) {
                 if (!connection.isClosed()) {
@@ -1020,4 +959,10 @@ public class SqLiteDatabase extends Database {
         }
     }
 
-}
\ No newline at end of file
+    // A batch of writes to make on a connection
+    @FunctionalInterface
+    private interface BatchWriter {
+        void write(@NotNull Connection connection) throws SQLException;
+    }
+
+}
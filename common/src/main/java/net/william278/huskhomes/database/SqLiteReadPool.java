@@ -0,0 +1,221 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.database;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A fixed-size pool of read-only SQLite connections, used alongside a single writer connection in WAL mode so that
+ * reads can run concurrently with each other and with writes.
+ * <p>
+ * A borrowed connection is returned to the pool when closed. Statements prepared on a pooled connection are cached
+ * against it and reused by later borrowers; closing them only closes their last result set and clears parameters.
+ */
+final class SqLiteReadPool {
+
+    private static final long BORROW_TIMEOUT_SECONDS = 20;
+
+    private final List<PooledReader> readers = new ArrayList<>();
+    private final BlockingQueue<PooledReader> idle;
+
+    /**
+     * Open a pool of read-only connections
+     *
+     * @param url        The JDBC URL of the database
+     * @param properties Connection properties; should specify read-only access
+     * @param size       The number of connections to open
+     * @throws SQLException if a connection could not be opened
+     */
+    SqLiteReadPool(@NotNull String url, @NotNull Properties properties, int size) throws SQLException {
+        this.idle = new ArrayBlockingQueue<>(size);
+        try {
+            for (int i = 0; i < size; i++) {
+                final PooledReader reader = new PooledReader(DriverManager.getConnection(url, properties));
+                readers.add(reader);
+                idle.add(reader);
+            }
+        } catch (SQLException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Borrow a connection from the pool, waiting for one to become available if they are all in use
+     *
+     * @return A {@link Connection} that is returned to the pool when closed
+     * @throws SQLException if no connection became available in time
+     */
+    @NotNull
+    Connection borrow() throws SQLException {
+        final PooledReader reader;
+        try {
+            reader = idle.poll(BORROW_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a pooled SQLite connection", e);
+        }
+        if (reader == null) {
+            throw new SQLException("Timed out waiting for a pooled SQLite connection");
+        }
+        return reader.lease();
+    }
+
+    /**
+     * Close every connection in the pool, along with their cached statements
+     */
+    void close() {
+        for (PooledReader reader : readers) {
+            reader.close();
+        }
+        readers.clear();
+        idle.clear();
+    }
+
+    /**
+     * Wrap a connection so that closing it has no effect, for callers that must not close a shared connection
+     *
+     * @param connection The shared {@link Connection}
+     * @return A wrapped {@link Connection} ignoring calls to {@link Connection#close()}
+     */
+    @NotNull
+    static Connection nonClosing(@NotNull Connection connection) {
+        return (Connection) Proxy.newProxyInstance(SqLiteReadPool.class.getClassLoader(), new Class[]{Connection.class},
+                (proxy, method, args) -> method.getName().equals("close") ? null : invoke(connection, method, args));
+    }
+
+    @Nullable
+    private static Object invoke(@NotNull Object target, @NotNull Method method, @Nullable Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // A pooled connection with its cache of prepared statements
+    private final class PooledReader {
+
+        private final Connection connection;
+        private final Map<String, CachedStatement> statements = new HashMap<>();
+
+        private PooledReader(@NotNull Connection connection) {
+            this.connection = connection;
+        }
+
+        // Lease this connection out; closing the lease returns it to the pool
+        @NotNull
+        private Connection lease() {
+            final boolean[] returned = {false};
+            return (Connection) Proxy.newProxyInstance(SqLiteReadPool.class.getClassLoader(), new Class[]{Connection.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "close" -> {
+                            if (!returned[0]) {
+                                returned[0] = true;
+                                idle.offer(this);
+                            }
+                            yield null;
+                        }
+                        case "isClosed" -> returned[0] || connection.isClosed();
+                        case "prepareStatement" -> args.length == 1
+                                ? prepare((String) args[0])
+                                : invoke(connection, method, args);
+                        default -> invoke(connection, method, args);
+                    });
+        }
+
+        @NotNull
+        private PreparedStatement prepare(@NotNull String sql) throws SQLException {
+            CachedStatement statement = statements.get(sql);
+            if (statement == null) {
+                statement = new CachedStatement(connection.prepareStatement(sql));
+                statements.put(sql, statement);
+            }
+            return statement.proxy();
+        }
+
+        private void close() {
+            statements.values().forEach(CachedStatement::close);
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+            }
+        }
+
+    }
+
+    // A statement kept open for reuse; its last result set is closed when released so the read snapshot is not held
+    private static final class CachedStatement {
+
+        private final PreparedStatement statement;
+        private final PreparedStatement proxy;
+        private ResultSet resultSet;
+
+        private CachedStatement(@NotNull PreparedStatement statement) {
+            this.statement = statement;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(SqLiteReadPool.class.getClassLoader(),
+                    new Class[]{PreparedStatement.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "close" -> {
+                            release();
+                            yield null;
+                        }
+                        case "executeQuery" -> resultSet = (ResultSet) invoke(statement, method, args);
+                        default -> invoke(statement, method, args);
+                    });
+        }
+
+        @NotNull
+        private PreparedStatement proxy() {
+            return proxy;
+        }
+
+        private void release() throws SQLException {
+            if (resultSet != null) {
+                resultSet.close();
+                resultSet = null;
+            }
+            statement.clearParameters();
+        }
+
+        private void close() {
+            try {
+                statement.close();
+            } catch (SQLException ignored) {
+            }
+        }
+
+    }
+
+}
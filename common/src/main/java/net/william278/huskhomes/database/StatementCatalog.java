@@ -0,0 +1,88 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.database;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * An immutable catalog of SQL statements keyed by an enum, formatted once when created.
+ * <p>
+ * Looking statements up from the catalog avoids formatting table names on every query, and ensures the same
+ * statement always has an identical string for the driver's prepared statement cache.
+ *
+ * @param <Q> The enum of queries in the catalog
+ */
+final class StatementCatalog<Q extends Enum<Q>> {
+
+    private final Map<Q, String> statements;
+    private final int maxLength;
+
+    /**
+     * Create a catalog containing a statement for every constant of a query enum
+     *
+     * @param type      The enum class of queries
+     * @param template  Function getting the unformatted SQL of a query
+     * @param formatter Function formatting placeholders in the SQL, such as table names
+     */
+    StatementCatalog(@NotNull Class<Q> type, @NotNull Function<Q, String> template, @NotNull UnaryOperator<String> formatter) {
+        final Map<Q, String> statements = new EnumMap<>(type);
+        for (Q query : type.getEnumConstants()) {
+            statements.put(query, formatter.apply(template.apply(query)));
+        }
+        this.statements = Collections.unmodifiableMap(statements);
+        this.maxLength = statements.values().stream().mapToInt(String::length).max().orElse(0);
+    }
+
+    /**
+     * Get the formatted SQL of a query
+     *
+     * @param query The query to get
+     * @return The formatted SQL statement
+     */
+    @NotNull
+    String get(@NotNull Q query) {
+        return statements.get(query);
+    }
+
+    /**
+     * Get the number of statements in the catalog
+     *
+     * @return The number of statements
+     */
+    int size() {
+        return statements.size();
+    }
+
+    /**
+     * Get the length of the longest statement in the catalog
+     *
+     * @return The length of the longest statement
+     */
+    int getMaxLength() {
+        return maxLength;
+    }
+
+}
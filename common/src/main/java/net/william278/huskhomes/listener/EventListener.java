@@ -31,6 +31,7 @@ import net.william278.huskhomes.teleport.Teleport;
 import net.william278.huskhomes.teleport.TeleportBuilder;
 import net.william278.huskhomes.teleport.TeleportationException;
 import net.william278.huskhomes.user.OnlineUser;
+import net.william278.huskhomes.user.SavedUser;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
@@ -42,11 +43,15 @@ import java.util.logging.Level;
  */
 public class EventListener {
 
+    private static final int PERSISTENCE_LANES = 4;
+
     @NotNull
     protected final HuskHomes plugin;
+    private final PersistenceExecutor persistence;
 
     protected EventListener(@NotNull HuskHomes plugin) {
         this.plugin = plugin;
+        this.persistence = new PersistenceExecutor(plugin, PERSISTENCE_LANES);
     }
 
     /**
@@ -63,8 +68,11 @@ public class EventListener {
             if (plugin.getSettings().doCrossServer()) {
                 this.handleInboundTeleport(onlineUser);
 
-                // Synchronize the global player list
-                plugin.runLater(() -> this.synchronizeGlobalPlayerList(onlineUser, plugin.getLocalPlayerList()), 40L);
+                // Send messages held while the server was empty, then update the global player list
+                plugin.runLater(() -> {
+                    plugin.getMessenger().flushQueued(onlineUser);
+                    this.announcePlayerJoined(onlineUser);
+                }, 40L);
 
                 // Request updated player lists from other servers
                 if (plugin.getOnlineUsers().size() == 1) {
@@ -159,49 +167,72 @@ public class EventListener {
      * @param onlineUser the leaving {@link OnlineUser}
      */
     protected final void handlePlayerLeave(@NotNull OnlineUser onlineUser) {
-        // Set offline position
-        plugin.getDatabase().setOfflinePosition(onlineUser, onlineUser.getPosition());
+        // Set offline position, saving it off the server thread
+        final Position offlinePosition = onlineUser.getPosition();
+        final Optional<SavedUser> unsavedData = plugin.getSavedUsers().remove(onlineUser.getUuid());
+        persistence.execute(onlineUser, () -> {
+            plugin.getDatabase().setOfflinePosition(onlineUser, offlinePosition);
+            unsavedData.ifPresent(plugin.getDatabase()::updateUserData);
+
+            // Ensure buffered positions are saved before the player is picked up by another server
+            if (plugin.getSettings().doCrossServer()) {
+                plugin.getDatabase().flushPendingWrites(onlineUser);
+            }
+        });
 
         // Remove this user's home cache
         plugin.getManager().homes().removeUserHomes(onlineUser);
 
         // Update global lists
         if (plugin.getSettings().doCrossServer()) {
-            final List<String> localPlayerList = plugin.getLocalPlayerList().stream()
-                    .filter(player -> !player.equals(onlineUser.getUsername()))
-                    .toList();
-
             if (plugin.getSettings().getBrokerType() == Broker.Type.REDIS) {
-                this.synchronizeGlobalPlayerList(onlineUser, localPlayerList);
+                this.announcePlayerLeft(onlineUser, onlineUser);
                 return;
             }
 
             plugin.getOnlineUsers().stream()
                     .filter(user -> !user.equals(onlineUser))
                     .findAny()
-                    .ifPresent(player -> this.synchronizeGlobalPlayerList(player, localPlayerList));
+                    .ifPresent(player -> this.announcePlayerLeft(player, onlineUser));
         }
     }
 
-    // Synchronize the global player list
-    private void synchronizeGlobalPlayerList(@NotNull OnlineUser user, @NotNull List<String> localPlayerList) {
-        // Send this server's player list to all servers
-        Message.builder()
-                .type(Message.Type.PLAYER_LIST)
-                .scope(Message.Scope.SERVER)
-                .target(Message.TARGET_ALL)
-                .payload(Payload.withStringList(localPlayerList))
-                .build().send(plugin.getMessenger(), user);
-
-        // Clear cached global player lists and request updated lists from all servers
+    // Send a player joining to all servers; the first player to join sends the full list and requests all others
+    private void announcePlayerJoined(@NotNull OnlineUser user) {
+        final Broker broker = plugin.getMessenger();
         if (plugin.getOnlineUsers().size() == 1) {
             plugin.getGlobalPlayerList().clear();
+            Message.builder()
+                    .type(Message.Type.PLAYER_LIST)
+                    .scope(Message.Scope.SERVER)
+                    .target(Message.TARGET_ALL)
+                    .payload(Payload.withPlayerList(broker.getPlayerList()))
+                    .build().send(broker, user);
             Message.builder()
                     .type(Message.Type.REQUEST_PLAYER_LIST)
                     .scope(Message.Scope.SERVER)
                     .target(Message.TARGET_ALL)
-                    .build().send(plugin.getMessenger(), user);
+                    .build().send(broker, user);
+            return;
         }
+
+        Message.builder()
+                .type(Message.Type.PLAYER_JOINED)
+                .scope(Message.Scope.SERVER)
+                .target(Message.TARGET_ALL)
+                .payload(Payload.withPlayerList(broker.getPlayerListChange(List.of(user.getUsername()))))
+                .build().send(broker, user);
+    }
+
+    // Send a player leaving to all servers
+    private void announcePlayerLeft(@NotNull OnlineUser sender, @NotNull OnlineUser user) {
+        final Broker broker = plugin.getMessenger();
+        Message.builder()
+                .type(Message.Type.PLAYER_LEFT)
+                .scope(Message.Scope.SERVER)
+                .target(Message.TARGET_ALL)
+                .payload(Payload.withPlayerList(broker.getPlayerListChange(List.of(user.getUsername()))))
+                .build().send(broker, sender);
     }
 
     /**
@@ -212,7 +243,8 @@ public class EventListener {
     protected final void handlePlayerDeath(@NotNull OnlineUser onlineUser) {
         if (plugin.getSettings().doBackCommandReturnByDeath() && plugin.getCommand(BackCommand.class)
                 .map(Command::getPermission).map(onlineUser::hasPermission).orElse(false)) {
-            plugin.getDatabase().setLastPosition(onlineUser, onlineUser.getPosition());
+            final Position deathPosition = onlineUser.getPosition();
+            persistence.execute(onlineUser, () -> plugin.getDatabase().setLastPosition(onlineUser, deathPosition));
         }
     }
 
@@ -286,7 +318,7 @@ public class EventListener {
      */
     protected final void handlePlayerUpdateSpawnPoint(@NotNull OnlineUser onlineUser, @NotNull Position position) {
         if (plugin.getSettings().doCrossServer() && plugin.getSettings().isGlobalRespawning()) {
-            plugin.getDatabase().setRespawnPosition(onlineUser, position);
+            persistence.execute(onlineUser, () -> plugin.getDatabase().setRespawnPosition(onlineUser, position));
         }
     }
 
@@ -294,6 +326,9 @@ public class EventListener {
      * Handle when the plugin is disabling (server is shutting down)
      */
     public final void handlePluginDisable() {
+        // Wait for player data from quit, death and spawn point events to finish saving
+        persistence.drain();
+        plugin.getManager().shutdown();
         plugin.log(Level.INFO, "Successfully disabled HuskHomes v" + plugin.getVersion());
     }
 
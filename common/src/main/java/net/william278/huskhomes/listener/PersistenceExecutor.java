@@ -0,0 +1,107 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.listener;
+
+import net.william278.huskhomes.HuskHomes;
+import net.william278.huskhomes.user.User;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Runs database writes for player lifecycle events (quitting, dying, changing spawn point) off the server thread.
+ * <p>
+ * Writes are spread over a fixed number of single-threaded lanes by user, so the writes of any one user always run
+ * in the order they were submitted. Callers should snapshot any state needed from the player before submitting.
+ * {@link #drain()} waits for all submitted writes to finish; writes submitted after draining run immediately.
+ */
+final class PersistenceExecutor {
+
+    private static final long DRAIN_TIMEOUT_SECONDS = 30;
+
+    private final HuskHomes plugin;
+    private final ExecutorService[] lanes;
+    private volatile boolean drained = false;
+
+    PersistenceExecutor(@NotNull HuskHomes plugin, int laneCount) {
+        this.plugin = plugin;
+        this.lanes = new ExecutorService[Math.max(1, laneCount)];
+        for (int i = 0; i < lanes.length; i++) {
+            final String name = "HuskHomes-PersistenceExecutor-" + i;
+            lanes[i] = Executors.newSingleThreadExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Submit a write for a user, to run after any writes already submitted for them
+     *
+     * @param user  The {@link User} the write is for
+     * @param write The write to run
+     */
+    void execute(@NotNull User user, @NotNull Runnable write) {
+        if (drained) {
+            run(write);
+            return;
+        }
+        try {
+            lanes[Math.floorMod(user.getUuid().hashCode(), lanes.length)].execute(() -> run(write));
+        } catch (RejectedExecutionException e) {
+            run(write);
+        }
+    }
+
+    /**
+     * Stop accepting writes and wait for all submitted writes to finish
+     */
+    void drain() {
+        drained = true;
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        try {
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS);
+            for (ExecutorService lane : lanes) {
+                if (!lane.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    plugin.log(Level.WARNING, "Timed out waiting for player data to finish saving");
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(@NotNull Runnable write) {
+        try {
+            write.run();
+        } catch (Throwable e) {
+            plugin.log(Level.SEVERE, "Failed to save player data", e);
+        }
+    }
+
+}
@@ -0,0 +1,521 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.manager;
+
+import net.william278.huskhomes.position.Home;
+import net.william278.huskhomes.user.User;
+import net.william278.huskhomes.util.CompletionIndex;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Indexed in-memory cache of {@link Home}s, backing the {@link HomesManager}.
+ * <p>
+ * Homes of users whose homes have been cached are indexed by owner ID and lowercased name, and public homes by
+ * lowercased identifier; both are also indexed by home ID so updates and removals never scan the cache. Home
+ * identifiers are kept in {@link CompletionIndex}es for tab completion, updated as homes are cached and removed.
+ * <p>
+ * User homes are bounded: {@link #evict(Set, long)} drops users whose homes have not been read for a while, then the
+ * least recently read users over the maximum, sparing pinned (online) users.
+ */
+final class HomeCache {
+
+    private final int maxUsers;
+    private final AtomicLong evictions = new AtomicLong();
+
+    // Homes of cached users by owner ID, and the owner each cached user home belongs to
+    private final Map<UUID, OwnerHomes> userHomes = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> homeOwners = new ConcurrentHashMap<>();
+
+    // Public homes by ID, and by lowercased identifier
+    private final Map<UUID, IndexedHome> publicHomes = new ConcurrentHashMap<>();
+    private final Map<String, List<Home>> publicHomesByIdentifier = new ConcurrentHashMap<>();
+
+    // Identifiers of cached user homes and public homes, for tab completion
+    private final CompletionIndex userHomeIdentifiers = new CompletionIndex();
+    private final CompletionIndex publicHomeIdentifiers = new CompletionIndex();
+
+    // Snapshot of public home names, invalidated (set to null) on write and rebuilt on the next read
+    private volatile Map<String, List<String>> publicHomeNames = Map.of();
+
+    /**
+     * Create a cache holding the homes of up to a number of users, besides pinned users
+     *
+     * @param maxUsers The maximum number of users to cache the homes of
+     */
+    HomeCache(int maxUsers) {
+        this.maxUsers = Math.max(0, maxUsers);
+    }
+
+    HomeCache() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Cache the full set of a user's homes, replacing any homes already cached for them
+     *
+     * @param owner The {@link User} who owns the homes
+     * @param homes All the user's homes
+     */
+    synchronized void setUserHomes(@NotNull User owner, @NotNull Collection<Home> homes) {
+        removeUserHomes(owner.getUuid());
+        final OwnerHomes ownerHomes = new OwnerHomes(owner.getUsername());
+        homes.forEach(home -> {
+            userHomeIdentifiers.add(ownerHomes.put(home).identifier());
+            homeOwners.put(home.getUuid(), owner.getUuid());
+
+            // Re-index public homes, as their identifiers change if the owner has changed their username
+            if (home.isPublic()) {
+                removePublicHome(home.getUuid());
+                putPublicHome(home);
+            }
+        });
+        ownerHomes.refreshNames();
+        userHomes.put(owner.getUuid(), ownerHomes);
+    }
+
+    /**
+     * Evict cached user homes, first those of users whose homes have not been read within the maximum idle time,
+     * then those of the least recently read users while more than the maximum number of users are cached
+     *
+     * @param pinned  IDs of users whose homes must not be evicted
+     * @param maxIdle The maximum time in nanoseconds a user's homes may go unread before being evicted
+     * @return The number of users whose homes were evicted
+     */
+    synchronized int evict(@NotNull Set<UUID> pinned, long maxIdle) {
+        final long now = System.nanoTime();
+        // Sort on a snapshot of the read times, as reads keep updating them while we sort
+        final List<LastRead> candidates = userHomes.entrySet().stream()
+                .filter(entry -> !pinned.contains(entry.getKey()))
+                .map(entry -> new LastRead(entry.getKey(), entry.getValue().lastRead))
+                .sorted(Comparator.comparingLong(LastRead::time))
+                .toList();
+        int evicted = 0;
+        for (LastRead candidate : candidates) {
+            if (now - candidate.time() < maxIdle && userHomes.size() <= maxUsers) {
+                break;
+            }
+            removeUserHomes(candidate.owner());
+            evicted++;
+        }
+        evictions.addAndGet(evicted);
+        return evicted;
+    }
+
+    /**
+     * Get the number of users whose homes are cached
+     *
+     * @return The number of cached users
+     */
+    int getUserCount() {
+        return userHomes.size();
+    }
+
+    /**
+     * Get the number of users whose homes have been evicted by {@link #evict(Set, long)}
+     *
+     * @return The total number of evicted users
+     */
+    long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Remove a user's homes from the cache; their public homes stay cached
+     *
+     * @param owner ID of the user to remove the homes of
+     */
+    synchronized void removeUserHomes(@NotNull UUID owner) {
+        final OwnerHomes removed = userHomes.remove(owner);
+        if (removed != null) {
+            removed.homes.values().forEach(indexed -> {
+                homeOwners.remove(indexed.home().getUuid());
+                userHomeIdentifiers.remove(indexed.identifier());
+            });
+        }
+    }
+
+    /**
+     * Remove the cached homes of every user except those given
+     *
+     * @param kept IDs of users whose homes are kept cached
+     */
+    synchronized void removeUserHomesExcept(@NotNull Set<UUID> kept) {
+        List.copyOf(userHomes.keySet()).stream()
+                .filter(owner -> !kept.contains(owner))
+                .forEach(this::removeUserHomes);
+    }
+
+    /**
+     * Remove every home owned by a user, emptying their user homes if cached and dropping their public homes
+     *
+     * @param owner ID of the user whose homes were deleted
+     */
+    synchronized void removeAllHomes(@NotNull UUID owner) {
+        final OwnerHomes ownerHomes = userHomes.get(owner);
+        if (ownerHomes != null) {
+            ownerHomes.homes.values().forEach(indexed -> {
+                homeOwners.remove(indexed.home().getUuid());
+                userHomeIdentifiers.remove(indexed.identifier());
+            });
+            ownerHomes.clear();
+        }
+        publicHomes.values().stream()
+                .filter(indexed -> indexed.home().getOwner().getUuid().equals(owner))
+                .map(indexed -> indexed.home().getUuid())
+                .toList()
+                .forEach(this::removePublicHome);
+    }
+
+    /**
+     * Add or update a home. It is updated in its owner's homes if they are cached, and cached as a public home (or
+     * removed from the public homes) according to its privacy
+     *
+     * @param home The {@link Home} to cache
+     * @return {@code true} if the home was previously cached as a public home
+     */
+    synchronized boolean put(@NotNull Home home) {
+        final OwnerHomes ownerHomes = userHomes.get(home.getOwner().getUuid());
+        if (ownerHomes != null) {
+            ownerHomes.remove(home.getUuid()).ifPresent(previous -> userHomeIdentifiers.remove(previous.identifier()));
+            userHomeIdentifiers.add(ownerHomes.put(home).identifier());
+            ownerHomes.refreshNames();
+            homeOwners.put(home.getUuid(), home.getOwner().getUuid());
+        }
+
+        final boolean wasPublic = removePublicHome(home.getUuid()) != null;
+        if (home.isPublic()) {
+            putPublicHome(home);
+        }
+        return wasPublic;
+    }
+
+    private void putPublicHome(@NotNull Home home) {
+        final IndexedHome indexed = IndexedHome.of(home, home.getIdentifier());
+        publicHomes.put(home.getUuid(), indexed);
+        publicHomesByIdentifier.merge(indexed.key(), List.of(home), HomeCache::concat);
+        publicHomeIdentifiers.add(indexed.identifier());
+        publicHomeNames = null;
+    }
+
+    /**
+     * Replace the cached public homes, updating each home and removing cached public homes no longer public
+     *
+     * @param homes All public homes
+     * @return The homes removed from the public homes
+     */
+    synchronized List<Home> setPublicHomes(@NotNull Collection<Home> homes) {
+        final Set<UUID> homeIds = new HashSet<>();
+        homes.forEach(home -> homeIds.add(home.getUuid()));
+        final List<Home> removed = publicHomes.keySet().stream()
+                .filter(homeId -> !homeIds.contains(homeId))
+                .toList().stream()
+                .map(this::removePublicHome)
+                .toList();
+        homes.forEach(this::put);
+        return removed;
+    }
+
+    /**
+     * Remove a home from the cache
+     *
+     * @param homeId ID of the home to remove
+     * @return The removed home, if it was cached as a public home
+     */
+    synchronized Optional<Home> remove(@NotNull UUID homeId) {
+        final UUID owner = homeOwners.remove(homeId);
+        if (owner != null) {
+            final OwnerHomes ownerHomes = userHomes.get(owner);
+            if (ownerHomes != null) {
+                ownerHomes.remove(homeId).ifPresent(removed -> {
+                    userHomeIdentifiers.remove(removed.identifier());
+                    ownerHomes.refreshNames();
+                });
+            }
+        }
+        return Optional.ofNullable(removePublicHome(homeId));
+    }
+
+    /**
+     * Get the names of each cached user's homes
+     *
+     * @return Map of owner usernames to the names of their homes
+     */
+    @NotNull
+    Map<String, List<String>> getUserHomeNames() {
+        final Map<String, List<String>> names = new HashMap<>();
+        userHomes.values().forEach(ownerHomes -> names.put(ownerHomes.username, ownerHomes.names));
+        return names;
+    }
+
+    /**
+     * Get the identifiers of every cached user's homes
+     *
+     * @return Sorted, immutable list of home identifiers
+     */
+    @NotNull
+    List<String> getUserHomeIdentifiers() {
+        return userHomeIdentifiers.getAll();
+    }
+
+    /**
+     * Get the identifiers of cached users' homes starting with a prefix
+     *
+     * @param prefix The prefix, ignoring case
+     * @param limit  The maximum number of identifiers to return
+     * @return Sorted list of matching home identifiers
+     */
+    @NotNull
+    List<String> completeUserHomeIdentifiers(@NotNull String prefix, int limit) {
+        return userHomeIdentifiers.complete(prefix, limit);
+    }
+
+    /**
+     * Get the names of a cached user's homes starting with a prefix
+     *
+     * @param owner  ID of the user who owns the homes
+     * @param prefix The prefix, ignoring case
+     * @param limit  The maximum number of names to return
+     * @return Sorted list of matching home names, empty if the user's homes are not cached
+     */
+    @NotNull
+    List<String> completeUserHomeNames(@NotNull UUID owner, @NotNull String prefix, int limit) {
+        final OwnerHomes ownerHomes = read(owner);
+        return ownerHomes == null ? List.of() : CompletionIndex.complete(ownerHomes.names, prefix, limit);
+    }
+
+    /**
+     * Get the names of public homes
+     *
+     * @return Immutable map of owner usernames to the names of their public homes
+     */
+    @NotNull
+    Map<String, List<String>> getPublicHomeNames() {
+        final Map<String, List<String>> names = publicHomeNames;
+        if (names != null) {
+            return names;
+        }
+        synchronized (this) {
+            if (publicHomeNames == null) {
+                final Map<String, List<String>> grouped = new HashMap<>();
+                publicHomes.values().forEach(indexed -> grouped
+                        .computeIfAbsent(indexed.home().getOwner().getUsername(), username -> new ArrayList<>())
+                        .add(indexed.home().getName()));
+                grouped.replaceAll((username, homeNames) -> List.copyOf(homeNames));
+                publicHomeNames = Map.copyOf(grouped);
+            }
+            return publicHomeNames;
+        }
+    }
+
+    /**
+     * Get the identifiers of public homes
+     *
+     * @return Sorted, immutable list of public home identifiers
+     */
+    @NotNull
+    List<String> getPublicHomeIdentifiers() {
+        return publicHomeIdentifiers.getAll();
+    }
+
+    /**
+     * Get the identifiers of public homes starting with a prefix
+     *
+     * @param prefix The prefix, ignoring case
+     * @param limit  The maximum number of identifiers to return
+     * @return Sorted list of matching public home identifiers
+     */
+    @NotNull
+    List<String> completePublicHomeIdentifiers(@NotNull String prefix, int limit) {
+        return publicHomeIdentifiers.complete(prefix, limit);
+    }
+
+    /**
+     * Check whether a user's homes are cached
+     *
+     * @param owner ID of the user
+     * @return {@code true} if the user's full set of homes is cached
+     */
+    boolean hasUserHomes(@NotNull UUID owner) {
+        return userHomes.containsKey(owner);
+    }
+
+    /**
+     * Get a cached user's homes
+     *
+     * @param owner ID of the user to get the homes of
+     * @return The user's homes, if their homes are cached
+     */
+    Optional<List<Home>> getUserHomes(@NotNull UUID owner) {
+        return Optional.ofNullable(read(owner))
+                .map(ownerHomes -> ownerHomes.homes.values().stream().map(IndexedHome::home).toList());
+    }
+
+    /**
+     * Look up a home of a cached user by name
+     *
+     * @param owner           ID of the user who owns the home
+     * @param name            The name of the home
+     * @param caseInsensitive Whether to match the name case-insensitively
+     * @return The home, if the user's homes are cached and they have a home by the name
+     */
+    Optional<Home> getUserHome(@NotNull UUID owner, @NotNull String name, boolean caseInsensitive) {
+        return Optional.ofNullable(read(owner))
+                .flatMap(ownerHomes -> match(ownerHomes.byName.get(name.toLowerCase()), Home::getName, name, caseInsensitive));
+    }
+
+    /**
+     * Look up a public home by its identifier
+     *
+     * @param identifier      The {@link Home#getIdentifier() identifier} of the home
+     * @param caseInsensitive Whether to match the identifier case-insensitively
+     * @return The public home, if cached
+     */
+    Optional<Home> getPublicHome(@NotNull String identifier, boolean caseInsensitive) {
+        return match(publicHomesByIdentifier.get(identifier.toLowerCase()), Home::getIdentifier, identifier, caseInsensitive);
+    }
+
+    /**
+     * Look up a cached home by ID
+     *
+     * @param homeId ID of the home
+     * @return The home, if cached as a public home or one of a cached user's homes
+     */
+    Optional<Home> getHome(@NotNull UUID homeId) {
+        return Optional.ofNullable(publicHomes.get(homeId))
+                .or(() -> Optional.ofNullable(homeOwners.get(homeId))
+                        .map(userHomes::get)
+                        .map(ownerHomes -> ownerHomes.homes.get(homeId)))
+                .map(IndexedHome::home);
+    }
+
+    @Nullable
+    private Home removePublicHome(@NotNull UUID homeId) {
+        final IndexedHome removed = publicHomes.remove(homeId);
+        if (removed == null) {
+            return null;
+        }
+        publicHomesByIdentifier.computeIfPresent(removed.key(), (key, homes) -> without(homes, homeId));
+        publicHomeIdentifiers.remove(removed.identifier());
+        publicHomeNames = null;
+        return removed.home();
+    }
+
+    // Pick the home matching a name from those sharing its lowercased key
+    private static Optional<Home> match(@Nullable List<Home> homes, @NotNull Function<Home, String> key,
+                                        @NotNull String value, boolean caseInsensitive) {
+        if (homes == null) {
+            return Optional.empty();
+        }
+        return homes.stream()
+                .filter(home -> caseInsensitive ? key.apply(home).equalsIgnoreCase(value) : key.apply(home).equals(value))
+                .findFirst();
+    }
+
+    @NotNull
+    private static List<Home> concat(@NotNull List<Home> homes, @NotNull List<Home> added) {
+        final List<Home> merged = new ArrayList<>(homes);
+        merged.addAll(added);
+        return List.copyOf(merged);
+    }
+
+    @Nullable
+    private static List<Home> without(@NotNull List<Home> homes, @NotNull UUID homeId) {
+        final List<Home> remaining = homes.stream().filter(home -> !home.getUuid().equals(homeId)).toList();
+        return remaining.isEmpty() ? null : remaining;
+    }
+
+    // Get a user's cached homes, recording the read for idle eviction
+    @Nullable
+    private OwnerHomes read(@NotNull UUID owner) {
+        final OwnerHomes ownerHomes = userHomes.get(owner);
+        if (ownerHomes != null) {
+            ownerHomes.lastRead = System.nanoTime();
+        }
+        return ownerHomes;
+    }
+
+    // A home along with the lowercased key and identifier it was indexed under, as homes are mutable and may since
+    // have been renamed
+    private record IndexedHome(@NotNull Home home, @NotNull String key, @NotNull String identifier) {
+
+        @NotNull
+        private static IndexedHome of(@NotNull Home home, @NotNull String key) {
+            return new IndexedHome(home, key.toLowerCase(), home.getIdentifier());
+        }
+
+    }
+
+    // When a user's homes were last read, as of an eviction pass
+    private record LastRead(@NotNull UUID owner, long time) {
+    }
+
+    // The homes of a single cached user
+    private static final class OwnerHomes {
+
+        private final String username;
+        private final Map<UUID, IndexedHome> homes = new ConcurrentHashMap<>();
+        private final Map<String, List<Home>> byName = new ConcurrentHashMap<>();
+        private volatile List<String> names = List.of();
+        private volatile long lastRead = System.nanoTime();
+
+        private OwnerHomes(@NotNull String username) {
+            this.username = username;
+        }
+
+        @NotNull
+        private IndexedHome put(@NotNull Home home) {
+            remove(home.getUuid());
+            final IndexedHome indexed = IndexedHome.of(home, home.getName());
+            homes.put(home.getUuid(), indexed);
+            byName.merge(indexed.key(), List.of(home), HomeCache::concat);
+            return indexed;
+        }
+
+        private Optional<IndexedHome> remove(@NotNull UUID homeId) {
+            final IndexedHome removed = homes.remove(homeId);
+            if (removed == null) {
+                return Optional.empty();
+            }
+            byName.computeIfPresent(removed.key(), (key, homes) -> without(homes, homeId));
+            return Optional.of(removed);
+        }
+
+        private void clear() {
+            homes.clear();
+            byName.clear();
+            refreshNames();
+        }
+
+        private void refreshNames() {
+            names = homes.values().stream()
+                    .map(indexed -> indexed.home().getName())
+                    .sorted(String.CASE_INSENSITIVE_ORDER)
+                    .toList();
+        }
+
+    }
+
+}
@@ -23,7 +23,7 @@ import net.william278.huskhomes.HuskHomes;
 import net.william278.huskhomes.command.ListCommand;
 import net.william278.huskhomes.hook.EconomyHook;
 import net.william278.huskhomes.network.Message;
-import net.william278.huskhomes.network.Payload;
+import net.william278.huskhomes.network.SavedPositionUpdate;
 import net.william278.huskhomes.position.Home;
 import net.william278.huskhomes.position.Position;
 import net.william278.huskhomes.position.PositionMeta;
@@ -35,21 +35,26 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class HomesManager {
 
+    // How often to evict idle user homes from the cache, in ticks
+    private static final long CACHE_EVICTION_TICKS = 1200;
+
     private final HuskHomes plugin;
-    private final ConcurrentLinkedQueue<Home> publicHomes;
-    private final ConcurrentHashMap<String, ConcurrentLinkedQueue<Home>> userHomes;
+    private final HomeCache cache;
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
 
     protected HomesManager(@NotNull HuskHomes plugin) {
         this.plugin = plugin;
-        this.publicHomes = new ConcurrentLinkedQueue<>(plugin.getDatabase().getPublicHomes());
-        this.userHomes = new ConcurrentHashMap<>();
+        this.cache = new HomeCache(plugin.getSettings().getUserHomeCacheMaxUsers());
+        cache.setPublicHomes(plugin.getDatabase().getPublicHomes());
         plugin.runAsync(() -> plugin.getOnlineUsers()
                 .forEach(this::cacheUserHomes));
+        plugin.runAsyncRepeating(this::evictUserHomes, CACHE_EVICTION_TICKS);
     }
 
     /**
@@ -57,16 +62,37 @@ public class HomesManager {
      */
     @NotNull
     public Map<String, List<String>> getUserHomes() {
-        return userHomes.entrySet().stream()
-                .collect(HashMap::new, (m, e) -> m.put(e.getKey(), e.getValue().stream().map(Home::getName).toList()),
-                        HashMap::putAll);
+        return cache.getUserHomeNames();
     }
 
     @NotNull
     public List<String> getUserHomeNames() {
-        return userHomes.entrySet().stream()
-                .flatMap(e -> e.getValue().stream().map(Home::getIdentifier))
-                .toList();
+        return cache.getUserHomeIdentifiers();
+    }
+
+    /**
+     * Get the identifiers ({@code owner.name}) of cached users' homes starting with a prefix, for tab completion
+     *
+     * @param prefix The prefix, ignoring case
+     * @param limit  The maximum number of identifiers to return
+     * @return Matching home identifiers, in alphabetical order ignoring case
+     */
+    @NotNull
+    public List<String> completeUserHomeNames(@NotNull String prefix, int limit) {
+        return cache.completeUserHomeIdentifiers(prefix, limit);
+    }
+
+    /**
+     * Get the names of a cached user's homes starting with a prefix, for tab completion
+     *
+     * @param owner  The user who owns the homes
+     * @param prefix The prefix, ignoring case
+     * @param limit  The maximum number of names to return
+     * @return Matching home names, in alphabetical order ignoring case; empty if the user's homes are not cached
+     */
+    @NotNull
+    public List<String> completeUserHomeNames(@NotNull User owner, @NotNull String prefix, int limit) {
+        return cache.completeUserHomeNames(owner.getUuid(), prefix, limit);
     }
 
     /**
@@ -74,87 +100,252 @@ public class HomesManager {
      */
     @NotNull
     public Map<String, List<String>> getPublicHomes() {
-        return publicHomes.stream()
-                .collect(HashMap::new, (m, e) -> m.put(e.getOwner().getUsername(), List.of(e.getName())),
-                        HashMap::putAll);
+        return cache.getPublicHomeNames();
     }
 
     @NotNull
     public List<String> getPublicHomeNames() {
-        return publicHomes.stream()
-                .map(Home::getIdentifier)
-                .toList();
+        return cache.getPublicHomeIdentifiers();
+    }
+
+    /**
+     * Get the identifiers ({@code owner.name}) of public homes starting with a prefix, for tab completion
+     *
+     * @param prefix The prefix, ignoring case
+     * @param limit  The maximum number of identifiers to return
+     * @return Matching public home identifiers, in alphabetical order ignoring case
+     */
+    @NotNull
+    public List<String> completePublicHomeNames(@NotNull String prefix, int limit) {
+        return cache.completePublicHomeIdentifiers(prefix, limit);
+    }
+
+    /**
+     * Get a user's home by name. If the read-through cache is enabled, this is served from the cache when the user's
+     * homes are cached or the home is a cached public home, otherwise it is read from the database
+     *
+     * @param owner The {@link User} who owns the home
+     * @param name  The name of the home
+     * @return The home, if found
+     */
+    public Optional<Home> getHome(@NotNull User owner, @NotNull String name) {
+        if (plugin.getSettings().doDatabaseReadThroughCache()) {
+            final boolean caseInsensitive = plugin.getSettings().caseInsensitiveNames();
+            if (cache.hasUserHomes(owner.getUuid())) {
+                cacheHits.incrementAndGet();
+                return cache.getUserHome(owner.getUuid(), name, caseInsensitive);
+            }
+            final Optional<Home> publicHome = cache
+                    .getPublicHome(owner.getUsername() + Home.IDENTIFIER_DELIMITER + name, caseInsensitive)
+                    .filter(home -> home.getOwner().getUuid().equals(owner.getUuid()));
+            if (publicHome.isPresent()) {
+                cacheHits.incrementAndGet();
+                return publicHome;
+            }
+            cacheMisses.incrementAndGet();
+        }
+        return plugin.getDatabase().getHome(owner, name);
+    }
+
+    /**
+     * Get a home by ID, served from the cache if the read-through cache is enabled and the home is cached
+     *
+     * @param homeId The ID of the home
+     * @return The home, if found
+     */
+    public Optional<Home> getHome(@NotNull UUID homeId) {
+        if (plugin.getSettings().doDatabaseReadThroughCache()) {
+            final Optional<Home> home = cache.getHome(homeId);
+            if (home.isPresent()) {
+                cacheHits.incrementAndGet();
+                return home;
+            }
+            cacheMisses.incrementAndGet();
+        }
+        return plugin.getDatabase().getHome(homeId);
+    }
+
+    /**
+     * Get all of a user's homes, served from the cache if the read-through cache is enabled and their homes are cached
+     *
+     * @param owner The {@link User} to get the homes of
+     * @return The user's homes
+     */
+    @NotNull
+    public List<Home> getHomes(@NotNull User owner) {
+        if (plugin.getSettings().doDatabaseReadThroughCache()) {
+            final Optional<List<Home>> homes = cache.getUserHomes(owner.getUuid());
+            if (homes.isPresent()) {
+                cacheHits.incrementAndGet();
+                return homes.get();
+            }
+            cacheMisses.incrementAndGet();
+        }
+        return plugin.getDatabase().getHomes(owner);
+    }
+
+    /**
+     * Look up a public home by its owner's username and its name from the cache. Returns empty if the read-through
+     * cache is disabled or the home is not a cached public home, in which case callers should query the database
+     *
+     * @param ownerUsername The username of the home owner
+     * @param name          The name of the home
+     * @return The public home, if cached
+     */
+    public Optional<Home> getCachedPublicHome(@NotNull String ownerUsername, @NotNull String name) {
+        if (!plugin.getSettings().doDatabaseReadThroughCache()) {
+            return Optional.empty();
+        }
+        final Optional<Home> home = cache.getPublicHome(ownerUsername + Home.IDENTIFIER_DELIMITER + name,
+                plugin.getSettings().caseInsensitiveNames());
+        (home.isPresent() ? cacheHits : cacheMisses).incrementAndGet();
+        return home;
+    }
+
+    /**
+     * Number of home lookups served from the read-through cache
+     */
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * Number of home lookups that missed the read-through cache and queried the database
+     */
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    /**
+     * Number of users whose homes are cached
+     */
+    public int getCachedUserCount() {
+        return cache.getUserCount();
+    }
+
+    /**
+     * Number of users whose cached homes have been evicted for being idle or over the cache size limit
+     */
+    public long getCacheEvictions() {
+        return cache.getEvictionCount();
     }
 
     public void cacheUserHomes(@NotNull User user) {
-        userHomes.put(user.getUsername(), new ConcurrentLinkedQueue<>(plugin.getDatabase().getHomes(user)));
+        cache.setUserHomes(user, plugin.getDatabase().getHomes(user));
+        if (cache.getUserCount() > plugin.getSettings().getUserHomeCacheMaxUsers()) {
+            this.evictUserHomes();
+        }
+    }
+
+    // Evict the cached homes of offline users that are idle, or over the cache size limit
+    private void evictUserHomes() {
+        final Set<UUID> online = new HashSet<>();
+        plugin.getOnlineUsers().forEach(user -> online.add(user.getUuid()));
+        cache.evict(online, TimeUnit.SECONDS.toNanos(plugin.getSettings().getUserHomeCacheMaxIdle()));
     }
 
     public void cacheHome(@NotNull Home home, boolean propagate) {
-        userHomes.computeIfPresent(home.getOwner().getUsername(), (k, v) -> {
-            v.remove(home);
-            v.add(home);
-            return v;
-        });
-        if (publicHomes.remove(home) && !home.isPublic()) {
+        if (cache.put(home) && !home.isPublic()) {
             plugin.getMapHook().ifPresent(hook -> hook.removeHome(home));
         }
         if (home.isPublic()) {
-            publicHomes.add(home);
             plugin.getMapHook().ifPresent(hook -> hook.updateHome(home));
         }
 
-        plugin.getCommands().stream()
-                .filter(command -> command instanceof ListCommand)
-                .map(command -> (ListCommand) command)
-                .forEach(ListCommand::invalidateCaches);
+        this.invalidateListCaches();
         if (propagate) {
-            propagateCacheUpdate(home.getUuid());
+            plugin.getManager().propagatePositionUpdate(Message.Type.UPDATE_HOME,
+                    sequence -> SavedPositionUpdate.of(home, sequence));
         }
     }
 
     public void unCacheHome(@NotNull UUID homeId, boolean propagate) {
-        userHomes.values().forEach(homes -> homes.removeIf(home -> home.getUuid().equals(homeId)));
-        publicHomes.removeIf(home -> {
-            if (home.getUuid().equals(homeId)) {
-                plugin.getMapHook().ifPresent(hook -> hook.removeHome(home));
-                return true;
-            }
-            return false;
-        });
+        cache.remove(homeId).ifPresent(home -> plugin.getMapHook().ifPresent(hook -> hook.removeHome(home)));
+
+        this.invalidateListCaches();
+        if (propagate) {
+            plugin.getManager().propagatePositionUpdate(Message.Type.UPDATE_HOME,
+                    sequence -> SavedPositionUpdate.deleted(homeId, sequence));
+        }
+    }
 
+    /**
+     * Remove a batch of homes from the cache, invalidating list caches once
+     *
+     * @param homeIds IDs of the homes to remove
+     */
+    public void unCacheHomes(@NotNull Collection<UUID> homeIds) {
+        if (homeIds.isEmpty()) {
+            return;
+        }
+        homeIds.forEach(homeId -> cache.remove(homeId)
+                .ifPresent(home -> plugin.getMapHook().ifPresent(hook -> hook.removeHome(home))));
+        this.invalidateListCaches();
+    }
+
+    private void invalidateListCaches() {
         plugin.getCommands().stream()
                 .filter(command -> command instanceof ListCommand)
                 .map(command -> (ListCommand) command)
                 .forEach(ListCommand::invalidateCaches);
-        if (propagate) {
-            this.propagateCacheUpdate(homeId);
-        }
     }
 
-    private void propagateCacheUpdate(@NotNull UUID homeId) {
-        if (plugin.getSettings().doCrossServer()) {
-            plugin.getOnlineUsers().stream().findAny().ifPresent(user -> Message.builder()
-                    .type(Message.Type.UPDATE_HOME)
-                    .scope(Message.Scope.SERVER)
-                    .target(Message.TARGET_ALL)
-                    .payload(Payload.withString(homeId.toString()))
-                    .build().send(plugin.getMessenger(), user));
+    /**
+     * Apply a home update received from another server. If an earlier update from the server was missed or this one
+     * arrived out of order, the home is re-read from the database instead
+     *
+     * @param sourceServer The server the update was sent from
+     * @param update       The received {@link SavedPositionUpdate}
+     */
+    public void applyUpdate(@NotNull String sourceServer, @NotNull SavedPositionUpdate update) {
+        if (!plugin.getManager().isNextUpdate(sourceServer, update)) {
+            this.refreshHome(update.getId());
+            return;
         }
+
+        update.getHome().ifPresentOrElse(home -> cacheHome(home, false), () -> unCacheHome(update.getId(), false));
+    }
+
+    /**
+     * Update a cached home from the database, removing it from the cache if it no longer exists
+     *
+     * @param homeId The ID of the home
+     */
+    public void refreshHome(@NotNull UUID homeId) {
+        plugin.getDatabase().getHome(homeId).ifPresentOrElse(home -> cacheHome(home, false),
+                () -> unCacheHome(homeId, false));
     }
 
     public void updatePublicHomeCache() {
-        plugin.getDatabase().getPublicHomes().forEach(home -> cacheHome(home, false));
+        final List<Home> publicHomes = plugin.getDatabase().getPublicHomes();
+        final List<Home> removed = cache.setPublicHomes(publicHomes);
+        plugin.getMapHook().ifPresent(hook -> {
+            removed.forEach(hook::removeHome);
+            publicHomes.forEach(hook::updateHome);
+        });
+        this.invalidateListCaches();
+    }
+
+    /**
+     * Reload the cached homes of online users from the database, and drop those of offline users so they are read
+     * again when next needed
+     */
+    public void reloadUserHomeCache() {
+        final Set<UUID> online = new HashSet<>();
+        plugin.getOnlineUsers().forEach(user -> online.add(user.getUuid()));
+        cache.removeUserHomesExcept(online);
+        plugin.getOnlineUsers().forEach(user -> cache.setUserHomes(user, plugin.getDatabase().getHomes(user)));
+        this.invalidateListCaches();
     }
 
     public void removeUserHomes(@NotNull User user) {
-        userHomes.remove(user.getUuid().toString());
+        cache.removeUserHomes(user.getUuid());
     }
 
 
     public void createHome(@NotNull User owner, @NotNull String name, @NotNull Position position,
                            boolean overwrite, boolean buyAdditionalSlots) throws ValidationException {
-        final Optional<Home> existingHome = plugin.getDatabase().getHome(owner, name);
+        final Optional<Home> existingHome = this.getHome(owner, name);
         if (existingHome.isPresent() && !overwrite) {
             throw new ValidationException(ValidationException.Type.NAME_TAKEN);
         }
@@ -163,7 +354,7 @@ public class HomesManager {
         }
 
         // Determine what the new home count would be & validate against user max homes
-        int homes = plugin.getDatabase().getHomes(owner).size() + (existingHome.isPresent() ? 0 : 1);
+        int homes = this.getHomes(owner).size() + (existingHome.isPresent() ? 0 : 1);
         if (homes > getMaxHomes(owner)) {
             throw new ValidationException(ValidationException.Type.REACHED_MAX_HOMES);
         }
@@ -187,13 +378,13 @@ public class HomesManager {
 
         final Home home = existingHome
                 .map(existing -> {
-                    existing.getMeta().setName(name);
-                    existing.update(position);
-                    return existing;
+                    final Home edited = existing.copy();
+                    edited.getMeta().setName(name);
+                    edited.update(position);
+                    return edited;
                 })
                 .orElse(Home.from(position, PositionMeta.create(name, ""), owner));
-        plugin.getDatabase().saveHome(home);
-        this.cacheHome(home, true);
+        this.saveHome(home);
     }
 
     public void createHome(@NotNull OnlineUser owner, @NotNull String name, @NotNull Position position) throws ValidationException {
@@ -201,7 +392,7 @@ public class HomesManager {
     }
 
     public void deleteHome(@NotNull User owner, @NotNull String name) throws ValidationException {
-        final Optional<Home> home = plugin.getDatabase().getHome(owner, name);
+        final Optional<Home> home = this.getHome(owner, name);
         if (home.isEmpty()) {
             throw new ValidationException(ValidationException.Type.NOT_FOUND);
         }
@@ -215,19 +406,17 @@ public class HomesManager {
     }
 
     public int deleteAllHomes(@NotNull User owner) {
+        final List<UUID> homeIds = this.getHomes(owner).stream().map(Home::getUuid).toList();
         final int deleted = plugin.getDatabase().deleteAllHomes(owner);
-        userHomes.computeIfPresent(owner.getUsername(), (k, v) -> {
-            v.clear();
-            return v;
-        });
-        publicHomes.removeIf(h -> h.getOwner().getUuid().equals(owner.getUuid()));
+        cache.removeAllHomes(owner.getUuid());
         plugin.getMapHook().ifPresent(hook -> hook.clearHomes(owner));
-        plugin.getManager().propagateCacheUpdate();
+        this.invalidateListCaches();
+        plugin.getManager().propagateCacheUpdate(homeIds, List.of());
         return deleted;
     }
 
     public void setHomePosition(@NotNull User owner, @NotNull String name, @NotNull Position position) throws ValidationException {
-        final Optional<Home> optionalHome = plugin.getDatabase().getHome(owner, name);
+        final Optional<Home> optionalHome = this.getHome(owner, name);
         if (optionalHome.isEmpty()) {
             throw new ValidationException(ValidationException.Type.NOT_FOUND);
         }
@@ -236,13 +425,13 @@ public class HomesManager {
     }
 
     public void setHomePosition(@NotNull Home home, @NotNull Position position) throws ValidationException {
-        home.update(position);
-        plugin.getDatabase().saveHome(home);
-        this.cacheHome(home, true);
+        final Home edited = home.copy();
+        edited.update(position);
+        this.saveHome(edited);
     }
 
     public void setHomeName(@NotNull User owner, @NotNull String name, @NotNull String newName) throws ValidationException {
-        final Optional<Home> optionalHome = plugin.getDatabase().getHome(owner, name);
+        final Optional<Home> optionalHome = this.getHome(owner, name);
         if (optionalHome.isEmpty()) {
             throw new ValidationException(ValidationException.Type.NOT_FOUND);
         }
@@ -255,13 +444,13 @@ public class HomesManager {
             throw new ValidationException(ValidationException.Type.NAME_INVALID);
         }
 
-        home.getMeta().setName(newName);
-        plugin.getDatabase().saveHome(home);
-        this.cacheHome(home, true);
+        final Home edited = home.copy();
+        edited.getMeta().setName(newName);
+        this.saveHome(edited);
     }
 
     public void setHomeDescription(@NotNull User owner, @NotNull String name, @NotNull String description) throws ValidationException {
-        final Optional<Home> optionalHome = plugin.getDatabase().getHome(owner, name);
+        final Optional<Home> optionalHome = this.getHome(owner, name);
         if (optionalHome.isEmpty()) {
             throw new ValidationException(ValidationException.Type.NOT_FOUND);
         }
@@ -274,13 +463,13 @@ public class HomesManager {
             throw new ValidationException(ValidationException.Type.DESCRIPTION_INVALID);
         }
 
-        home.getMeta().setDescription(description);
-        plugin.getDatabase().saveHome(home);
-        this.cacheHome(home, true);
+        final Home edited = home.copy();
+        edited.getMeta().setDescription(description);
+        this.saveHome(edited);
     }
 
     public void setHomePrivacy(@NotNull User owner, @NotNull String name, boolean isPublic) throws ValidationException {
-        final Optional<Home> optionalHome = plugin.getDatabase().getHome(owner, name);
+        final Optional<Home> optionalHome = this.getHome(owner, name);
         if (optionalHome.isEmpty()) {
             throw new ValidationException(ValidationException.Type.NOT_FOUND);
         }
@@ -290,7 +479,7 @@ public class HomesManager {
 
     public void setHomePrivacy(@NotNull Home home, boolean isPublic) {
         if (isPublic && home.getOwner() instanceof OnlineUser online) {
-            final int publicHomes = plugin.getDatabase().getHomes(home.getOwner()).stream()
+            final int publicHomes = this.getHomes(home.getOwner()).stream()
                     .filter(Home::isPublic)
                     .toList().size();
             if (publicHomes >= getMaxPublicHomes(online)) {
@@ -298,13 +487,13 @@ public class HomesManager {
             }
         }
 
-        home.setPublic(isPublic);
-        plugin.getDatabase().saveHome(home);
-        this.cacheHome(home, true);
+        final Home edited = home.copy();
+        edited.setPublic(isPublic);
+        this.saveHome(edited);
     }
 
     public void setHomeMetaTags(@NotNull User owner, @NotNull String name, @NotNull Map<String, String> tags) throws ValidationException {
-        final Optional<Home> optionalHome = plugin.getDatabase().getHome(owner, name);
+        final Optional<Home> optionalHome = this.getHome(owner, name);
         if (optionalHome.isEmpty()) {
             throw new ValidationException(ValidationException.Type.NOT_FOUND);
         }
@@ -313,9 +502,16 @@ public class HomesManager {
     }
 
     public void setHomeMetaTags(@NotNull Home home, @NotNull Map<String, String> tags) {
-        home.getMeta().setTags(tags);
-        plugin.getDatabase().saveHome(home);
-        this.cacheHome(home, true);
+        final Home edited = home.copy();
+        edited.getMeta().setTags(tags);
+        this.saveHome(edited);
+    }
+
+    // Save a new or edited home, caching it once saved. Cached homes are shared, so edits must be made to a copy
+    private void saveHome(@NotNull Home home) {
+        if (plugin.getDatabase().saveHome(home)) {
+            this.cacheHome(home, true);
+        }
     }
 
     public int getMaxHomes(@Nullable User user) {
@@ -20,21 +20,53 @@
 package net.william278.huskhomes.manager;
 
 import net.william278.huskhomes.HuskHomes;
+import net.william278.huskhomes.network.CacheUpdate;
 import net.william278.huskhomes.network.Message;
+import net.william278.huskhomes.network.Payload;
+import net.william278.huskhomes.network.SavedPositionUpdate;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+import java.util.logging.Level;
+
 public class Manager {
 
+    // How often to save edited user data to the database, in ticks
+    private static final long USER_DATA_FLUSH_TICKS = 100;
+
     private final HuskHomes plugin;
     private final HomesManager homes;
     private final WarpsManager warps;
     private final RequestsManager requests;
+    private final UUID userDataFlushTask;
+
+    // Sequence number of the last cache update sent, and of the last received from each server
+    private final AtomicLong cacheUpdateSequence = new AtomicLong();
+    private final Map<String, Long> receivedCacheUpdates = new ConcurrentHashMap<>();
+
+    // Sequence number of the last home or warp update sent, and of the last received from each server
+    private final AtomicLong positionUpdateSequence = new AtomicLong();
+    private final Map<String, Long> receivedPositionUpdates = new ConcurrentHashMap<>();
 
     public Manager(@NotNull HuskHomes plugin) {
         this.plugin = plugin;
         this.homes = new HomesManager(plugin);
         this.warps = new WarpsManager(plugin);
         this.requests = new RequestsManager(plugin);
+        this.userDataFlushTask = plugin.runAsyncRepeating(plugin::flushUserData, USER_DATA_FLUSH_TICKS);
+    }
+
+    /**
+     * Stop saving edited user data in the background, and save any unsaved edits now
+     */
+    public void shutdown() {
+        plugin.cancelTask(userDataFlushTask);
+        plugin.flushUserData();
     }
 
     @NotNull
@@ -52,14 +84,86 @@ public class Manager {
         return requests;
     }
 
-    // Update caches on all servers
-    protected void propagateCacheUpdate() {
+    // Update caches on all servers, sending the changes so they need not reload their caches
+    protected void propagateCacheUpdate(@NotNull List<UUID> removedHomes, @NotNull List<UUID> removedWarps) {
         if (plugin.getSettings().doCrossServer()) {
-            plugin.getOnlineUsers().stream().findAny().ifPresent(user -> Message.builder()
+            final CacheUpdate update = new CacheUpdate(cacheUpdateSequence.incrementAndGet(), removedHomes, removedWarps);
+            Message.builder()
                     .type(Message.Type.UPDATE_CACHES)
                     .scope(Message.Scope.SERVER)
                     .target(Message.TARGET_ALL)
-                    .build().send(plugin.getMessenger(), user));
+                    .payload(Payload.withCacheUpdate(update))
+                    .build().send(plugin.getMessenger());
         }
     }
+
+    /**
+     * Apply a cache update received from another server. If an earlier update from the server was missed, the
+     * caches are reloaded in full instead
+     *
+     * @param sourceServer The server the update was sent from
+     * @param update       The {@link CacheUpdate} to apply
+     */
+    public void applyCacheUpdate(@NotNull String sourceServer, @NotNull CacheUpdate update) {
+        final Long lastSequence = receivedCacheUpdates.put(sourceServer, update.getSequence());
+        if (lastSequence != null && update.getSequence() != lastSequence + 1) {
+            plugin.log(Level.INFO, "Missed cache updates from " + sourceServer + ", reloading home and warp caches");
+            reloadCaches();
+            return;
+        }
+
+        homes.unCacheHomes(update.getRemovedHomes());
+        warps.unCacheWarps(update.getRemovedWarps());
+    }
+
+    /**
+     * Send a home or warp update to all servers, numbered with the next sequence number. Updates are numbered and sent
+     * under a lock, so they are sent in the order of their sequence numbers
+     *
+     * @param type   The {@link Message.Type} of the update message
+     * @param update Function creating the update, given its sequence number
+     */
+    protected void propagatePositionUpdate(@NotNull Message.Type type, @NotNull LongFunction<SavedPositionUpdate> update) {
+        if (!plugin.getSettings().doCrossServer()) {
+            return;
+        }
+        synchronized (positionUpdateSequence) {
+            Message.builder()
+                    .type(type)
+                    .scope(Message.Scope.SERVER)
+                    .target(Message.TARGET_ALL)
+                    .payload(Payload.withSavedPosition(update.apply(positionUpdateSequence.incrementAndGet())))
+                    .build().send(plugin.getMessenger());
+        }
+    }
+
+    /**
+     * Record a home or warp update received from another server, checking it directly follows the last update
+     * received from the server. If an earlier update was missed, the caches are reloaded in full
+     *
+     * @param sourceServer The server the update was sent from
+     * @param update       The received {@link SavedPositionUpdate}
+     * @return {@code true} if the update can be applied, or {@code false} if it did not directly follow the last
+     * update from its server and the database should be queried instead
+     */
+    protected boolean isNextUpdate(@NotNull String sourceServer, @NotNull SavedPositionUpdate update) {
+        final Long lastSequence = receivedPositionUpdates.put(sourceServer, update.getSequence());
+        if (lastSequence == null || update.getSequence() == lastSequence + 1) {
+            return true;
+        }
+
+        plugin.log(Level.INFO, "Missed home and warp updates from " + sourceServer + ", reloading home and warp caches");
+        reloadCaches();
+        return false;
+    }
+
+    /**
+     * Reload the home and warp caches from the database, after updates to them may have been missed
+     */
+    public void reloadCaches() {
+        homes.updatePublicHomeCache();
+        homes.reloadUserHomeCache();
+        warps.updateWarpCache();
+    }
+
 }
@@ -23,40 +23,43 @@ import net.william278.huskhomes.HuskHomes;
 import net.william278.huskhomes.command.ListCommand;
 import net.william278.huskhomes.hook.MapHook;
 import net.william278.huskhomes.network.Message;
-import net.william278.huskhomes.network.Payload;
+import net.william278.huskhomes.network.SavedPositionUpdate;
 import net.william278.huskhomes.position.Position;
 import net.william278.huskhomes.position.PositionMeta;
 import net.william278.huskhomes.position.Warp;
 import net.william278.huskhomes.user.CommandUser;
+import net.william278.huskhomes.util.CompletionIndex;
 import net.william278.huskhomes.util.ValidationException;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class WarpsManager {
     private final HuskHomes plugin;
     private final ConcurrentLinkedQueue<Warp> warps;
 
+    // Names of cached warps by ID, as warps are mutable and may since have been renamed, and their completion index
+    private final Map<UUID, String> warpNames = new ConcurrentHashMap<>();
+    private final CompletionIndex warpNameIndex = new CompletionIndex();
+
     protected WarpsManager(@NotNull HuskHomes plugin) {
         this.plugin = plugin;
         this.warps = new ConcurrentLinkedQueue<>(plugin.getDatabase().getWarps());
+        this.warps.forEach(this::indexWarp);
     }
 
     public void cacheWarp(@NotNull Warp warp, boolean propagate) {
         warps.remove(warp);
         warps.add(warp);
+        this.indexWarp(warp);
         plugin.getMapHook().ifPresent(hook -> hook.updateWarp(warp));
 
-        plugin.getCommands().stream()
-                .filter(command -> command instanceof ListCommand)
-                .map(command -> (ListCommand) command)
-                .forEach(ListCommand::invalidateCaches);
+        this.invalidateListCaches();
         if (propagate) {
-            this.propagateCacheUpdate(warp.getUuid());
+            plugin.getManager().propagatePositionUpdate(Message.Type.UPDATE_WARP,
+                    sequence -> SavedPositionUpdate.of(warp, sequence));
         }
     }
 
@@ -68,29 +71,104 @@ public class WarpsManager {
             }
             return false;
         });
+        this.unIndexWarp(warpId);
+
+        this.invalidateListCaches();
+        if (propagate) {
+            plugin.getManager().propagatePositionUpdate(Message.Type.UPDATE_WARP,
+                    sequence -> SavedPositionUpdate.deleted(warpId, sequence));
+        }
+    }
+
+    /**
+     * Remove a batch of warps from the cache, invalidating list caches once
+     *
+     * @param warpIds IDs of the warps to remove
+     */
+    public void unCacheWarps(@NotNull Collection<UUID> warpIds) {
+        if (warpIds.isEmpty()) {
+            return;
+        }
+        final Set<UUID> removed = new HashSet<>(warpIds);
+        warps.removeIf(warp -> {
+            if (removed.contains(warp.getUuid())) {
+                plugin.getMapHook().ifPresent(hook -> hook.removeWarp(warp));
+                return true;
+            }
+            return false;
+        });
+        removed.forEach(this::unIndexWarp);
+        this.invalidateListCaches();
+    }
+
+    // Index a cached warp's name for completion, replacing its name from before any rename
+    private void indexWarp(@NotNull Warp warp) {
+        final String previous = warpNames.put(warp.getUuid(), warp.getName());
+        if (previous != null) {
+            warpNameIndex.remove(previous);
+        }
+        warpNameIndex.add(warp.getName());
+    }
+
+    private void unIndexWarp(@NotNull UUID warpId) {
+        final String previous = warpNames.remove(warpId);
+        if (previous != null) {
+            warpNameIndex.remove(previous);
+        }
+    }
 
+    private void invalidateListCaches() {
         plugin.getCommands().stream()
                 .filter(command -> command instanceof ListCommand)
                 .map(command -> (ListCommand) command)
                 .forEach(ListCommand::invalidateCaches);
-        if (propagate) {
-            this.propagateCacheUpdate(warpId);
-        }
     }
 
-    private void propagateCacheUpdate(@NotNull UUID warpId) {
-        if (plugin.getSettings().doCrossServer()) {
-            plugin.getOnlineUsers().stream().findAny().ifPresent(user -> Message.builder()
-                    .type(Message.Type.UPDATE_WARP)
-                    .scope(Message.Scope.SERVER)
-                    .target(Message.TARGET_ALL)
-                    .payload(Payload.withString(warpId.toString()))
-                    .build().send(plugin.getMessenger(), user));
+    /**
+     * Apply a warp update received from another server. If an earlier update from the server was missed or this one
+     * arrived out of order, the warp is re-read from the database instead
+     *
+     * @param sourceServer The server the update was sent from
+     * @param update       The received {@link SavedPositionUpdate}
+     */
+    public void applyUpdate(@NotNull String sourceServer, @NotNull SavedPositionUpdate update) {
+        if (!plugin.getManager().isNextUpdate(sourceServer, update)) {
+            this.refreshWarp(update.getId());
+            return;
         }
+
+        update.getWarp().ifPresentOrElse(warp -> cacheWarp(warp, false), () -> unCacheWarp(update.getId(), false));
+    }
+
+    /**
+     * Update a cached warp from the database, removing it from the cache if it no longer exists
+     *
+     * @param warpId The ID of the warp
+     */
+    public void refreshWarp(@NotNull UUID warpId) {
+        plugin.getDatabase().getWarp(warpId).ifPresentOrElse(warp -> cacheWarp(warp, false),
+                () -> unCacheWarp(warpId, false));
     }
 
     public void updateWarpCache() {
-        plugin.getDatabase().getWarps().forEach(warp -> cacheWarp(warp, false));
+        final List<Warp> updated = plugin.getDatabase().getWarps();
+        final Set<UUID> warpIds = new HashSet<>();
+        updated.forEach(warp -> warpIds.add(warp.getUuid()));
+        warps.removeIf(warp -> {
+            if (!warpIds.contains(warp.getUuid())) {
+                plugin.getMapHook().ifPresent(hook -> hook.removeWarp(warp));
+                this.unIndexWarp(warp.getUuid());
+                return true;
+            }
+            return false;
+        });
+        updated.forEach(warp -> {
+            warps.remove(warp);
+            warps.add(warp);
+            this.indexWarp(warp);
+            plugin.getMapHook().ifPresent(hook -> hook.updateWarp(warp));
+        });
+        this.invalidateListCaches();
     }
 
     /**
@@ -112,6 +190,25 @@ public class WarpsManager {
                 .toList();
     }
 
+    /**
+     * Get the names of warps a user can use starting with a prefix, for tab completion
+     *
+     * @param user   The user completing warp names
+     * @param prefix The prefix, ignoring case
+     * @param limit  The maximum number of names to return
+     * @return Matching warp names, in alphabetical order ignoring case
+     */
+    @NotNull
+    public List<String> completeUsableWarps(@NotNull CommandUser user, @NotNull String prefix, int limit) {
+        if (!plugin.getSettings().doPermissionRestrictWarps() || user.hasPermission(Warp.getWildcardPermission())) {
+            return warpNameIndex.complete(prefix, limit);
+        }
+        return warpNameIndex.complete(prefix, Integer.MAX_VALUE).stream()
+                .filter(name -> user.hasPermission(Warp.getPermission(name)))
+                .limit(limit)
+                .toList();
+    }
+
     public void createWarp(@NotNull String name, @NotNull Position position, boolean overwrite) throws ValidationException {
         final Optional<Warp> existingWarp = plugin.getDatabase().getWarp(name);
         if (existingWarp.isPresent() && !overwrite) {
@@ -152,10 +249,13 @@ public class WarpsManager {
     }
 
     public int deleteAllWarps() {
+        final List<UUID> warpIds = warps.stream().map(Warp::getUuid).toList();
         final int deleted = plugin.getDatabase().deleteAllWarps();
         warps.clear();
+        warpIds.forEach(this::unIndexWarp);
         plugin.getMapHook().ifPresent(MapHook::clearWarps);
-        plugin.getManager().propagateCacheUpdate();
+        this.invalidateListCaches();
+        plugin.getManager().propagateCacheUpdate(List.of(), warpIds);
         return deleted;
     }
 
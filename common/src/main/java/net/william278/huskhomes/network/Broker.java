@@ -20,20 +20,25 @@
 package net.william278.huskhomes.network;
 
 import net.william278.huskhomes.HuskHomes;
-import net.william278.huskhomes.position.Home;
-import net.william278.huskhomes.position.Warp;
 import net.william278.huskhomes.teleport.Teleport;
 import net.william278.huskhomes.teleport.TeleportationException;
 import net.william278.huskhomes.user.OnlineUser;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Optional;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class Broker {
 
+    // How often to send this server's full player list, in ticks
+    private static final long PLAYER_LIST_RESYNC_TICKS = 6000;
+
     protected final HuskHomes plugin;
 
+    // Sequence number of the last player list change sent by this server
+    private final AtomicLong playerListSequence = new AtomicLong();
+
     /**
      * Create a new broker
      *
@@ -88,38 +93,77 @@ public abstract class Broker {
                     .type(Message.Type.PLAYER_LIST)
                     .scope(Message.Scope.SERVER)
                     .target(message.getSourceServer())
-                    .payload(Payload.withStringList(plugin.getLocalPlayerList()))
+                    .payload(Payload.withPlayerList(getPlayerList()))
                     .build().send(this, receiver);
             case PLAYER_LIST -> message.getPayload()
-                    .getStringList()
-                    .ifPresent(players -> plugin.setPlayerList(message.getSourceServer(), players));
-            case UPDATE_HOME -> message.getPayload().getString()
-                    .map(UUID::fromString)
-                    .ifPresent(homeId -> {
-                        final Optional<Home> optionalHome = plugin.getDatabase().getHome(homeId);
-                        if (optionalHome.isPresent()) {
-                            plugin.getManager().homes().cacheHome(optionalHome.get(), false);
-                        } else {
-                            plugin.getManager().homes().unCacheHome(homeId, false);
-                        }
-                    });
-            case UPDATE_WARP -> message.getPayload().getString()
-                    .map(UUID::fromString)
-                    .ifPresent(warpId -> {
-                        final Optional<Warp> optionalWarp = plugin.getDatabase().getWarp(warpId);
-                        if (optionalWarp.isPresent()) {
-                            plugin.getManager().warps().cacheWarp(optionalWarp.get(), false);
-                        } else {
-                            plugin.getManager().warps().unCacheWarp(warpId, false);
-                        }
-                    });
-            case UPDATE_CACHES -> {
-                plugin.getManager().homes().updatePublicHomeCache();
-                plugin.getManager().warps().updateWarpCache();
-            }
+                    .getPlayerList()
+                    .ifPresent(update -> plugin.getGlobalPlayerList().setPlayers(
+                            message.getSourceServer(), update.getPlayers(), update.getSequence()));
+            case PLAYER_JOINED, PLAYER_LEFT -> message.getPayload().getPlayerList().ifPresent(update -> {
+                final boolean inSequence = message.getType() == Message.Type.PLAYER_JOINED
+                        ? plugin.getGlobalPlayerList().addPlayers(
+                        message.getSourceServer(), update.getPlayers(), update.getSequence())
+                        : plugin.getGlobalPlayerList().removePlayers(
+                        message.getSourceServer(), update.getPlayers(), update.getSequence());
+
+                // Request the full list of the server if an earlier change was missed
+                if (!inSequence) {
+                    Message.builder()
+                            .type(Message.Type.REQUEST_PLAYER_LIST)
+                            .scope(Message.Scope.SERVER)
+                            .target(message.getSourceServer())
+                            .build().send(this, receiver);
+                }
+            });
+            case UPDATE_HOME -> message.getPayload().getSavedPosition().ifPresentOrElse(
+                    update -> plugin.getManager().homes().applyUpdate(message.getSourceServer(), update),
+                    () -> message.getPayload().getString().map(UUID::fromString)
+                            .ifPresent(homeId -> plugin.getManager().homes().refreshHome(homeId)));
+            case UPDATE_WARP -> message.getPayload().getSavedPosition().ifPresentOrElse(
+                    update -> plugin.getManager().warps().applyUpdate(message.getSourceServer(), update),
+                    () -> message.getPayload().getString().map(UUID::fromString)
+                            .ifPresent(warpId -> plugin.getManager().warps().refreshWarp(warpId)));
+            case UPDATE_CACHES -> message.getPayload().getCacheUpdate().ifPresentOrElse(
+                    update -> plugin.getManager().applyCacheUpdate(message.getSourceServer(), update),
+                    () -> plugin.getManager().reloadCaches());
         }
     }
 
+    /**
+     * Get this server's full player list, numbered with the sequence number of the last change sent. Sending the full
+     * list does not advance the sequence, so it can be sent to a single server without leaving gaps for the others.
+     *
+     * @return the full player list update
+     */
+    @NotNull
+    public PlayerListUpdate getPlayerList() {
+        final long sequence = playerListSequence.get();
+        return new PlayerListUpdate(sequence, plugin.getLocalPlayerList());
+    }
+
+    /**
+     * Get a change to this server's player list, numbered with the next sequence number
+     *
+     * @param players the players who joined or left
+     * @return the player list change update
+     */
+    @NotNull
+    public PlayerListUpdate getPlayerListChange(@NotNull List<String> players) {
+        return new PlayerListUpdate(playerListSequence.incrementAndGet(), players);
+    }
+
+    /**
+     * Periodically send this server's full player list to all servers, correcting any lists that have drifted
+     */
+    protected void schedulePlayerListResync() {
+        plugin.runAsyncRepeating(() -> plugin.getOnlineUsers().stream().findAny().ifPresent(user -> Message.builder()
+                .type(Message.Type.PLAYER_LIST)
+                .scope(Message.Scope.SERVER)
+                .target(Message.TARGET_ALL)
+                .payload(Payload.withPlayerList(getPlayerList()))
+                .build().send(this, user)), PLAYER_LIST_RESYNC_TICKS);
+    }
+
     /**
      * Initialize the message broker
      *
@@ -135,6 +179,23 @@ public abstract class Broker {
      */
     protected abstract void send(@NotNull Message message, @NotNull OnlineUser sender);
 
+    /**
+     * Send a message on behalf of the server, through any online user
+     *
+     * @param message the message to send
+     */
+    protected void send(@NotNull Message message) {
+        plugin.getOnlineUsers().stream().findAny().ifPresent(user -> message.send(this, user));
+    }
+
+    /**
+     * Send any messages held while no user was online to carry them
+     *
+     * @param carrier the user to send held messages through
+     */
+    public void flushQueued(@NotNull OnlineUser carrier) {
+    }
+
     /**
      * Move an {@link OnlineUser} to a new server on the proxy network
      *
@@ -150,7 +211,8 @@ public abstract class Broker {
 
     @NotNull
     protected String getSubChannelId() {
-        final String version = plugin.getVersion().getMajor() + "." + plugin.getVersion().getMinor();
+        final String version = plugin.getVersion().getMajor() + "." + plugin.getVersion().getMinor()
+                               + "-" + MessageCodec.VERSION;
         return plugin.getKey(plugin.getSettings().getClusterId(), version).asString();
     }
 
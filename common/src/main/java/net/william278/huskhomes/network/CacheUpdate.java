@@ -0,0 +1,87 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.network;
+
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A delta of changes to the home and warp caches, sent in an {@link Message.Type#UPDATE_CACHES} message so that
+ * receiving servers can apply just the changes rather than reloading their caches.
+ * <p>
+ * Updates are numbered in sequence by the server sending them. A receiver that finds a gap in the sequence of a
+ * server's updates has missed one, and should reload its caches in full instead.
+ */
+public class CacheUpdate {
+
+    @Expose
+    private long sequence;
+    @Expose
+    @SerializedName("removed_homes")
+    private List<UUID> removedHomes;
+    @Expose
+    @SerializedName("removed_warps")
+    private List<UUID> removedWarps;
+
+    /**
+     * Create a cache update
+     *
+     * @param sequence     The sequence number of the update, from the sending server
+     * @param removedHomes IDs of homes that have been deleted
+     * @param removedWarps IDs of warps that have been deleted
+     */
+    public CacheUpdate(long sequence, @NotNull List<UUID> removedHomes, @NotNull List<UUID> removedWarps) {
+        this.sequence = sequence;
+        this.removedHomes = removedHomes;
+        this.removedWarps = removedWarps;
+    }
+
+    @SuppressWarnings("unused")
+    private CacheUpdate() {
+    }
+
+    /**
+     * The sequence number of this update, from the sending server
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * IDs of homes that have been deleted
+     */
+    @NotNull
+    public List<UUID> getRemovedHomes() {
+        return removedHomes == null ? List.of() : removedHomes;
+    }
+
+    /**
+     * IDs of warps that have been deleted
+     */
+    @NotNull
+    public List<UUID> getRemovedWarps() {
+        return removedWarps == null ? List.of() : removedWarps;
+    }
+
+}
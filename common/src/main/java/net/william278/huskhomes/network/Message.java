@@ -23,6 +23,7 @@ import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
 import net.william278.huskhomes.user.OnlineUser;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.UUID;
 
@@ -61,6 +62,18 @@ public class Message {
         this.id = UUID.randomUUID();
     }
 
+    // Create a message with all fields set, when decoding a received message
+    Message(@NotNull UUID id, @NotNull Type type, @NotNull Scope scope, @NotNull String target, @NotNull Payload payload,
+            @Nullable String sender, @Nullable String sourceServer) {
+        this.id = id;
+        this.type = type;
+        this.scope = scope;
+        this.target = target;
+        this.payload = payload;
+        this.sender = sender;
+        this.sourceServer = sourceServer;
+    }
+
     @SuppressWarnings("unused")
     private Message() {
     }
@@ -75,6 +88,17 @@ public class Message {
         broker.send(this, sender);
     }
 
+    /**
+     * Send this message on behalf of the server, rather than a particular user. If the broker needs a user to carry
+     * messages and none are online, the message is queued until one joins.
+     *
+     * @param broker the broker to send the message through
+     */
+    public void send(@NotNull Broker broker) {
+        this.sourceServer = broker.getServer();
+        broker.send(this);
+    }
+
     @NotNull
     public Type getType() {
         return type;
@@ -173,6 +197,8 @@ public class Message {
         UPDATE_HOME,
         UPDATE_WARP,
         UPDATE_CACHES,
+        PLAYER_JOINED,
+        PLAYER_LEFT,
     }
 
     public enum Scope {
@@ -0,0 +1,461 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.network;
+
+import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.position.World;
+import net.william278.huskhomes.teleport.TeleportRequest;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Compact binary encoding of {@link Message}s sent between servers, used in place of JSON.
+ * <p>
+ * Integers are written as variable-length integers, UUIDs as two longs and enums by ordinal. World and server names,
+ * which repeat across the positions in a message, are interned: the first occurrence of a name is written in full,
+ * and later occurrences as an index into the names written so far. Encoded messages begin with the {@link #VERSION}
+ * of the codec; the version is also part of the broker sub-channel, so only servers using the same encoding exchange
+ * messages.
+ */
+public final class MessageCodec {
+
+    /**
+     * The version of the encoding. Must be incremented whenever the encoding changes.
+     */
+    public static final int VERSION = 2;
+
+    // Payload field flags
+    private static final int POSITION = 1;
+    private static final int TELEPORT_REQUEST = 1 << 1;
+    private static final int STRING = 1 << 2;
+    private static final int STRING_LIST = 1 << 3;
+    private static final int CACHE_UPDATE = 1 << 4;
+    private static final int SAVED_POSITION = 1 << 5;
+    private static final int PLAYER_LIST = 1 << 6;
+
+    private MessageCodec() {
+    }
+
+    /**
+     * Encode a message
+     *
+     * @param message The {@link Message} to encode
+     * @return The encoded message
+     */
+    public static byte[] encode(@NotNull Message message) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (Writer writer = new Writer(new DataOutputStream(bytes))) {
+            writer.writeVarInt(VERSION);
+            writer.writeUuid(message.getUuid());
+            writer.writeVarInt(message.getType().ordinal());
+            writer.writeVarInt(message.getScope().ordinal());
+            writer.writeString(message.getTarget());
+            writer.writeNullableString(message.getSender());
+            writer.writeBoolean(message.getSourceServer() != null);
+            if (message.getSourceServer() != null) {
+                writer.writeInterned(message.getSourceServer());
+            }
+            writePayload(writer, message.getPayload());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode message", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode a message
+     *
+     * @param encoded The encoded message
+     * @return The decoded {@link Message}
+     * @throws IOException if the message is malformed, or was encoded with a different codec version
+     */
+    @NotNull
+    public static Message decode(byte[] encoded) throws IOException {
+        try (Reader reader = new Reader(new DataInputStream(new ByteArrayInputStream(encoded)))) {
+            final int version = reader.readVarInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported message codec version " + version + " (expected " + VERSION + ")");
+            }
+            final UUID id = reader.readUuid();
+            final Message.Type type = reader.readEnum(Message.Type.values());
+            final Message.Scope scope = reader.readEnum(Message.Scope.values());
+            final String target = reader.readString();
+            final String sender = reader.readNullableString();
+            final String sourceServer = reader.readBoolean() ? reader.readInterned() : null;
+            return new Message(id, type, scope, target, readPayload(reader), sender, sourceServer);
+        }
+    }
+
+    private static void writePayload(@NotNull Writer writer, @NotNull Payload payload) throws IOException {
+        final Optional<Position> position = payload.getPosition();
+        final Optional<TeleportRequest> request = payload.getTeleportRequest();
+        final Optional<String> string = payload.getString();
+        final Optional<List<String>> stringList = payload.getStringList();
+        final Optional<CacheUpdate> cacheUpdate = payload.getCacheUpdate();
+        final Optional<SavedPositionUpdate> savedPosition = payload.getSavedPosition();
+        final Optional<PlayerListUpdate> playerList = payload.getPlayerList();
+        writer.writeVarInt((position.isPresent() ? POSITION : 0)
+                           | (request.isPresent() ? TELEPORT_REQUEST : 0)
+                           | (string.isPresent() ? STRING : 0)
+                           | (stringList.isPresent() ? STRING_LIST : 0)
+                           | (cacheUpdate.isPresent() ? CACHE_UPDATE : 0)
+                           | (savedPosition.isPresent() ? SAVED_POSITION : 0)
+                           | (playerList.isPresent() ? PLAYER_LIST : 0));
+
+        if (position.isPresent()) {
+            writePosition(writer, position.get());
+        }
+        if (request.isPresent()) {
+            final TeleportRequest teleportRequest = request.get();
+            writer.writeString(teleportRequest.getRequesterName());
+            writePosition(writer, teleportRequest.getRequesterPosition());
+            writer.writeVarInt(teleportRequest.getType().ordinal());
+            writer.writeVarInt(teleportRequest.getStatus().ordinal());
+            writer.writeVarLong(teleportRequest.getExpiryTime());
+            writer.writeNullableString(teleportRequest.getRecipientName());
+        }
+        if (string.isPresent()) {
+            writer.writeString(string.get());
+        }
+        if (stringList.isPresent()) {
+            writeStrings(writer, stringList.get());
+        }
+        if (cacheUpdate.isPresent()) {
+            writer.writeVarLong(cacheUpdate.get().getSequence());
+            writer.writeUuids(cacheUpdate.get().getRemovedHomes());
+            writer.writeUuids(cacheUpdate.get().getRemovedWarps());
+        }
+        if (savedPosition.isPresent()) {
+            final SavedPositionUpdate update = savedPosition.get();
+            writer.writeUuid(update.getId());
+            writer.writeVarLong(update.getSequence());
+            writer.writeBoolean(update.getPosition() != null);
+            if (update.getPosition() != null) {
+                writePosition(writer, update.getPosition());
+            }
+            writer.writeNullableString(update.getName());
+            writer.writeNullableString(update.getDescription());
+            writer.writeNullableString(update.getTags());
+            writer.writeVarLong(update.getCreationTime());
+            writer.writeBoolean(update.getOwnerUuid() != null);
+            if (update.getOwnerUuid() != null) {
+                writer.writeUuid(update.getOwnerUuid());
+            }
+            writer.writeNullableString(update.getOwnerName());
+            writer.writeBoolean(update.isPublic());
+        }
+        if (playerList.isPresent()) {
+            writer.writeVarLong(playerList.get().getSequence());
+            writeStrings(writer, playerList.get().getPlayers());
+        }
+    }
+
+    @NotNull
+    private static Payload readPayload(@NotNull Reader reader) throws IOException {
+        final int fields = reader.readVarInt();
+        final Position position = (fields & POSITION) != 0 ? readPosition(reader) : null;
+        final TeleportRequest request = (fields & TELEPORT_REQUEST) != 0 ? TeleportRequest.from(
+                reader.readString(),
+                readPosition(reader),
+                reader.readEnum(TeleportRequest.Type.values()),
+                reader.readEnum(TeleportRequest.Status.values()),
+                reader.readVarLong(),
+                reader.readNullableString()
+        ) : null;
+        final String string = (fields & STRING) != 0 ? reader.readString() : null;
+        final List<String> stringList = (fields & STRING_LIST) != 0 ? readStrings(reader) : null;
+        final CacheUpdate cacheUpdate = (fields & CACHE_UPDATE) != 0 ? new CacheUpdate(
+                reader.readVarLong(),
+                reader.readUuids(),
+                reader.readUuids()
+        ) : null;
+        SavedPositionUpdate savedPosition = null;
+        if ((fields & SAVED_POSITION) != 0) {
+            final UUID id = reader.readUuid();
+            final long sequence = reader.readVarLong();
+            final Position updatedPosition = reader.readBoolean() ? readPosition(reader) : null;
+            savedPosition = new SavedPositionUpdate(
+                    id, sequence, updatedPosition,
+                    reader.readNullableString(),
+                    reader.readNullableString(),
+                    reader.readNullableString(),
+                    reader.readVarLong(),
+                    reader.readBoolean() ? reader.readUuid() : null,
+                    reader.readNullableString(),
+                    reader.readBoolean()
+            );
+        }
+        final PlayerListUpdate playerList = (fields & PLAYER_LIST) != 0 ? new PlayerListUpdate(
+                reader.readVarLong(),
+                readStrings(reader)
+        ) : null;
+        return new Payload(position, request, string, stringList, cacheUpdate, savedPosition, playerList);
+    }
+
+    private static void writeStrings(@NotNull Writer writer, @NotNull List<String> strings) throws IOException {
+        writer.writeVarInt(strings.size());
+        for (String element : strings) {
+            writer.writeString(element);
+        }
+    }
+
+    @NotNull
+    private static List<String> readStrings(@NotNull Reader reader) throws IOException {
+        final int size = reader.readLength();
+        final List<String> strings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            strings.add(reader.readString());
+        }
+        return strings;
+    }
+
+    private static void writePosition(@NotNull Writer writer, @NotNull Position position) throws IOException {
+        writer.writeDouble(position.getX());
+        writer.writeDouble(position.getY());
+        writer.writeDouble(position.getZ());
+        writer.writeFloat(position.getYaw());
+        writer.writeFloat(position.getPitch());
+        writer.writeInterned(position.getWorld().getName());
+        writer.writeUuid(position.getWorld().getUuid());
+        writer.writeVarInt(position.getWorld().getEnvironment().ordinal());
+        writer.writeInterned(position.getServer());
+    }
+
+    @NotNull
+    private static Position readPosition(@NotNull Reader reader) throws IOException {
+        final double x = reader.readDouble();
+        final double y = reader.readDouble();
+        final double z = reader.readDouble();
+        final float yaw = reader.readFloat();
+        final float pitch = reader.readFloat();
+        final World world = World.from(reader.readInterned(), reader.readUuid(),
+                reader.readEnum(World.Environment.values()));
+        return Position.at(x, y, z, yaw, pitch, world, reader.readInterned());
+    }
+
+    // Writes primitives, keeping a table of interned strings
+    private static final class Writer implements Closeable {
+
+        private final DataOutputStream output;
+        private final Map<String, Integer> interned = new HashMap<>();
+
+        private Writer(@NotNull DataOutputStream output) {
+            this.output = output;
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                output.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            output.writeByte(value);
+        }
+
+        private void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                output.writeByte((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            output.writeByte((int) value);
+        }
+
+        private void writeUuid(@NotNull UUID uuid) throws IOException {
+            output.writeLong(uuid.getMostSignificantBits());
+            output.writeLong(uuid.getLeastSignificantBits());
+        }
+
+        private void writeUuids(@NotNull List<UUID> uuids) throws IOException {
+            writeVarInt(uuids.size());
+            for (UUID uuid : uuids) {
+                writeUuid(uuid);
+            }
+        }
+
+        private void writeString(@NotNull String string) throws IOException {
+            final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            output.write(bytes);
+        }
+
+        // Null is written as length zero, so string lengths are offset by one
+        private void writeNullableString(@Nullable String string) throws IOException {
+            if (string == null) {
+                writeVarInt(0);
+                return;
+            }
+            final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length + 1);
+            output.write(bytes);
+        }
+
+        // A new string is written as zero followed by the string; a repeat as its index in the table plus one
+        private void writeInterned(@NotNull String string) throws IOException {
+            final Integer index = interned.get(string);
+            if (index != null) {
+                writeVarInt(index + 1);
+                return;
+            }
+            interned.put(string, interned.size());
+            writeVarInt(0);
+            writeString(string);
+        }
+
+        private void writeDouble(double value) throws IOException {
+            output.writeDouble(value);
+        }
+
+        private void writeFloat(float value) throws IOException {
+            output.writeFloat(value);
+        }
+
+        private void writeBoolean(boolean value) throws IOException {
+            output.writeBoolean(value);
+        }
+
+        @Override
+        public void close() throws IOException {
+            output.close();
+        }
+
+    }
+
+    // Reads primitives, keeping the table of interned strings read so far
+    private static final class Reader implements Closeable {
+
+        private final DataInputStream input;
+        private final List<String> interned = new ArrayList<>();
+
+        private Reader(@NotNull DataInputStream input) {
+            this.input = input;
+        }
+
+        private int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                final byte read = input.readByte();
+                value |= (read & 0x7F) << shift;
+                if ((read & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed variable-length integer");
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 70; shift += 7) {
+                final byte read = input.readByte();
+                value |= (long) (read & 0x7F) << shift;
+                if ((read & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed variable-length long");
+        }
+
+        // Read a length, checking it could fit in what remains of the message
+        private int readLength() throws IOException {
+            final int length = readVarInt();
+            if (length < 0 || length > input.available()) {
+                throw new IOException("Invalid length " + length);
+            }
+            return length;
+        }
+
+        @NotNull
+        private <E extends Enum<E>> E readEnum(@NotNull E[] values) throws IOException {
+            final int ordinal = readVarInt();
+            if (ordinal < 0 || ordinal >= values.length) {
+                throw new IOException("Invalid ordinal " + ordinal + " for " + values.getClass().getComponentType().getSimpleName());
+            }
+            return values[ordinal];
+        }
+
+        @NotNull
+        private UUID readUuid() throws IOException {
+            return new UUID(input.readLong(), input.readLong());
+        }
+
+        @NotNull
+        private List<UUID> readUuids() throws IOException {
+            final int size = readLength();
+            final List<UUID> uuids = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                uuids.add(readUuid());
+            }
+            return uuids;
+        }
+
+        @NotNull
+        private String readString() throws IOException {
+            return readBytes(readLength());
+        }
+
+        @Nullable
+        private String readNullableString() throws IOException {
+            final int length = readLength();
+            return length == 0 ? null : readBytes(length - 1);
+        }
+
+        @NotNull
+        private String readInterned() throws IOException {
+            final int index = readVarInt();
+            if (index == 0) {
+                final String string = readString();
+                interned.add(string);
+                return string;
+            }
+            if (index < 0 || index > interned.size()) {
+                throw new IOException("Invalid interned string index " + index);
+            }
+            return interned.get(index - 1);
+        }
+
+        @NotNull
+        private String readBytes(int length) throws IOException {
+            final byte[] bytes = new byte[length];
+            input.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private double readDouble() throws IOException {
+            return input.readDouble();
+        }
+
+        private float readFloat() throws IOException {
+            return input.readFloat();
+        }
+
+        private boolean readBoolean() throws IOException {
+            return input.readBoolean();
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+
+    }
+
+}
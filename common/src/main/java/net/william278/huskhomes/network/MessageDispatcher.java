@@ -0,0 +1,247 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.network;
+
+import net.william278.huskhomes.HuskHomes;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Handles received messages off the thread receiving them, so that a slow message (such as one querying the
+ * database) does not hold up the handling of others.
+ * <p>
+ * Messages are spread over a fixed number of single-threaded lanes by their target, so messages to the same target
+ * are always handled in the order they were received. Broadcasts are instead spread by the server that sent them, so
+ * that they keep the order they were sent in without all queueing behind one another. Each lane has a bounded queue;
+ * what happens when it is full is decided by the {@link OverflowPolicy}. Callers can be told when a message they dispatched is dropped, so that it can
+ * be delivered again later.
+ */
+public final class MessageDispatcher {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+    private static final long POLL_INTERVAL_MILLIS = 250;
+    private static final long DROP_LOG_INTERVAL = 1000;
+
+    private final HuskHomes plugin;
+    private final OverflowPolicy overflowPolicy;
+    private final Lane[] lanes;
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean shutdown = false;
+
+    MessageDispatcher(@NotNull HuskHomes plugin, int laneCount, int queueCapacity,
+                      @NotNull OverflowPolicy overflowPolicy) {
+        this.plugin = plugin;
+        this.overflowPolicy = overflowPolicy;
+        this.lanes = new Lane[Math.max(1, laneCount)];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane("HuskHomes-MessageDispatcher-" + i, Math.max(1, queueCapacity));
+        }
+    }
+
+    /**
+     * Queue a message to be handled after any messages already queued for the same target, or for broadcasts, from
+     * the same server
+     *
+     * @param message The {@link Message} being handled
+     * @param handler The task handling the message
+     */
+    void dispatch(@NotNull Message message, @NotNull Runnable handler) {
+        dispatch(message, handler, () -> {
+        });
+    }
+
+    /**
+     * Queue a message to be handled after any messages already queued for the same target, or for broadcasts, from
+     * the same server
+     *
+     * @param message   The {@link Message} being handled
+     * @param handler   The task handling the message
+     * @param onDropped Run instead of the handler if the message is dropped without being handled
+     */
+    void dispatch(@NotNull Message message, @NotNull Runnable handler, @NotNull Runnable onDropped) {
+        final Task task = new Task(handler, onDropped);
+        if (shutdown) {
+            task.onDropped().run();
+            return;
+        }
+
+        final BlockingQueue<Task> queue = getLane(message).queue;
+        dispatched.incrementAndGet();
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    // Wait in intervals, so that shutting down is not held up by a lane that has stopped
+                    while (!queue.offer(task, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        if (shutdown) {
+                            onDropped(task);
+                            return;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    onDropped(task);
+                }
+            }
+            case DROP_NEWEST -> {
+                if (!queue.offer(task)) {
+                    onDropped(task);
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(task)) {
+                    final Task oldest = queue.poll();
+                    if (oldest != null) {
+                        onDropped(oldest);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop handling messages, waiting briefly for those already queued to be handled
+     */
+    void shutdown() {
+        shutdown = true;
+        try {
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SHUTDOWN_TIMEOUT_SECONDS);
+            for (Lane lane : lanes) {
+                TimeUnit.NANOSECONDS.timedJoin(lane.thread, Math.max(1, deadline - System.nanoTime()));
+                lane.thread.interrupt();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Get the number of messages waiting to be handled
+     *
+     * @return The total queue depth across all lanes
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Lane lane : lanes) {
+            depth += lane.queue.size();
+        }
+        return depth;
+    }
+
+    /**
+     * Get the number of messages queued to be handled since the dispatcher was created
+     *
+     * @return The number of dispatched messages
+     */
+    public long getDispatchedCount() {
+        return dispatched.get();
+    }
+
+    /**
+     * Get the number of messages dropped because a queue was full
+     *
+     * @return The number of dropped messages
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // Get the lane of a message: by target, or for broadcasts, which all share a target, by the server that sent them
+    @NotNull
+    private Lane getLane(@NotNull Message message) {
+        final String key = message.getTarget().equals(Message.TARGET_ALL) && message.getSourceServer() != null
+                ? message.getSourceServer() : message.getTarget();
+        return lanes[Math.floorMod(key.hashCode(), lanes.length)];
+    }
+
+    private void onDropped(@NotNull Task task) {
+        task.onDropped().run();
+        final long count = dropped.incrementAndGet();
+        if (count % DROP_LOG_INTERVAL == 1) {
+            plugin.log(Level.WARNING, "Received message queue is full (policy: " + overflowPolicy
+                                      + "); " + count + " message(s) dropped in total");
+        }
+    }
+
+    /**
+     * What to do with a received message when the queue of its lane is full
+     */
+    public enum OverflowPolicy {
+        /**
+         * Wait for space in the queue, pausing receiving of further messages
+         */
+        BLOCK,
+        /**
+         * Drop the received message
+         */
+        DROP_NEWEST,
+        /**
+         * Drop the oldest queued message to make space for the received message
+         */
+        DROP_OLDEST
+    }
+
+    // A single-threaded lane handling its queued messages in order
+    private final class Lane {
+
+        private final BlockingQueue<Task> queue;
+        private final Thread thread;
+
+        private Lane(@NotNull String name, int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.thread = new Thread(this::run, name);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        private void run() {
+            while (true) {
+                final Task task;
+                try {
+                    task = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (task == null) {
+                    if (shutdown) {
+                        return;
+                    }
+                    continue;
+                }
+                try {
+                    task.handler().run();
+                } catch (Throwable e) {
+                    plugin.log(Level.SEVERE, "Failed to handle message", e);
+                }
+            }
+        }
+
+    }
+
+    // A queued message handler, and what to run if it is dropped instead
+    private record Task(@NotNull Runnable handler, @NotNull Runnable onDropped) {
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.network;
+
+import net.william278.huskhomes.HuskHomes;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * Holds messages that could not be sent because no user was online to carry them, to be sent in order once one is.
+ * <p>
+ * Messages superseded by a later message are replaced by it: for example, only the latest player list sent to a target
+ * is kept. Home and warp updates are never replaced, as they are numbered in sequence and receivers treat a missing
+ * number as a missed update. The queue is bounded; once full, the oldest message is dropped.
+ */
+public final class OutboundQueue {
+
+    private static final int MAX_SIZE = 1000;
+
+    private final HuskHomes plugin;
+    private final LinkedHashMap<Object, QueuedMessage> queued = new LinkedHashMap<>();
+    private long dropped = 0;
+
+    OutboundQueue(@NotNull HuskHomes plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Queue a message, replacing any queued message it supersedes
+     *
+     * @param message The {@link Message} to queue
+     */
+    synchronized void offer(@NotNull Message message) {
+        final Object key = getKey(message);
+        queued.remove(key);
+        queued.put(key, new QueuedMessage(message, System.currentTimeMillis()));
+
+        if (queued.size() > MAX_SIZE) {
+            final Iterator<QueuedMessage> oldest = queued.values().iterator();
+            final Message droppedMessage = oldest.next().message();
+            oldest.remove();
+            if (dropped++ % MAX_SIZE == 0) {
+                plugin.log(Level.WARNING, "Outbound message queue is full; dropped " + droppedMessage.getType()
+                                          + " message to " + droppedMessage.getTarget() + " (" + dropped + " dropped in total)");
+            }
+        }
+    }
+
+    /**
+     * Remove and return all queued messages, in the order they should be sent
+     *
+     * @return The queued messages
+     */
+    @NotNull
+    synchronized List<Message> drain() {
+        final List<Message> messages = new ArrayList<>(queued.size());
+        queued.values().forEach(queuedMessage -> messages.add(queuedMessage.message()));
+        queued.clear();
+        return messages;
+    }
+
+    /**
+     * Get the number of messages waiting to be sent
+     *
+     * @return The queue depth
+     */
+    public synchronized int getDepth() {
+        return queued.size();
+    }
+
+    /**
+     * Get how long the oldest queued message has been waiting to be sent
+     *
+     * @return The age of the oldest message in milliseconds, or {@code 0} if the queue is empty
+     */
+    public synchronized long getOldestAge() {
+        final Iterator<QueuedMessage> oldest = queued.values().iterator();
+        return oldest.hasNext() ? System.currentTimeMillis() - oldest.next().queuedAt() : 0;
+    }
+
+    /**
+     * Get the number of messages dropped because the queue was full
+     *
+     * @return The number of dropped messages
+     */
+    public synchronized long getDroppedCount() {
+        return dropped;
+    }
+
+    // Messages with equal keys supersede one another
+    @NotNull
+    private static Object getKey(@NotNull Message message) {
+        return switch (message.getType()) {
+            case PLAYER_LIST, REQUEST_PLAYER_LIST -> new Key(message.getType(), message.getTarget());
+            default -> message.getUuid();
+        };
+    }
+
+    private record Key(@NotNull Message.Type type, @NotNull String target) {
+    }
+
+    private record QueuedMessage(@NotNull Message message, long queuedAt) {
+    }
+
+}
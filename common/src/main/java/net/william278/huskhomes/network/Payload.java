@@ -52,6 +52,21 @@ public class Payload {
     @SerializedName("string_list")
     private List<String> stringList;
 
+    @Nullable
+    @Expose
+    @SerializedName("cache_update")
+    private CacheUpdate cacheUpdate;
+
+    @Nullable
+    @Expose
+    @SerializedName("saved_position")
+    private SavedPositionUpdate savedPosition;
+
+    @Nullable
+    @Expose
+    @SerializedName("player_list")
+    private PlayerListUpdate playerList;
+
     /**
      * Returns an empty cross-server message payload
      *
@@ -108,9 +123,61 @@ public class Payload {
         return payload;
     }
 
+    /**
+     * Returns a payload containing a {@link CacheUpdate}
+     *
+     * @param cacheUpdate the cache update to send
+     * @return a payload containing the cache update
+     */
+    @NotNull
+    public static Payload withCacheUpdate(@NotNull CacheUpdate cacheUpdate) {
+        final Payload payload = new Payload();
+        payload.cacheUpdate = cacheUpdate;
+        return payload;
+    }
+
+    /**
+     * Returns a payload containing a {@link SavedPositionUpdate}
+     *
+     * @param savedPosition the saved position update to send
+     * @return a payload containing the saved position update
+     */
+    @NotNull
+    public static Payload withSavedPosition(@NotNull SavedPositionUpdate savedPosition) {
+        final Payload payload = new Payload();
+        payload.savedPosition = savedPosition;
+        return payload;
+    }
+
+    /**
+     * Returns a payload containing a {@link PlayerListUpdate}
+     *
+     * @param playerList the player list update to send
+     * @return a payload containing the player list update
+     */
+    @NotNull
+    public static Payload withPlayerList(@NotNull PlayerListUpdate playerList) {
+        final Payload payload = new Payload();
+        payload.playerList = playerList;
+        return payload;
+    }
+
     private Payload() {
     }
 
+    // Create a payload with any combination of fields set, when decoding a received message
+    Payload(@Nullable Position position, @Nullable TeleportRequest teleportRequest, @Nullable String string,
+            @Nullable List<String> stringList, @Nullable CacheUpdate cacheUpdate,
+            @Nullable SavedPositionUpdate savedPosition, @Nullable PlayerListUpdate playerList) {
+        this.position = position;
+        this.teleportRequest = teleportRequest;
+        this.string = string;
+        this.stringList = stringList;
+        this.cacheUpdate = cacheUpdate;
+        this.savedPosition = savedPosition;
+        this.playerList = playerList;
+    }
+
     /**
      * A position field
      */
@@ -140,4 +207,25 @@ public class Payload {
         return Optional.ofNullable(stringList);
     }
 
+    /**
+     * A cache update field
+     */
+    public Optional<CacheUpdate> getCacheUpdate() {
+        return Optional.ofNullable(cacheUpdate);
+    }
+
+    /**
+     * A saved position update field
+     */
+    public Optional<SavedPositionUpdate> getSavedPosition() {
+        return Optional.ofNullable(savedPosition);
+    }
+
+    /**
+     * A player list update field
+     */
+    public Optional<PlayerListUpdate> getPlayerList() {
+        return Optional.ofNullable(playerList);
+    }
+
 }
@@ -0,0 +1,72 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.network;
+
+import com.google.gson.annotations.Expose;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A change to the list of players online on a server, sent in {@link Message.Type#PLAYER_LIST} messages (the full
+ * list) and {@link Message.Type#PLAYER_JOINED} and {@link Message.Type#PLAYER_LEFT} messages (the players who joined
+ * or left).
+ * <p>
+ * Updates are numbered in sequence by the server sending them. A receiver that finds a gap in the sequence of a
+ * server's updates has missed one, and should request the server's full list.
+ */
+public class PlayerListUpdate {
+
+    @Expose
+    private long sequence;
+    @Expose
+    private List<String> players;
+
+    /**
+     * Create a player list update
+     *
+     * @param sequence The sequence number of the update, from the sending server
+     * @param players  The players the update is about
+     */
+    public PlayerListUpdate(long sequence, @NotNull List<String> players) {
+        this.sequence = sequence;
+        this.players = players;
+    }
+
+    @SuppressWarnings("unused")
+    private PlayerListUpdate() {
+    }
+
+    /**
+     * The sequence number of this update, from the sending server
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * The players this update is about
+     */
+    @NotNull
+    public List<String> getPlayers() {
+        return players == null ? List.of() : players;
+    }
+
+}
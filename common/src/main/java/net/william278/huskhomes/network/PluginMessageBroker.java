@@ -26,7 +26,8 @@ import net.william278.huskhomes.HuskHomes;
 import net.william278.huskhomes.user.OnlineUser;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.*;
+import java.io.IOException;
+import java.util.Optional;
 import java.util.logging.Level;
 
 /**
@@ -46,13 +47,17 @@ public class PluginMessageBroker extends Broker {
      */
     public static final String BUNGEE_CHANNEL_ID = "BungeeCord";
 
+    private final OutboundQueue outboundQueue;
+
     public PluginMessageBroker(@NotNull HuskHomes plugin) {
         super(plugin);
+        this.outboundQueue = new OutboundQueue(plugin);
     }
 
     @Override
     public void initialize() throws IllegalStateException {
         plugin.initializePluginChannels();
+        schedulePlayerListResync();
     }
 
     @SuppressWarnings("UnstableApiUsage")
@@ -71,8 +76,8 @@ public class PluginMessageBroker extends Broker {
         byte[] messageBody = new byte[messageLength];
         inputStream.readFully(messageBody);
 
-        try (final DataInputStream messageReader = new DataInputStream(new ByteArrayInputStream(messageBody))) {
-            super.handle(user, plugin.getGson().fromJson(messageReader.readUTF(), Message.class));
+        try {
+            super.handle(user, MessageCodec.decode(messageBody));
         } catch (IOException e) {
             plugin.log(Level.SEVERE, "Failed to fully read plugin message", e);
         }
@@ -86,21 +91,45 @@ public class PluginMessageBroker extends Broker {
         messageWriter.writeUTF(message.getTarget());
         messageWriter.writeUTF(getSubChannelId());
 
-        // Write the plugin message
-        try (final ByteArrayOutputStream messageByteStream = new ByteArrayOutputStream()) {
-            try (DataOutputStream messageDataStream = new DataOutputStream(messageByteStream)) {
-                messageDataStream.writeUTF(plugin.getGson().toJson(message));
-                messageWriter.writeShort(messageByteStream.toByteArray().length);
-                messageWriter.write(messageByteStream.toByteArray());
-            }
-        } catch (IOException e) {
-            plugin.log(Level.SEVERE, "Exception dispatching plugin message", e);
+        // Write the plugin message; the proxy reads its length as a short
+        final byte[] messageBody = MessageCodec.encode(message);
+        if (messageBody.length > Short.MAX_VALUE) {
+            plugin.log(Level.SEVERE, "Exception dispatching plugin message: " + message.getType()
+                                     + " message is too large to send (" + messageBody.length + " bytes)");
             return;
         }
+        messageWriter.writeShort(messageBody.length);
+        messageWriter.write(messageBody);
 
         sender.sendPluginMessage(BUNGEE_CHANNEL_ID, messageWriter.toByteArray());
     }
 
+    @Override
+    protected void send(@NotNull Message message) {
+        final Optional<OnlineUser> carrier = plugin.getOnlineUsers().stream().findAny();
+        if (carrier.isEmpty()) {
+            outboundQueue.offer(message);
+            return;
+        }
+        flushQueued(carrier.get());
+        message.send(this, carrier.get());
+    }
+
+    @Override
+    public void flushQueued(@NotNull OnlineUser carrier) {
+        outboundQueue.drain().forEach(message -> message.send(this, carrier));
+    }
+
+    /**
+     * Get the queue of messages held while no user was online to carry them, to read its metrics
+     *
+     * @return The {@link OutboundQueue}
+     */
+    @NotNull
+    public OutboundQueue getOutboundQueue() {
+        return outboundQueue;
+    }
+
     @Override
     @SuppressWarnings("UnstableApiUsage")
     public void changeServer(@NotNull OnlineUser user, @NotNull String server) {
@@ -22,18 +22,50 @@ package net.william278.huskhomes.network;
 import net.william278.huskhomes.HuskHomes;
 import net.william278.huskhomes.user.OnlineUser;
 import org.jetbrains.annotations.NotNull;
+import redis.clients.jedis.BinaryJedisPubSub;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
-import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.params.XAddParams;
+import redis.clients.jedis.params.XReadGroupParams;
+import redis.clients.jedis.resps.StreamEntry;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 import java.util.logging.Level;
 
 /**
- * Redis PubSub broker implementation
+ * Redis broker implementation, sending messages over PubSub, or over a Redis Stream if enabled.
+ * <p>
+ * When using streams, each server reads the stream through its own consumer group and acknowledges messages once
+ * handled, so a server that restarts or briefly loses its connection catches up on the messages it missed. Messages
+ * dropped by the dispatcher are left unacknowledged and read again.
  */
 public class RedisBroker extends PluginMessageBroker {
+    private static final long MIN_RECONNECT_DELAY_MILLIS = 1000;
+    private static final long MAX_RECONNECT_DELAY_MILLIS = 30000;
+    private static final int STREAM_READ_COUNT = 100;
+    private static final int STREAM_BLOCK_MILLIS = 2000;
+    private static final String STREAM_MESSAGE_FIELD = "message";
+
     private JedisPool jedisPool;
+    private MessageDispatcher dispatcher;
+    private RedisPublisher publisher;
+    private volatile boolean closed = false;
+
+    // Stream entries dispatched but not yet acknowledged, so they are not dispatched again on reconnecting
+    private final Set<StreamEntryID> inFlight = ConcurrentHashMap.newKeySet();
+    private final StreamCursor streamCursor = new StreamCursor();
 
     public RedisBroker(@NotNull HuskHomes plugin) {
         super(plugin);
@@ -51,65 +83,239 @@ public class RedisBroker extends PluginMessageBroker {
         this.jedisPool = password.isEmpty() ? new JedisPool(new JedisPoolConfig(), host, port, 0, useSSL)
                 : new JedisPool(new JedisPoolConfig(), host, port, 0, password, useSSL);
 
-        new Thread(getSubscriber(), plugin.getKey("redis_subscriber").toString()).start();
+        this.publisher = new RedisPublisher(plugin, jedisPool, getWriter());
+        this.dispatcher = new MessageDispatcher(plugin, plugin.getSettings().getRedisDispatchThreads(),
+                plugin.getSettings().getRedisDispatchQueueSize(), plugin.getSettings().getRedisDispatchOverflowPolicy());
+        final Thread subscriber = new Thread(plugin.getSettings().doRedisStreams() ? getStreamReader() : getSubscriber(),
+                plugin.getKey("redis_subscriber").toString());
+        subscriber.setDaemon(true);
+        subscriber.start();
 
         plugin.log(Level.INFO, "Initialized Redis connection pool");
     }
 
     @NotNull
     private Runnable getSubscriber() {
-        return () -> {
+        final byte[] channelId = getSubChannelId().getBytes(StandardCharsets.UTF_8);
+        return () -> runReconnecting(reconnected -> {
             try (Jedis jedis = jedisPool.getResource()) {
-                jedis.subscribe(new JedisPubSub() {
+                jedis.subscribe(new BinaryJedisPubSub() {
+                    @Override
+                    public void onSubscribe(byte[] channel, int subscribedChannels) {
+                        // Messages sent while disconnected were lost, so reload caches that may have missed updates
+                        if (reconnected) {
+                            plugin.log(Level.INFO, "Reconnected to Redis; reloading caches");
+                            plugin.runAsync(() -> plugin.getManager().reloadCaches());
+                        }
+                    }
+
                     @Override
-                    public void onMessage(@NotNull String channel, @NotNull String encodedMessage) {
-                        if (!channel.equals(getSubChannelId())) {
+                    public void onMessage(byte[] channel, byte[] encodedMessage) {
+                        if (!Arrays.equals(channel, channelId)) {
                             return;
                         }
 
                         final Message message;
                         try {
-                            message = plugin.getGson().fromJson(encodedMessage, Message.class);
+                            message = MessageCodec.decode(encodedMessage);
                         } catch (Exception e) {
                             plugin.log(Level.WARNING, "Failed to decode message from Redis: " + e.getMessage());
                             return;
                         }
 
-                        if (message.getScope() == Message.Scope.PLAYER) {
-                            plugin.getOnlineUsers().stream()
-                                    .filter(online -> message.getTarget().equals(Message.TARGET_ALL)
-                                                      || online.getUsername().equals(message.getTarget()))
-                                    .forEach(receiver -> handle(receiver, message));
-                            return;
-                        }
-
-                        if (message.getTarget().equals(plugin.getServerName())
-                            || message.getTarget().equals(Message.TARGET_ALL)) {
-                            plugin.getOnlineUsers().stream()
-                                    .findAny()
-                                    .ifPresent(receiver -> handle(receiver, message));
-                        }
+                        // Handle the message on the dispatcher, keeping this thread free to receive the next
+                        dispatcher.dispatch(message, () -> route(message));
                     }
-                }, getSubChannelId());
+                }, channelId);
             }
-        };
+        });
     }
 
-    @Override
-    protected void send(@NotNull Message message, @NotNull OnlineUser sender) {
-        plugin.runAsync(() -> {
+    @NotNull
+    private Runnable getStreamReader() {
+        final String stream = getSubChannelId();
+        final String group = getServer();
+        return () -> runReconnecting(reconnected -> {
             try (Jedis jedis = jedisPool.getResource()) {
-                jedis.publish(getSubChannelId(), plugin.getGson().toJson(message));
+                try {
+                    jedis.xgroupCreate(stream, group, StreamEntryID.LAST_ENTRY, true);
+                } catch (JedisDataException e) {
+                    if (e.getMessage() == null || !e.getMessage().startsWith("BUSYGROUP")) {
+                        throw e;
+                    }
+                }
+
+                // Read entries delivered before reconnecting that were never acknowledged, then new entries
+                streamCursor.reset();
+                while (!closed) {
+                    final String pending = streamCursor.next();
+                    final List<Map.Entry<String, List<StreamEntry>>> read = jedis.xreadGroup(group, group,
+                            XReadGroupParams.xReadGroupParams().count(STREAM_READ_COUNT).block(STREAM_BLOCK_MILLIS),
+                            Map.of(stream, pending == null ? StreamEntryID.UNRECEIVED_ENTRY : new StreamEntryID(pending)));
+                    final List<StreamEntry> entries = read == null || read.isEmpty()
+                            ? List.of() : read.get(0).getValue();
+                    streamCursor.onRead(entries.isEmpty() ? null : entries.get(entries.size() - 1).getID().toString());
+                    for (StreamEntry entry : entries) {
+                        dispatchStreamEntry(stream, group, entry);
+                    }
+                }
             }
         });
     }
 
+    private void dispatchStreamEntry(@NotNull String stream, @NotNull String group, @NotNull StreamEntry entry) {
+        if (!inFlight.add(entry.getID())) {
+            return;
+        }
+
+        final Message message;
+        try {
+            message = MessageCodec.decode(Base64.getDecoder().decode(entry.getFields().get(STREAM_MESSAGE_FIELD)));
+        } catch (Exception e) {
+            plugin.log(Level.WARNING, "Failed to decode message from Redis: " + e.getMessage());
+            acknowledge(stream, group, entry.getID());
+            return;
+        }
+
+        dispatcher.dispatch(message, () -> {
+            try {
+                route(message);
+            } finally {
+                acknowledge(stream, group, entry.getID());
+            }
+        }, () -> {
+            // Leave the entry unacknowledged and release it, so it is read again
+            inFlight.remove(entry.getID());
+            streamCursor.requestRedelivery();
+        });
+    }
+
+    private void acknowledge(@NotNull String stream, @NotNull String group, @NotNull StreamEntryID id) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.xack(stream, group, id);
+        } catch (JedisException e) {
+            plugin.log(Level.WARNING, "Failed to acknowledge Redis stream message " + id + ": " + e.getMessage());
+        } finally {
+            inFlight.remove(id);
+        }
+    }
+
+    // Run a connection until the broker is closed, reconnecting with an increasing delay whenever it drops
+    private void runReconnecting(@NotNull RedisConnection connection) {
+        long delay = MIN_RECONNECT_DELAY_MILLIS;
+        boolean reconnected = false;
+        while (!closed) {
+            final long started = System.currentTimeMillis();
+            try {
+                connection.run(reconnected);
+            } catch (JedisException e) {
+                if (closed) {
+                    return;
+                }
+                plugin.log(Level.WARNING, "Lost connection to Redis, reconnecting in " + delay + "ms: "
+                                          + e.getMessage());
+            }
+            if (closed) {
+                return;
+            }
+
+            // Reset the delay if the connection had been up for a while
+            if (System.currentTimeMillis() - started > MAX_RECONNECT_DELAY_MILLIS) {
+                delay = MIN_RECONNECT_DELAY_MILLIS;
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                return;
+            }
+            delay = Math.min(delay * 2, MAX_RECONNECT_DELAY_MILLIS);
+            reconnected = true;
+        }
+    }
+
+    // Handle a received message with the users it is addressed to
+    private void route(@NotNull Message message) {
+        if (message.getScope() == Message.Scope.PLAYER) {
+            plugin.getOnlineUsers().stream()
+                    .filter(online -> message.getTarget().equals(Message.TARGET_ALL)
+                                      || online.getUsername().equals(message.getTarget()))
+                    .forEach(receiver -> handle(receiver, message));
+            return;
+        }
+
+        if (message.getTarget().equals(plugin.getServerName())
+            || message.getTarget().equals(Message.TARGET_ALL)) {
+            plugin.getOnlineUsers().stream()
+                    .findAny()
+                    .ifPresent(receiver -> handle(receiver, message));
+        }
+    }
+
+    // Get the writer adding an encoded message to a publishing pipeline
+    @NotNull
+    private BiConsumer<Pipeline, byte[]> getWriter() {
+        if (plugin.getSettings().doRedisStreams()) {
+            final String stream = getSubChannelId();
+            final XAddParams params = XAddParams.xAddParams()
+                    .maxLen(plugin.getSettings().getRedisStreamMaxLength())
+                    .approximateTrimming();
+            return (pipeline, message) -> pipeline.xadd(stream, params,
+                    Map.of(STREAM_MESSAGE_FIELD, Base64.getEncoder().encodeToString(message)));
+        }
+        final byte[] channelId = getSubChannelId().getBytes(StandardCharsets.UTF_8);
+        return (pipeline, message) -> pipeline.publish(channelId, message);
+    }
+
+    @Override
+    protected void send(@NotNull Message message, @NotNull OnlineUser sender) {
+        publisher.publish(MessageCodec.encode(message));
+    }
+
+    // Redis does not need a user to carry messages, so they are never held
+    @Override
+    protected void send(@NotNull Message message) {
+        publisher.publish(MessageCodec.encode(message));
+    }
+
+    /**
+     * Get the dispatcher handling messages received from Redis, to read its queue metrics
+     *
+     * @return The {@link MessageDispatcher}
+     */
+    @NotNull
+    public MessageDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * Get the publisher batching messages sent to Redis, to read its batch metrics
+     *
+     * @return The {@link RedisPublisher}
+     */
+    @NotNull
+    public RedisPublisher getPublisher() {
+        return publisher;
+    }
+
     @Override
     public void close() {
+        closed = true;
         super.close();
+        if (publisher != null) {
+            publisher.close();
+        }
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
         if (jedisPool != null) {
             jedisPool.close();
         }
     }
 
-}
\ No newline at end of file
+    // A connection to Redis, run until it drops
+    @FunctionalInterface
+    private interface RedisConnection {
+        void run(boolean reconnected) throws JedisException;
+    }
+
+}
@@ -0,0 +1,267 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.network;
+
+import net.william278.huskhomes.HuskHomes;
+import org.jetbrains.annotations.NotNull;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.exceptions.JedisException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+
+/**
+ * Publishes messages to Redis from a dedicated thread, coalescing bursts of messages into batches sent in a single
+ * pipelined round trip.
+ * <p>
+ * A batch is flushed once {@link #BATCH_WINDOW_MILLIS} has passed since its first message was queued, or as soon as
+ * it reaches {@link #MAX_BATCH_SIZE} messages. A batch that fails to publish is retried with an increasing delay until
+ * it succeeds or the publisher is closed; messages may therefore be published more than once. At most
+ * {@link #MAX_QUEUED_MESSAGES} messages are held while waiting; further messages are dropped until there is space.
+ */
+public final class RedisPublisher {
+
+    private static final long BATCH_WINDOW_MILLIS = 2;
+    private static final int MAX_BATCH_SIZE = 128;
+    private static final long POLL_INTERVAL_MILLIS = 250;
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+    private static final long MIN_RETRY_DELAY_MILLIS = 100;
+    private static final long MAX_RETRY_DELAY_MILLIS = 5000;
+    private static final int MAX_QUEUED_MESSAGES = 8192;
+    private static final long DROP_LOG_INTERVAL = 1000;
+
+    private final HuskHomes plugin;
+    private final JedisPool jedisPool;
+    private final BiConsumer<Pipeline, byte[]> writer;
+    private final BlockingQueue<byte[]> queue = new LinkedBlockingQueue<>(MAX_QUEUED_MESSAGES);
+    private final Thread thread;
+    private volatile boolean closed = false;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong flushNanos = new AtomicLong();
+    private volatile int lastBatchSize = 0;
+    private volatile long lastFlushNanos = 0;
+
+    /**
+     * Create and start a publisher
+     *
+     * @param plugin    The HuskHomes plugin instance
+     * @param jedisPool The pool to borrow connections from
+     * @param writer    Writes an encoded message to the pipeline of a batch
+     */
+    RedisPublisher(@NotNull HuskHomes plugin, @NotNull JedisPool jedisPool, @NotNull BiConsumer<Pipeline, byte[]> writer) {
+        this.plugin = plugin;
+        this.jedisPool = jedisPool;
+        this.writer = writer;
+        this.thread = new Thread(this::run, "HuskHomes-RedisPublisher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queue an encoded message to be published with the next batch, dropping it if the queue is full
+     *
+     * @param message The encoded message
+     */
+    void publish(byte[] message) {
+        if (!queue.offer(message)) {
+            final long count = dropped.incrementAndGet();
+            if (count % DROP_LOG_INTERVAL == 1) {
+                plugin.log(Level.WARNING, "Redis publish queue is full; " + count + " message(s) dropped in total");
+            }
+        }
+    }
+
+    /**
+     * Stop the publisher, waiting briefly for queued messages to be published
+     */
+    void close() {
+        closed = true;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(CLOSE_TIMEOUT_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            plugin.log(Level.WARNING, "Timed out publishing " + queue.size() + " queued message(s) to Redis");
+        }
+    }
+
+    private void run() {
+        final List<byte[]> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                final byte[] first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Collect further messages until the window closes or the batch is full
+                final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(BATCH_WINDOW_MILLIS);
+                while (batch.size() < MAX_BATCH_SIZE) {
+                    if (queue.drainTo(batch, MAX_BATCH_SIZE - batch.size()) > 0) {
+                        continue;
+                    }
+                    final long remaining = deadline - System.nanoTime();
+                    final byte[] next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                queue.drainTo(batch);
+                closed = true;
+            }
+
+            if (!batch.isEmpty()) {
+                publishRetrying(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    // Publish a batch, retrying with an increasing delay while it fails, until the publisher is closed
+    private void publishRetrying(@NotNull List<byte[]> batch) {
+        long delay = MIN_RETRY_DELAY_MILLIS;
+        while (!flush(batch)) {
+            if (closed) {
+                plugin.log(Level.WARNING, "Dropped " + batch.size() + " message(s) that failed to publish to Redis");
+                return;
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                closed = true;
+            }
+            delay = Math.min(delay * 2, MAX_RETRY_DELAY_MILLIS);
+        }
+    }
+
+    // Publish a batch in a single pipelined round trip, returning if it was published
+    private boolean flush(@NotNull List<byte[]> batch) {
+        final long started = System.nanoTime();
+        try (Jedis jedis = jedisPool.getResource()) {
+            final Pipeline pipeline = jedis.pipelined();
+            for (byte[] message : batch) {
+                writer.accept(pipeline, message);
+            }
+            pipeline.sync();
+        } catch (JedisException e) {
+            plugin.log(Level.WARNING, "Failed to publish " + batch.size() + " message(s) to Redis, retrying: "
+                                      + e.getMessage());
+            return false;
+        }
+
+        final long elapsed = System.nanoTime() - started;
+        batches.incrementAndGet();
+        published.addAndGet(batch.size());
+        flushNanos.addAndGet(elapsed);
+        lastBatchSize = batch.size();
+        lastFlushNanos = elapsed;
+        return true;
+    }
+
+    /**
+     * Get the number of batches published
+     *
+     * @return The number of batches published
+     */
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    /**
+     * Get the number of messages published
+     *
+     * @return The number of messages published
+     */
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    /**
+     * Get the number of messages dropped because the queue was full
+     *
+     * @return The number of dropped messages
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Get the number of messages waiting to be published
+     *
+     * @return The number of queued messages
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Get the size of the last batch published
+     *
+     * @return The number of messages in the last batch
+     */
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    /**
+     * Get the time taken to publish the last batch
+     *
+     * @return The round trip time of the last batch, in nanoseconds
+     */
+    public long getLastFlushNanos() {
+        return lastFlushNanos;
+    }
+
+    /**
+     * Get the mean number of messages per batch
+     *
+     * @return The mean batch size, or {@code 0} if no batches have been published
+     */
+    public double getMeanBatchSize() {
+        final long count = batches.get();
+        return count == 0 ? 0 : (double) published.get() / count;
+    }
+
+    /**
+     * Get the mean time taken to publish a batch
+     *
+     * @return The mean round trip time of a batch in nanoseconds, or {@code 0} if no batches have been published
+     */
+    public double getMeanFlushNanos() {
+        final long count = batches.get();
+        return count == 0 ? 0 : (double) flushNanos.get() / count;
+    }
+
+}
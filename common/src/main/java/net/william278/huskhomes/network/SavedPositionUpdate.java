@@ -0,0 +1,237 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.network;
+
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
+import net.william278.huskhomes.position.*;
+import net.william278.huskhomes.user.User;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The new state of a {@link Home} or {@link Warp}, sent in {@link Message.Type#UPDATE_HOME} and
+ * {@link Message.Type#UPDATE_WARP} messages so that receiving servers can update their caches without querying the
+ * database. A deleted home or warp is sent as a tombstone, with no position.
+ * <p>
+ * Updates are numbered with a sequence number, counting the home and warp updates sent by their source server.
+ * Receivers track the last sequence number received from each server, and should query the database instead of
+ * applying an update that does not directly follow it, as an earlier update was missed or arrived out of order.
+ */
+public class SavedPositionUpdate {
+
+    @Expose
+    private UUID id;
+    @Expose
+    private long sequence;
+    @Nullable
+    @Expose
+    private Position position;
+    @Nullable
+    @Expose
+    private String name;
+    @Nullable
+    @Expose
+    private String description;
+    @Nullable
+    @Expose
+    private String tags;
+    @Expose
+    @SerializedName("creation_time")
+    private long creationTime;
+    @Nullable
+    @Expose
+    @SerializedName("owner_uuid")
+    private UUID ownerUuid;
+    @Nullable
+    @Expose
+    @SerializedName("owner_name")
+    private String ownerName;
+    @Expose
+    @SerializedName("is_public")
+    private boolean isPublic;
+
+    private SavedPositionUpdate(@NotNull UUID id, long sequence) {
+        this.id = id;
+        this.sequence = sequence;
+    }
+
+    // Create an update with all fields set, when decoding a received message
+    SavedPositionUpdate(@NotNull UUID id, long sequence, @Nullable Position position, @Nullable String name,
+                        @Nullable String description, @Nullable String tags, long creationTime,
+                        @Nullable UUID ownerUuid, @Nullable String ownerName, boolean isPublic) {
+        this.id = id;
+        this.sequence = sequence;
+        this.position = position;
+        this.name = name;
+        this.description = description;
+        this.tags = tags;
+        this.creationTime = creationTime;
+        this.ownerUuid = ownerUuid;
+        this.ownerName = ownerName;
+        this.isPublic = isPublic;
+    }
+
+    @SuppressWarnings("unused")
+    private SavedPositionUpdate() {
+    }
+
+    /**
+     * Create an update carrying the state of a home
+     *
+     * @param home     The updated {@link Home}
+     * @param sequence The sequence number of the update
+     * @return The update
+     */
+    @NotNull
+    public static SavedPositionUpdate of(@NotNull Home home, long sequence) {
+        final SavedPositionUpdate update = of((SavedPosition) home, sequence);
+        update.ownerUuid = home.getOwner().getUuid();
+        update.ownerName = home.getOwner().getUsername();
+        update.isPublic = home.isPublic();
+        return update;
+    }
+
+    /**
+     * Create an update carrying the state of a warp or other saved position
+     *
+     * @param position The updated {@link SavedPosition}
+     * @param sequence The sequence number of the update
+     * @return The update
+     */
+    @NotNull
+    public static SavedPositionUpdate of(@NotNull SavedPosition position, long sequence) {
+        final SavedPositionUpdate update = new SavedPositionUpdate(position.getUuid(), sequence);
+        update.position = Position.at(position.getX(), position.getY(), position.getZ(),
+                position.getYaw(), position.getPitch(), position.getWorld(), position.getServer());
+        update.name = position.getName();
+        update.description = position.getMeta().getDescription();
+        update.tags = position.getMeta().getSerializedTags();
+        update.creationTime = position.getMeta().getCreationTime().toEpochMilli();
+        return update;
+    }
+
+    /**
+     * Create a tombstone update, indicating a home or warp has been deleted
+     *
+     * @param id       The ID of the deleted home or warp
+     * @param sequence The sequence number of the update
+     * @return The update
+     */
+    @NotNull
+    public static SavedPositionUpdate deleted(@NotNull UUID id, long sequence) {
+        return new SavedPositionUpdate(id, sequence);
+    }
+
+    /**
+     * The ID of the updated home or warp
+     */
+    @NotNull
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * The sequence number of this update, among the home and warp updates sent by its source server
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Whether this update is a tombstone, indicating the home or warp was deleted
+     */
+    public boolean isDeleted() {
+        return position == null;
+    }
+
+    /**
+     * Get the updated home, if this update carries one
+     */
+    public Optional<Home> getHome() {
+        if (position == null || ownerUuid == null || ownerName == null) {
+            return Optional.empty();
+        }
+        return Optional.of(Home.from(position.getX(), position.getY(), position.getZ(), position.getYaw(),
+                position.getPitch(), position.getWorld(), position.getServer(), getMeta(), id,
+                User.of(ownerUuid, ownerName), isPublic));
+    }
+
+    /**
+     * Get the updated warp, if this update carries one
+     */
+    public Optional<Warp> getWarp() {
+        if (position == null) {
+            return Optional.empty();
+        }
+        return Optional.of(Warp.from(position.getX(), position.getY(), position.getZ(), position.getYaw(),
+                position.getPitch(), position.getWorld(), position.getServer(), getMeta(), id));
+    }
+
+    // Raw fields, for the binary message codec
+    @Nullable
+    Position getPosition() {
+        return position;
+    }
+
+    @Nullable
+    String getName() {
+        return name;
+    }
+
+    @Nullable
+    String getDescription() {
+        return description;
+    }
+
+    @Nullable
+    String getTags() {
+        return tags;
+    }
+
+    long getCreationTime() {
+        return creationTime;
+    }
+
+    @Nullable
+    UUID getOwnerUuid() {
+        return ownerUuid;
+    }
+
+    @Nullable
+    String getOwnerName() {
+        return ownerName;
+    }
+
+    boolean isPublic() {
+        return isPublic;
+    }
+
+    @NotNull
+    private PositionMeta getMeta() {
+        return PositionMeta.from(name == null ? "" : name, description == null ? "" : description,
+                Instant.ofEpochMilli(creationTime), tags);
+    }
+
+}
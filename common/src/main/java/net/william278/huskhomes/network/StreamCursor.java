@@ -0,0 +1,84 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.network;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tracks where a consumer reads a Redis Stream from.
+ * <p>
+ * On connecting, the consumer first pages through the entries it was delivered but never acknowledged, then reads
+ * new entries. If a delivered entry is released without being handled (for example, because it was dropped from a
+ * full queue), {@link #requestRedelivery()} makes the consumer go back over its unacknowledged entries, so the
+ * released entry is read again.
+ */
+final class StreamCursor {
+
+    /**
+     * The ID to read unacknowledged entries after to read all of them
+     */
+    static final String FIRST_ENTRY = "0-0";
+
+    private final AtomicBoolean redeliveryRequested = new AtomicBoolean(false);
+    @Nullable
+    private String pendingCursor = FIRST_ENTRY;
+
+    /**
+     * Start reading from the first unacknowledged entry, as on (re)connecting
+     */
+    void reset() {
+        redeliveryRequested.set(false);
+        pendingCursor = FIRST_ENTRY;
+    }
+
+    /**
+     * Get the ID to read the next unacknowledged entries after, or {@code null} to read new entries
+     *
+     * @return The ID of the last unacknowledged entry read, or {@code null} if there are none left to read
+     */
+    @Nullable
+    String next() {
+        if (pendingCursor == null && redeliveryRequested.getAndSet(false)) {
+            pendingCursor = FIRST_ENTRY;
+        }
+        return pendingCursor;
+    }
+
+    /**
+     * Advance the cursor past a read
+     *
+     * @param lastId The ID of the last entry read, or {@code null} if the read returned no entries
+     */
+    void onRead(@Nullable String lastId) {
+        if (pendingCursor != null) {
+            pendingCursor = lastId;
+        }
+    }
+
+    /**
+     * Request that the unacknowledged entries be read again once those currently being read have been
+     */
+    void requestRedelivery() {
+        redeliveryRequested.set(true);
+    }
+
+}
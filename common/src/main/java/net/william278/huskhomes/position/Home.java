@@ -57,6 +57,17 @@ public class Home extends SavedPosition {
         return new Home(position, meta, owner);
     }
 
+    /**
+     * Get a copy of this home, which can be edited without affecting this one
+     *
+     * @return The copied {@link Home}, with the same ID
+     */
+    @NotNull
+    public Home copy() {
+        return new Home(getX(), getY(), getZ(), getYaw(), getPitch(), getWorld(), getServer(),
+                getMeta().copy(), getUuid(), owner, isPublic);
+    }
+
     /**
      * The {@link User} who owns this home
      */
@@ -57,6 +57,18 @@ public class PositionMeta {
         return PositionMeta.from(name, description, Instant.now(), "");
     }
 
+    /**
+     * Get a copy of this metadata, which can be edited without affecting this one
+     *
+     * @return The copied {@link PositionMeta}
+     */
+    @NotNull
+    public PositionMeta copy() {
+        final PositionMeta copy = new PositionMeta(getName(), getDescription(), getCreationTime(), null);
+        copy.setTags(new HashMap<>(getTags()));
+        return copy;
+    }
+
     /**
      * Deserialize a JSON string into a {@link Map} of meta tags
      *
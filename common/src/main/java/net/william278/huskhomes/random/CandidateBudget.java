@@ -0,0 +1,85 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.random;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A non-blocking limit on the number of candidate locations being checked at once, each of which may load a chunk.
+ * Waiting acquirers are granted permits in order as they are released, without blocking any thread.
+ */
+final class CandidateBudget {
+
+    private final Queue<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+    private int available;
+
+    CandidateBudget(int permits) {
+        this.available = Math.max(1, permits);
+    }
+
+    /**
+     * Acquire a permit
+     *
+     * @return A future completing once a permit has been granted
+     */
+    @NotNull
+    synchronized CompletableFuture<Void> acquire() {
+        if (available > 0) {
+            available--;
+            return CompletableFuture.completedFuture(null);
+        }
+        final CompletableFuture<Void> permit = new CompletableFuture<>();
+        waiting.add(permit);
+        return permit;
+    }
+
+    /**
+     * Acquire a permit only if one is available and nothing is waiting for one
+     *
+     * @return {@code true} if a permit was acquired
+     */
+    synchronized boolean tryAcquire() {
+        if (available > 0) {
+            available--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Release a permit, granting it to the longest waiting acquirer if there is one
+     */
+    void release() {
+        final CompletableFuture<Void> next;
+        synchronized (this) {
+            next = waiting.poll();
+            if (next == null) {
+                available++;
+                return;
+            }
+        }
+        next.complete(null);
+    }
+
+}
@@ -23,21 +23,32 @@ import net.william278.huskhomes.HuskHomes;
 import net.william278.huskhomes.position.Location;
 import net.william278.huskhomes.position.Position;
 import net.william278.huskhomes.position.World;
+import net.william278.huskhomes.util.SafeColumns;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Optional;
 import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A random teleport engine that uses a Gaussian normal distribution to generate random positions.
  */
 public final class NormalDistributionEngine extends RandomTeleportEngine {
 
+    // The number of other safe columns of each searched chunk to offer to the location pool
+    private static final int POOLED_COLUMNS_PER_CHUNK = 3;
+
     private final int radius;
     private final int spawnRadius;
     private final float mean;
     private final float standardDeviation;
+    private final int parallelCandidates;
+
+    // Budget of candidate locations being checked at once across all searches, each of which may load a chunk
+    private final CandidateBudget candidateBudget;
 
     public NormalDistributionEngine(@NotNull HuskHomes plugin) {
         super(plugin, "Normal Distribution");
@@ -45,6 +56,13 @@ public final class NormalDistributionEngine extends RandomTeleportEngine {
         this.spawnRadius = plugin.getSettings().getRtpSpawnRadius();
         this.mean = plugin.getSettings().getRtpDistributionMean();
         this.standardDeviation = plugin.getSettings().getRtpDistributionStandardDeviation();
+        this.parallelCandidates = Math.max(1, plugin.getSettings().getRtpParallelCandidates());
+        this.candidateBudget = new CandidateBudget(plugin.getSettings().getRtpMaxCandidatesInFlight());
+        if (plugin.getSettings().doRtpLocationPool()) {
+            setLocationPool(new SafeLocationPool(plugin, this::tryGenerateSafeLocation,
+                    plugin.getSettings().getRtpLocationPoolDepth(),
+                    TimeUnit.SECONDS.toNanos(plugin.getSettings().getRtpLocationPoolMaxAge())));
+        }
     }
 
     /**
@@ -80,9 +98,114 @@ public final class NormalDistributionEngine extends RandomTeleportEngine {
      * @return A generated location
      */
     private CompletableFuture<Optional<Location>> generateSafeLocation(@NotNull World world) {
-        return plugin.findSafeGroundLocation(generateLocation(
-                getCenterPoint(world), mean, standardDeviation, spawnRadius, radius
-        ));
+        final Location target = generateLocation(getCenterPoint(world), mean, standardDeviation, spawnRadius, radius);
+        return plugin.findSafeColumns(target).thenApply(columns -> columns.flatMap(safe -> {
+            final int nearest = safe.getNearestIndex(target.getX(), target.getZ());
+            if (nearest == -1) {
+                return Optional.empty();
+            }
+            getLocationPool().ifPresent(pool -> poolSpareColumns(pool, safe, nearest));
+            return Optional.of(safe.getLocation(nearest));
+        }));
+    }
+
+    // Offer a few columns spread across a searched chunk to the location pool, so one chunk load yields several
+    private void poolSpareColumns(@NotNull SafeLocationPool pool, @NotNull SafeColumns columns, int used) {
+        final int spares = Math.min(POOLED_COLUMNS_PER_CHUNK, columns.size() - 1);
+        for (int i = 1; i <= spares; i++) {
+            final int index = i * columns.size() / (spares + 1);
+            if (index != used) {
+                pool.offer(columns.getLocation(index));
+            }
+        }
+    }
+
+    /**
+     * Generate a safe ground-level {@link Location} if the candidate budget allows, for background work that should
+     * yield to random teleports in progress
+     *
+     * @param world The world to generate the location in
+     * @return A generated location, or empty if the budget is used up
+     */
+    private CompletableFuture<Optional<Location>> tryGenerateSafeLocation(@NotNull World world) {
+        if (!candidateBudget.tryAcquire()) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return generateWithPermit(world);
+    }
+
+    // Generate a safe location with a candidate permit held, releasing the permit however generation completes
+    private CompletableFuture<Optional<Location>> generateWithPermit(@NotNull World world) {
+        final CompletableFuture<Optional<Location>> generated;
+        try {
+            generated = generateSafeLocation(world);
+        } catch (Throwable e) {
+            candidateBudget.release();
+            return CompletableFuture.failedFuture(e);
+        }
+        return generated.whenComplete((location, throwable) -> candidateBudget.release());
+    }
+
+    /**
+     * Check candidate locations one after another within the global budget until one is safe, up to the maximum
+     * number of attempts
+     *
+     * @param world   The world to find a location in
+     * @param attempt The number of candidates already checked
+     * @return A future completing with a safe location, if one was found
+     */
+    private CompletableFuture<Optional<Location>> findSafeLocation(@NotNull World world, long attempt) {
+        return candidateBudget.acquire()
+                .thenCompose(permit -> generateWithPermit(world))
+                .thenCompose(location -> location.isPresent() || attempt >= maxAttempts
+                        ? CompletableFuture.completedFuture(location)
+                        : findSafeLocation(world, attempt + 1));
+    }
+
+    /**
+     * Check up to the maximum number of attempts of candidate locations for a safe location, checking up to the
+     * configured number of candidates at once within the global budget. Completes on the first safe candidate found;
+     * the results of candidates still being checked are then ignored
+     *
+     * @param world The world to find a location in
+     * @return A future completing with a safe location, if one was found
+     */
+    private CompletableFuture<Optional<Location>> findSafeLocationInParallel(@NotNull World world) {
+        final CompletableFuture<Optional<Location>> found = new CompletableFuture<>();
+        final AtomicLong remaining = new AtomicLong(maxAttempts + 1);
+        final AtomicInteger pending = new AtomicInteger();
+        for (int i = 0; i < parallelCandidates; i++) {
+            checkNextCandidate(world, found, remaining, pending);
+        }
+        return found;
+    }
+
+    // Check another candidate if the search is still running, or finish the search once every candidate is checked
+    private void checkNextCandidate(@NotNull World world, @NotNull CompletableFuture<Optional<Location>> found,
+                                    @NotNull AtomicLong remaining, @NotNull AtomicInteger pending) {
+        if (found.isDone() || remaining.getAndDecrement() <= 0) {
+            if (pending.get() == 0) {
+                found.complete(Optional.empty());
+            }
+            return;
+        }
+
+        pending.incrementAndGet();
+        candidateBudget.acquire()
+                .thenCompose(permit -> {
+                    if (found.isDone()) {
+                        candidateBudget.release();
+                        return CompletableFuture.completedFuture(Optional.<Location>empty());
+                    }
+                    return generateWithPermit(world);
+                })
+                .whenComplete((location, throwable) -> {
+                    if (location != null && location.isPresent()) {
+                        found.complete(location);
+                    }
+                    pending.decrementAndGet();
+                    checkNextCandidate(world, found, remaining, pending);
+                });
     }
 
     /**
@@ -111,17 +234,16 @@ public final class NormalDistributionEngine extends RandomTeleportEngine {
 
     @Override
     public CompletableFuture<Optional<Position>> getRandomPosition(@NotNull World world, @NotNull String[] args) {
-        return plugin.supplyAsync(() -> {
-            Optional<Location> location = generateSafeLocation(world).join();
-            int attempts = 0;
-            while (location.isEmpty()) {
-                location = generateSafeLocation(world).join();
-                if (attempts >= maxAttempts) {
-                    return Optional.empty();
-                }
-                attempts++;
-            }
-            return location.map(resolved -> Position.at(resolved, plugin.getServerName()));
-        });
+        final Optional<Location> pooled = getLocationPool().flatMap(pool -> pool.poll(world));
+        if (pooled.isPresent()) {
+            return CompletableFuture.completedFuture(pooled.map(location -> Position.at(location, plugin.getServerName())));
+        }
+
+        // Start the search asynchronously; it then continues as each candidate's check completes, without blocking
+        return plugin.supplyAsync(() -> parallelCandidates > 1
+                        ? findSafeLocationInParallel(world)
+                        : findSafeLocation(world, 0))
+                .thenCompose(search -> search)
+                .thenApply(location -> location.map(resolved -> Position.at(resolved, plugin.getServerName())));
     }
 }
@@ -25,6 +25,7 @@ import net.william278.huskhomes.position.World;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -32,9 +33,14 @@ import java.util.concurrent.CompletableFuture;
  */
 public abstract class RandomTeleportEngine {
 
+    // How often to refill the safe location pool, in ticks
+    private static final long POOL_REFILL_TICKS = 20;
+
     protected final HuskHomes plugin;
     public final String name;
     public long maxAttempts = 12;
+    private SafeLocationPool locationPool;
+    private UUID refillTaskId;
 
     /**
      * Constructor for a random teleport engine
@@ -52,6 +58,32 @@ public abstract class RandomTeleportEngine {
         return name;
     }
 
+    /**
+     * Set a pool of safe locations for this engine to serve random positions from, refilling it in the background
+     * while this is the plugin's random teleport engine
+     *
+     * @param locationPool The {@link SafeLocationPool} to use
+     */
+    protected final void setLocationPool(@NotNull SafeLocationPool locationPool) {
+        this.locationPool = locationPool;
+        this.refillTaskId = plugin.runAsyncRepeating(() -> {
+            if (plugin.getRandomTeleportEngine() != this) {
+                plugin.cancelTask(refillTaskId);
+                return;
+            }
+            locationPool.refill();
+        }, POOL_REFILL_TICKS);
+    }
+
+    /**
+     * Get the pool of safe locations this engine serves random positions from, if it uses one
+     *
+     * @return The {@link SafeLocationPool}, if set
+     */
+    public Optional<SafeLocationPool> getLocationPool() {
+        return Optional.ofNullable(locationPool);
+    }
+
     /**
      * Get the origin (center) position for the world
      *
@@ -0,0 +1,168 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.random;
+
+import net.william278.huskhomes.HuskHomes;
+import net.william278.huskhomes.position.Location;
+import net.william278.huskhomes.position.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A per-world pool of pre-validated safe locations for random teleports.
+ * <p>
+ * A world's pool is created the first time a location is taken from it. Each {@link #refill()} generates at most one
+ * location per pool that is below its depth, so the pools fill gradually in the background rather than causing chunk
+ * load spikes. Locations are removed once taken, or once older than the maximum age, as the world may have changed.
+ */
+public final class SafeLocationPool {
+
+    private final HuskHomes plugin;
+    private final Function<World, CompletableFuture<Optional<Location>>> generator;
+    private final int depth;
+    private final long maxAge;
+    private final Map<UUID, WorldPool> pools = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Create a safe location pool
+     *
+     * @param plugin    The HuskHomes plugin instance
+     * @param generator Function generating a safe location in a world, if one could be found
+     * @param depth     The number of locations to keep pooled per world
+     * @param maxAge    The maximum time in nanoseconds a location may be pooled for
+     */
+    public SafeLocationPool(@NotNull HuskHomes plugin, @NotNull Function<World, CompletableFuture<Optional<Location>>> generator,
+                            int depth, long maxAge) {
+        this.plugin = plugin;
+        this.generator = generator;
+        this.depth = Math.max(1, depth);
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Take a pooled safe location in a world, starting to pool locations in the world if it is not already
+     *
+     * @param world The world to take a location in
+     * @return A safe location, if one was pooled
+     */
+    public Optional<Location> poll(@NotNull World world) {
+        final WorldPool pool = pools.computeIfAbsent(world.getUuid(), uuid -> new WorldPool(world));
+        final long now = System.nanoTime();
+        PooledLocation pooled;
+        while ((pooled = pool.locations.pollFirst()) != null) {
+            if (now - pooled.created() < maxAge) {
+                hits.incrementAndGet();
+                return Optional.of(pooled.location());
+            }
+        }
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    /**
+     * Offer a safe location to a world's pool, adding it if the world is pooled and its pool is below its depth
+     *
+     * @param location The safe location
+     */
+    public void offer(@NotNull Location location) {
+        final WorldPool pool = pools.get(location.getWorld().getUuid());
+        if (pool != null && pool.locations.size() < depth) {
+            pool.locations.addLast(new PooledLocation(location, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Remove expired locations, and start generating a location for each pool below its depth that is not already
+     * generating one. Nothing is generated while the server is empty
+     */
+    public void refill() {
+        if (plugin.getOnlineUsers().isEmpty()) {
+            return;
+        }
+        final long now = System.nanoTime();
+        for (WorldPool pool : pools.values()) {
+            pool.locations.removeIf(pooled -> now - pooled.created() >= maxAge);
+            if (pool.locations.size() >= depth || !pool.generating.compareAndSet(false, true)) {
+                continue;
+            }
+            generator.apply(pool.world).whenComplete((location, throwable) -> {
+                if (location != null) {
+                    location.ifPresent(safe -> pool.locations.addLast(new PooledLocation(safe, System.nanoTime())));
+                }
+                pool.generating.set(false);
+            });
+        }
+    }
+
+    /**
+     * Get the number of locations pooled in a world
+     *
+     * @param world The world
+     * @return The number of pooled locations, including any that have expired but not yet been removed
+     */
+    public int getSize(@NotNull World world) {
+        final WorldPool pool = pools.get(world.getUuid());
+        return pool == null ? 0 : pool.locations.size();
+    }
+
+    /**
+     * Number of locations taken from the pool
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Number of times the pool was empty when a location was requested
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    // The pooled locations of a world
+    private static final class WorldPool {
+
+        private final World world;
+        private final Deque<PooledLocation> locations = new ConcurrentLinkedDeque<>();
+        private final AtomicBoolean generating = new AtomicBoolean(false);
+
+        private WorldPool(@NotNull World world) {
+            this.world = world;
+        }
+
+    }
+
+    // A pooled location and when it was found
+    private record PooledLocation(@NotNull Location location, long created) {
+    }
+
+}
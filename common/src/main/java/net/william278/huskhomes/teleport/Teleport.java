@@ -162,6 +162,8 @@ public class Teleport {
                 return;
             }
 
+            plugin.flushUserData(teleporter);
+            plugin.getDatabase().flushPendingWrites(teleporter);
             plugin.getDatabase().setCurrentTeleport(teleporter, this);
             plugin.getMessenger().changeServer(teleporter, target.getServer());
         });
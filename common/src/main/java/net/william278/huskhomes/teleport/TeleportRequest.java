@@ -24,6 +24,7 @@ import com.google.gson.annotations.SerializedName;
 import net.william278.huskhomes.position.Position;
 import net.william278.huskhomes.user.OnlineUser;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.time.Instant;
 
@@ -66,6 +67,31 @@ public class TeleportRequest {
     private TeleportRequest() {
     }
 
+    /**
+     * Create a teleport request from its fields, such as when decoding a request received from another server
+     *
+     * @param requesterName     The name of the user making the request
+     * @param requesterPosition The position of the requester
+     * @param type              The type of request
+     * @param status            The status of the request
+     * @param expiryTime        The epoch second the request expires at
+     * @param recipientName     The name of the request recipient, if set
+     * @return The teleport request
+     */
+    @NotNull
+    public static TeleportRequest from(@NotNull String requesterName, @NotNull Position requesterPosition,
+                                       @NotNull TeleportRequest.Type type, @NotNull TeleportRequest.Status status,
+                                       long expiryTime, @Nullable String recipientName) {
+        final TeleportRequest request = new TeleportRequest();
+        request.setRequesterName(requesterName);
+        request.setRequesterPosition(requesterPosition);
+        request.setType(type);
+        request.setStatus(status);
+        request.expiryTime = expiryTime;
+        request.recipientName = recipientName;
+        return request;
+    }
+
     /**
      * Returns if the request has now expired
      *
@@ -75,6 +101,13 @@ public class TeleportRequest {
         return Instant.now().isAfter(Instant.ofEpochSecond(expiryTime));
     }
 
+    /**
+     * The epoch second this request expires at
+     */
+    public long getExpiryTime() {
+        return expiryTime;
+    }
+
     /**
      * The name of the request recipient
      */
@@ -47,7 +47,8 @@ public record Username(@NotNull String name) implements Teleportable, Target {
      */
     @NotNull
     public Optional<OnlineUser> findLocally(@NotNull HuskHomes plugin) {
-        return plugin.getPlayerList(true).stream().anyMatch(listedName -> listedName.equalsIgnoreCase(name))
+        return plugin.getGlobalPlayerList().contains(name) || plugin.getLocalPlayerList().stream()
+                .anyMatch(listedName -> listedName.equalsIgnoreCase(name))
                 ? plugin.getOnlineUserExact(name) : plugin.getOnlineUser(name);
     }
 
@@ -0,0 +1,190 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.user;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * The players online on other servers on the network, kept up to date by the player list updates those servers send.
+ * <p>
+ * Players are indexed by their lowercase name in sorted order, so the list can be read in order, or searched by name
+ * prefix, without sorting it. A player can only be listed on one server; being listed on another moves them. Updates
+ * are numbered in sequence by each server, so that a missed update can be detected and the server's full list
+ * requested. Reads are safe from any thread and do not block.
+ */
+public final class GlobalPlayerList {
+
+    private final Map<String, Set<String>> servers = new ConcurrentHashMap<>();
+    private final Map<String, Long> sequences = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Listing> index = new ConcurrentSkipListMap<>();
+
+    /**
+     * Replace the list of players on a server with its full list
+     *
+     * @param server   The name of the server
+     * @param players  The players on the server
+     * @param sequence The sequence number of the update
+     */
+    public synchronized void setPlayers(@NotNull String server, @NotNull Collection<String> players, long sequence) {
+        final Set<String> previous = servers.remove(server);
+        if (previous != null) {
+            previous.forEach(player -> unIndex(server, player));
+        }
+        final Set<String> current = ConcurrentHashMap.newKeySet();
+        servers.put(server, current);
+        players.forEach(player -> add(server, current, player));
+        sequences.put(server, sequence);
+    }
+
+    /**
+     * Add players who joined a server
+     *
+     * @param server   The name of the server
+     * @param players  The players who joined
+     * @param sequence The sequence number of the update
+     * @return {@code false} if an earlier update from the server was missed, and its full list should be requested
+     */
+    public synchronized boolean addPlayers(@NotNull String server, @NotNull Collection<String> players, long sequence) {
+        final Set<String> current = servers.computeIfAbsent(server, name -> ConcurrentHashMap.newKeySet());
+        players.forEach(player -> add(server, current, player));
+        return advance(server, sequence);
+    }
+
+    /**
+     * Remove players who left a server
+     *
+     * @param server   The name of the server
+     * @param players  The players who left
+     * @param sequence The sequence number of the update
+     * @return {@code false} if an earlier update from the server was missed, and its full list should be requested
+     */
+    public synchronized boolean removePlayers(@NotNull String server, @NotNull Collection<String> players, long sequence) {
+        final Set<String> current = servers.get(server);
+        if (current != null) {
+            players.forEach(player -> {
+                if (current.remove(player)) {
+                    unIndex(server, player);
+                }
+            });
+        }
+        return advance(server, sequence);
+    }
+
+    /**
+     * Remove all servers and players from the list
+     */
+    public synchronized void clear() {
+        servers.clear();
+        sequences.clear();
+        index.clear();
+    }
+
+    /**
+     * Get the number of servers with a known player list
+     *
+     * @return The number of servers
+     */
+    public int getServerCount() {
+        return servers.size();
+    }
+
+    /**
+     * Get whether a player is listed on any server
+     *
+     * @param name The name of the player, ignoring case
+     * @return {@code true} if the player is listed
+     */
+    public boolean contains(@NotNull String name) {
+        return index.containsKey(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Get all listed players
+     *
+     * @return The names of all listed players, in alphabetical order ignoring case
+     */
+    @NotNull
+    public List<String> getPlayers() {
+        return index.values().stream().map(Listing::name).toList();
+    }
+
+    /**
+     * Get the listed players whose names start with a prefix
+     *
+     * @param prefix The prefix, ignoring case
+     * @return The names of matching players, in alphabetical order ignoring case
+     */
+    @NotNull
+    public List<String> getPlayers(@NotNull String prefix) {
+        return getPlayers(prefix, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get up to a number of listed players whose names start with a prefix
+     *
+     * @param prefix The prefix, ignoring case
+     * @param limit  The maximum number of names to return
+     * @return The names of matching players, in alphabetical order ignoring case
+     */
+    @NotNull
+    public List<String> getPlayers(@NotNull String prefix, int limit) {
+        final String key = prefix.toLowerCase(Locale.ROOT);
+        final List<String> players = new ArrayList<>();
+        for (Map.Entry<String, Listing> entry : index.tailMap(key).entrySet()) {
+            if (players.size() >= limit || !entry.getKey().startsWith(key)) {
+                break;
+            }
+            players.add(entry.getValue().name());
+        }
+        return players;
+    }
+
+    // Add a player to a server's list, moving them from any server they were listed on before
+    private void add(@NotNull String server, @NotNull Set<String> players, @NotNull String player) {
+        final Listing previous = index.put(player.toLowerCase(Locale.ROOT), new Listing(player, server));
+        if (previous != null && !previous.server().equals(server)) {
+            final Set<String> previousPlayers = servers.get(previous.server());
+            if (previousPlayers != null) {
+                previousPlayers.remove(previous.name());
+            }
+        }
+        players.add(player);
+    }
+
+    // Remove a player from the index, unless they have since been listed on another server
+    private void unIndex(@NotNull String server, @NotNull String player) {
+        index.computeIfPresent(player.toLowerCase(Locale.ROOT),
+                (key, listing) -> listing.server().equals(server) ? null : listing);
+    }
+
+    // Record the sequence number of a server's update, returning whether it directly followed the previous update
+    private boolean advance(@NotNull String server, long sequence) {
+        final Long previous = sequences.put(server, sequence);
+        return previous != null && previous + 1 == sequence;
+    }
+
+    private record Listing(@NotNull String name, @NotNull String server) {
+    }
+
+}
@@ -42,6 +42,16 @@ public class SavedUser {
         this.rtpCooldown = rtpCooldown;
     }
 
+    /**
+     * Create a copy of this user data
+     *
+     * @return A new {@link SavedUser} with the same values
+     */
+    @NotNull
+    public SavedUser copy() {
+        return new SavedUser(user, homeSlots, ignoringTeleports, rtpCooldown);
+    }
+
     @NotNull
     public User getUser() {
         return user;
@@ -0,0 +1,173 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.user;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Registry of the {@link SavedUser} data of online users, indexed by user ID.
+ * <p>
+ * Registered data is never modified in place: edits are applied to a copy, which atomically replaces the registered
+ * data, so readers always see a consistent snapshot and concurrent edits to a user are applied one after the other.
+ * Edited users are marked dirty until their data is {@link #drainDirty() drained} to be saved in a batch.
+ */
+public final class SavedUserRegistry {
+
+    private final Map<UUID, SavedUser> users = new ConcurrentHashMap<>();
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Register a user's data, loaded from the database. If the user has unsaved edits, these are kept instead
+     *
+     * @param savedUser The {@link SavedUser} to register
+     */
+    public void add(@NotNull SavedUser savedUser) {
+        users.compute(savedUser.getUserUuid(), (uuid, existing) ->
+                existing != null && dirty.contains(uuid) ? existing : savedUser);
+    }
+
+    /**
+     * Get a registered user's data
+     *
+     * @param uuid The ID of the user
+     * @return The user's data, if registered
+     */
+    public Optional<SavedUser> get(@NotNull UUID uuid) {
+        return Optional.ofNullable(users.get(uuid));
+    }
+
+    /**
+     * Get a registered user's data by their username
+     *
+     * @param username The username of the user, ignoring case
+     * @return The user's data, if registered
+     */
+    public Optional<SavedUser> get(@NotNull String username) {
+        return users.values().stream()
+                .filter(savedUser -> savedUser.getUsername().equalsIgnoreCase(username))
+                .findFirst();
+    }
+
+    /**
+     * Edit a registered user's data, marking them dirty
+     *
+     * @param uuid   The ID of the user
+     * @param editor A {@link Consumer} passed a copy of the user's data to edit
+     * @return The edited data, if the user is registered
+     */
+    public Optional<SavedUser> edit(@NotNull UUID uuid, @NotNull Consumer<SavedUser> editor) {
+        final SavedUser edited = users.computeIfPresent(uuid, (key, current) -> {
+            final SavedUser copy = current.copy();
+            editor.accept(copy);
+            return copy;
+        });
+        if (edited != null) {
+            dirty.add(uuid);
+        }
+        return Optional.ofNullable(edited);
+    }
+
+    /**
+     * Unregister a user's data
+     *
+     * @param uuid The ID of the user
+     * @return The user's data if it has unsaved edits, which should be saved
+     */
+    public Optional<SavedUser> remove(@NotNull UUID uuid) {
+        final SavedUser removed = users.remove(uuid);
+        return dirty.remove(uuid) ? Optional.ofNullable(removed) : Optional.empty();
+    }
+
+    /**
+     * Take the data of every dirty user, marking them clean. The returned data should be saved
+     *
+     * @return The current data of each dirty user
+     */
+    @NotNull
+    public List<SavedUser> drainDirty() {
+        final List<SavedUser> drained = new ArrayList<>();
+        for (UUID uuid : dirty) {
+            if (dirty.remove(uuid)) {
+                final SavedUser savedUser = users.get(uuid);
+                if (savedUser != null) {
+                    drained.add(savedUser);
+                }
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Take the data of a user if they are dirty, marking them clean. The returned data should be saved
+     *
+     * @param uuid The ID of the user
+     * @return The current data of the user, if they are dirty
+     */
+    public Optional<SavedUser> drainDirty(@NotNull UUID uuid) {
+        return dirty.remove(uuid) ? Optional.ofNullable(users.get(uuid)) : Optional.empty();
+    }
+
+    /**
+     * Mark users dirty again after their drained data failed to save, so it is saved with the next drain. Users who
+     * have since been unregistered are skipped
+     *
+     * @param savedUsers The drained data of the users
+     */
+    public void markDirty(@NotNull Collection<SavedUser> savedUsers) {
+        savedUsers.forEach(savedUser -> {
+            if (users.containsKey(savedUser.getUserUuid())) {
+                dirty.add(savedUser.getUserUuid());
+            }
+        });
+    }
+
+    /**
+     * Get the data of every registered user
+     *
+     * @return Unmodifiable view of registered user data
+     */
+    @NotNull
+    public Collection<SavedUser> getAll() {
+        return Collections.unmodifiableCollection(users.values());
+    }
+
+    /**
+     * Get the number of registered users
+     *
+     * @return The number of users
+     */
+    public int size() {
+        return users.size();
+    }
+
+    /**
+     * Get the number of users with unsaved edits
+     *
+     * @return The number of dirty users
+     */
+    public int getDirtyCount() {
+        return dirty.size();
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * A concurrent, sorted index of names for tab completion, searched by case-insensitive prefix.
+ * <p>
+ * Names are kept sorted by their lowercase form, so completing a prefix seeks to the first match and reads matches
+ * until one no longer starts with the prefix, taking time proportional to the number of results rather than the size
+ * of the index. The index is updated incrementally as names are added and removed; reads never block.
+ */
+public final class CompletionIndex {
+
+    // Separates the lowercase form of a name from the name itself, so names differing only in case are kept apart
+    private static final char SEPARATOR = '\0';
+
+    private final ConcurrentSkipListMap<String, String> names = new ConcurrentSkipListMap<>();
+
+    /**
+     * Add a name to the index
+     *
+     * @param name The name to add
+     */
+    public void add(@NotNull String name) {
+        names.put(getKey(name), name);
+    }
+
+    /**
+     * Remove a name from the index
+     *
+     * @param name The name to remove
+     */
+    public void remove(@NotNull String name) {
+        names.remove(getKey(name));
+    }
+
+    /**
+     * Remove all names from the index
+     */
+    public void clear() {
+        names.clear();
+    }
+
+    /**
+     * Get the number of names in the index
+     *
+     * @return The number of indexed names
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Get all names in the index
+     *
+     * @return All indexed names, in alphabetical order ignoring case
+     */
+    @NotNull
+    public List<String> getAll() {
+        return List.copyOf(names.values());
+    }
+
+    /**
+     * Get the names starting with a prefix
+     *
+     * @param prefix The prefix, ignoring case
+     * @param limit  The maximum number of names to return
+     * @return Up to {@code limit} matching names, in alphabetical order ignoring case
+     */
+    @NotNull
+    public List<String> complete(@NotNull String prefix, int limit) {
+        final String key = prefix.toLowerCase(Locale.ROOT);
+        final List<String> matches = new ArrayList<>();
+        for (Map.Entry<String, String> entry : names.tailMap(key).entrySet()) {
+            if (matches.size() >= limit || !entry.getKey().startsWith(key)) {
+                break;
+            }
+            matches.add(entry.getValue());
+        }
+        return matches;
+    }
+
+    /**
+     * Get the names starting with a prefix from a list sorted in alphabetical order ignoring case, by binary search
+     *
+     * @param sorted The names, sorted with {@link String#CASE_INSENSITIVE_ORDER}
+     * @param prefix The prefix, ignoring case
+     * @param limit  The maximum number of names to return
+     * @return Up to {@code limit} matching names, in the order of the list
+     */
+    @NotNull
+    public static List<String> complete(@NotNull List<String> sorted, @NotNull String prefix, int limit) {
+        int start = Collections.binarySearch(sorted, prefix, String.CASE_INSENSITIVE_ORDER);
+        if (start < 0) {
+            start = -start - 1;
+        }
+
+        // Names equal to the prefix ignoring case may sort either side of where the search landed
+        while (start > 0 && sorted.get(start - 1).equalsIgnoreCase(prefix)) {
+            start--;
+        }
+        final List<String> matches = new ArrayList<>();
+        for (int i = start; i < sorted.size() && matches.size() < limit; i++) {
+            final String name = sorted.get(i);
+            if (!name.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                break;
+            }
+            matches.add(name);
+        }
+        return matches;
+    }
+
+    @NotNull
+    private static String getKey(@NotNull String name) {
+        return name.toLowerCase(Locale.ROOT) + SEPARATOR + name;
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.util;
+
+import net.william278.huskhomes.position.Location;
+import net.william278.huskhomes.position.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Optional;
+
+/**
+ * The safe columns found in a chunk: those whose surface block is safe to stand on.
+ * <p>
+ * Each column is packed into a single {@code int}, holding the Y value of its surface block in the upper bits and its
+ * X and Z coordinates within the chunk in the lower byte, so a whole chunk's worth of results is one small array.
+ */
+public final class SafeColumns {
+
+    private final World world;
+    private final int chunkX;
+    private final int chunkZ;
+    private final int[] columns;
+    private final int size;
+
+    /**
+     * Create the safe columns of a chunk
+     *
+     * @param world   The world of the chunk
+     * @param chunkX  The X coordinate of the chunk
+     * @param chunkZ  The Z coordinate of the chunk
+     * @param columns Columns {@link #pack(int, int, int) packed} into an array, which is used without copying
+     * @param size    The number of columns in the array
+     */
+    public SafeColumns(@NotNull World world, int chunkX, int chunkZ, int[] columns, int size) {
+        this.world = world;
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.columns = columns;
+        this.size = size;
+    }
+
+    /**
+     * Create safe columns holding a single safe location
+     *
+     * @param location A safe location, one block above the surface block it stands on
+     * @return The safe columns
+     */
+    @NotNull
+    public static SafeColumns of(@NotNull Location location) {
+        final int x = (int) Math.floor(location.getX());
+        final int z = (int) Math.floor(location.getZ());
+        return new SafeColumns(location.getWorld(), x >> 4, z >> 4,
+                new int[]{pack(x & 0xF, (int) Math.floor(location.getY()) - 1, z & 0xF)}, 1);
+    }
+
+    /**
+     * Pack a column into an {@code int}
+     *
+     * @param x The X coordinate within the chunk, from 0 to 15
+     * @param y The Y value of the surface block
+     * @param z The Z coordinate within the chunk, from 0 to 15
+     * @return The packed column
+     */
+    public static int pack(int x, int y, int z) {
+        return (y << 8) | (x << 4) | z;
+    }
+
+    /**
+     * Get the number of safe columns
+     *
+     * @return The number of columns
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Get the location to stand at in a safe column
+     *
+     * @param index The index of the column, from 0 to {@link #size()}
+     * @return The location at the center of the column, above its surface block
+     */
+    @NotNull
+    public Location getLocation(int index) {
+        final int column = columns[index];
+        return Location.at(
+                (chunkX << 4) + ((column >> 4) & 0xF) + 0.5d,
+                (column >> 8) + 1,
+                (chunkZ << 4) + (column & 0xF) + 0.5d,
+                world
+        );
+    }
+
+    /**
+     * Get the location to stand at in the safe column nearest the given coordinates
+     *
+     * @param x The X coordinate
+     * @param z The Z coordinate
+     * @return The location in the nearest safe column, if there are any
+     */
+    public Optional<Location> getNearest(double x, double z) {
+        final int nearest = getNearestIndex(x, z);
+        return nearest == -1 ? Optional.empty() : Optional.of(getLocation(nearest));
+    }
+
+    /**
+     * Get the index of the safe column nearest the given coordinates
+     *
+     * @param x The X coordinate
+     * @param z The Z coordinate
+     * @return The index of the nearest safe column, or {@code -1} if there are none
+     */
+    public int getNearestIndex(double x, double z) {
+        int nearest = -1;
+        double nearestDistance = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            final double dX = (chunkX << 4) + ((columns[i] >> 4) & 0xF) + 0.5d - x;
+            final double dZ = (chunkZ << 4) + (columns[i] & 0xF) + 0.5d - z;
+            final double distance = dX * dX + dZ * dZ;
+            if (distance < nearestDistance) {
+                nearest = i;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
+}
@@ -39,6 +39,17 @@ public interface SafetyResolver {
      */
     CompletableFuture<Optional<Location>> findSafeGroundLocation(@NotNull Location location);
 
+    /**
+     * Returns the safe columns of the chunk containing the specified {@link Location}, if possible. By default, this
+     * holds only the safe ground location found for the location
+     *
+     * @param location the {@link Location} in the chunk to find safe columns in
+     * @return a {@link CompletableFuture} that will complete with an optional of the chunk's safe columns, if any
+     */
+    default CompletableFuture<Optional<SafeColumns>> findSafeColumns(@NotNull Location location) {
+        return findSafeGroundLocation(location).thenApply(safe -> safe.map(SafeColumns::of));
+    }
+
     /**
      * Returns if the block, by provided identifier, is unsafe
      *
@@ -25,6 +25,11 @@ import net.william278.annotaml.YamlKey;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @YamlFile(header = """
         ┏━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━┓
@@ -36,6 +41,10 @@ public class UnsafeBlocks {
     @YamlKey("unsafe_blocks")
     public List<String> unsafeBlocks;
 
+    // Namespaced IDs of the unsafe blocks, and platform lookups compiled from them, built on first use
+    private transient volatile Set<String> unsafeBlockIds;
+    private final transient Map<Class<?>, Object> compiled = new ConcurrentHashMap<>();
+
     /**
      * Returns if the block, by provided identifier, is unsafe
      *
@@ -43,10 +52,44 @@ public class UnsafeBlocks {
      * @return {@code true} if the block is on the unsafe blocks list, {@code false} otherwise
      */
     public boolean isUnsafe(@NotNull String blockId) {
-        if (!blockId.startsWith(Key.MINECRAFT_NAMESPACE + ":")) {
-            blockId = Key.MINECRAFT_NAMESPACE + ":" + blockId;
+        return getUnsafeBlockIds().contains(blockId.indexOf(':') == -1 ? namespaced(blockId) : blockId);
+    }
+
+    /**
+     * Get the namespaced identifiers of the unsafe blocks
+     *
+     * @return Unmodifiable set of block identifiers (e.g. {@code minecraft:lava})
+     */
+    @NotNull
+    public Set<String> getUnsafeBlockIds() {
+        Set<String> ids = unsafeBlockIds;
+        if (ids == null) {
+            ids = unsafeBlocks.stream()
+                    .map(blockId -> blockId.indexOf(':') == -1 ? namespaced(blockId) : blockId)
+                    .collect(Collectors.toUnmodifiableSet());
+            unsafeBlockIds = ids;
         }
-        return unsafeBlocks.contains(blockId);
+        return ids;
+    }
+
+    /**
+     * Get a lookup of the unsafe blocks compiled for a platform, such as a set of its block types. The lookup is
+     * compiled from the {@link #getUnsafeBlockIds() unsafe block identifiers} the first time it is requested, and
+     * reused until the unsafe blocks are reloaded
+     *
+     * @param type     The class of the lookup
+     * @param compiler Function compiling the lookup from the unsafe block identifiers
+     * @param <T>      The type of the lookup
+     * @return The compiled lookup
+     */
+    @NotNull
+    public <T> T getCompiled(@NotNull Class<T> type, @NotNull Function<Set<String>, T> compiler) {
+        return type.cast(compiled.computeIfAbsent(type, key -> compiler.apply(getUnsafeBlockIds())));
+    }
+
+    @NotNull
+    private static String namespaced(@NotNull String blockId) {
+        return Key.MINECRAFT_NAMESPACE + ":" + blockId;
     }
 
     @SuppressWarnings("unused")
@@ -0,0 +1,48 @@
+# MySQL cannot roll back schema changes, so each step first checks it has not already been made, letting the
+# migration be run again if it previously failed partway through
+
+# Add a generated lowercase name column, for case-insensitive home and warp name lookups
+SET @statement = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+                       WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '%saved_positions_table%' AND COLUMN_NAME = 'name_lower') = 0,
+    'ALTER TABLE `%saved_positions_table%` ADD COLUMN `name_lower` varchar(64) GENERATED ALWAYS AS (LOWER(`name`)) STORED', 'DO 0');
+PREPARE migration_step FROM @statement;
+EXECUTE migration_step;
+DEALLOCATE PREPARE migration_step;
+
+# Index home and warp names
+SET @statement = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+                       WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '%saved_positions_table%' AND INDEX_NAME = '%saved_positions_table%_name') = 0,
+    'CREATE INDEX `%saved_positions_table%_name` ON `%saved_positions_table%` (`name`)', 'DO 0');
+PREPARE migration_step FROM @statement;
+EXECUTE migration_step;
+DEALLOCATE PREPARE migration_step;
+
+SET @statement = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+                       WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '%saved_positions_table%' AND INDEX_NAME = '%saved_positions_table%_name_lower') = 0,
+    'CREATE INDEX `%saved_positions_table%_name_lower` ON `%saved_positions_table%` (`name_lower`)', 'DO 0');
+PREPARE migration_step FROM @statement;
+EXECUTE migration_step;
+DEALLOCATE PREPARE migration_step;
+
+# Index homes by owner, covering the join to their saved position, and by public status
+SET @statement = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+                       WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '%homes_table%' AND INDEX_NAME = '%homes_table%_owner') = 0,
+    'CREATE INDEX `%homes_table%_owner` ON `%homes_table%` (`owner_uuid`, `saved_position_id`)', 'DO 0');
+PREPARE migration_step FROM @statement;
+EXECUTE migration_step;
+DEALLOCATE PREPARE migration_step;
+
+SET @statement = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+                       WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '%homes_table%' AND INDEX_NAME = '%homes_table%_public') = 0,
+    'CREATE INDEX `%homes_table%_public` ON `%homes_table%` (`public`, `saved_position_id`)', 'DO 0');
+PREPARE migration_step FROM @statement;
+EXECUTE migration_step;
+DEALLOCATE PREPARE migration_step;
+
+# Index players by username
+SET @statement = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+                       WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '%players_table%' AND INDEX_NAME = '%players_table%_username') = 0,
+    'CREATE INDEX `%players_table%_username` ON `%players_table%` (`username`)', 'DO 0');
+PREPARE migration_step FROM @statement;
+EXECUTE migration_step;
+DEALLOCATE PREPARE migration_step;
\ No newline at end of file
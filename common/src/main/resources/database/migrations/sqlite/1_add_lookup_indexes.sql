@@ -0,0 +1,15 @@
+/* Add a generated lowercase name column, for case-insensitive home and warp name lookups */
+ALTER TABLE `%saved_positions_table%`
+    ADD COLUMN `name_lower` varchar(64) GENERATED ALWAYS AS (LOWER(`name`)) VIRTUAL;
+
+/* Index home and warp names */
+CREATE INDEX IF NOT EXISTS `%saved_positions_table%_name` ON `%saved_positions_table%` (`name`);
+CREATE INDEX IF NOT EXISTS `%saved_positions_table%_name_lower` ON `%saved_positions_table%` (`name_lower`);
+
+/* Index homes by owner, covering the join to their saved position, and by public status */
+CREATE INDEX IF NOT EXISTS `%homes_table%_owner` ON `%homes_table%` (`owner_uuid`, `saved_position_id`);
+CREATE INDEX IF NOT EXISTS `%homes_table%_public` ON `%homes_table%` (`public`, `saved_position_id`);
+
+/* Index warps by saved position, and players by username */
+CREATE INDEX IF NOT EXISTS `%warps_table%_saved_position` ON `%warps_table%` (`saved_position_id`);
+CREATE INDEX IF NOT EXISTS `%players_table%_username` ON `%players_table%` (`username`)
\ No newline at end of file
@@ -79,4 +79,10 @@ CREATE TABLE IF NOT EXISTS `%warps_table%`
 
     PRIMARY KEY (`uuid`),
     FOREIGN KEY (`saved_position_id`) REFERENCES `%saved_positions_table%` (`id`) ON DELETE CASCADE ON UPDATE NO ACTION
+);
+
+/* Create the metadata table if it does not exist */
+CREATE TABLE IF NOT EXISTS `%meta_table%`
+(
+    `schema_version` integer NOT NULL
 );
\ No newline at end of file
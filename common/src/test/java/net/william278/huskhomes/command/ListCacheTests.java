@@ -0,0 +1,80 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.command;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayName("List Cache Tests")
+public class ListCacheTests {
+
+    @Test
+    @DisplayName("Test Values Are Shared Per Version")
+    public void testValuesAreSharedPerVersion() {
+        final ListCache cache = new ListCache();
+        final AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(List.of("a", "b"), cache.get("items", () -> {
+                loads.incrementAndGet();
+                return List.of("a", "b");
+            }));
+        }
+        Assertions.assertEquals(1, loads.get());
+
+        cache.invalidate();
+        Assertions.assertEquals(List.of("c"), cache.get("items", () -> {
+            loads.incrementAndGet();
+            return List.of("c");
+        }));
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Test Cache Is Bounded")
+    public void testCacheIsBounded() {
+        final ListCache cache = new ListCache();
+        final AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 1000; i++) {
+            cache.get(i, loads::incrementAndGet);
+        }
+        cache.get(999, loads::incrementAndGet);
+        Assertions.assertEquals(1000, loads.get());
+        cache.get(0, loads::incrementAndGet);
+        Assertions.assertEquals(1001, loads.get());
+    }
+
+    @Test
+    @DisplayName("Test Values Loaded While Invalidated Are Not Cached")
+    public void testStaleValuesAreNotCached() {
+        final ListCache cache = new ListCache();
+        final AtomicInteger loads = new AtomicInteger();
+        Assertions.assertEquals(1, (int) cache.get("items", () -> {
+            cache.invalidate();
+            return loads.incrementAndGet();
+        }));
+        Assertions.assertEquals(2, (int) cache.get("items", loads::incrementAndGet));
+        Assertions.assertEquals(2, (int) cache.get("items", loads::incrementAndGet));
+    }
+
+}
@@ -0,0 +1,231 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.database;
+
+import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.position.World;
+import net.william278.huskhomes.user.User;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+@DisplayName("Position Upserter Tests")
+public class PositionUpserterTests {
+
+    private static final int PLAYERS = 200;
+    private static final World WORLD = World.from("world", UUID.randomUUID());
+
+    private Connection connection;
+    private AtomicInteger roundTrips;
+    private boolean noUpdateCounts;
+    private PositionUpserter upserter;
+    private List<User> users;
+
+    @BeforeEach
+    public void setUp() throws SQLException, IOException {
+        final Connection sqlite = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement statement = sqlite.createStatement()) {
+            statement.execute("PRAGMA foreign_keys = ON;");
+            for (String schemaStatement : getSchema().split(";")) {
+                if (!schemaStatement.isBlank()) {
+                    statement.execute(schemaStatement);
+                }
+            }
+        }
+
+        this.roundTrips = new AtomicInteger();
+        this.connection = countingConnection(sqlite, roundTrips, () -> noUpdateCounts);
+        this.upserter = new PositionUpserter(Database.Type.SQLITE, PositionUpserterTests::formatTables);
+        this.users = new ArrayList<>();
+        try (PreparedStatement statement = sqlite.prepareStatement(formatTables(
+                "INSERT INTO `%players_table%` (`uuid`,`username`) VALUES (?,?);"))) {
+            for (int i = 0; i < PLAYERS; i++) {
+                final User user = User.of(UUID.randomUUID(), "Player" + i);
+                statement.setString(1, user.getUuid().toString());
+                statement.setString(2, user.getUsername());
+                statement.addBatch();
+                users.add(user);
+            }
+            statement.executeBatch();
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Test Slot Upsert Persistence")
+    public void testSlotUpsertPersistence() throws SQLException {
+        final User user = users.get(0);
+        upserter.upsertSlots(List.of(write(user, Database.PositionSlot.RESPAWN_POSITION, 1)), connection);
+        Assertions.assertEquals(1, getSlotX(user, Database.PositionSlot.RESPAWN_POSITION).orElseThrow());
+
+        upserter.upsertSlots(List.of(write(user, Database.PositionSlot.RESPAWN_POSITION, 2)), connection);
+        Assertions.assertEquals(2, getSlotX(user, Database.PositionSlot.RESPAWN_POSITION).orElseThrow());
+
+        upserter.upsertSlots(List.of(new Database.PositionWrite(user, Database.PositionSlot.RESPAWN_POSITION, null)), connection);
+        Assertions.assertTrue(getSlotX(user, Database.PositionSlot.RESPAWN_POSITION).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test Slot Upsert Round Trips")
+    public void testSlotUpsertRoundTrips() throws SQLException {
+        // Set every player's last position for the first time
+        upserter.upsertSlots(writeAll(0), connection);
+
+        // Steady state: every slot is already set
+        roundTrips.set(0);
+        for (Database.PositionWrite write : writeAll(1)) {
+            legacySetSlot(write);
+        }
+        Assertions.assertEquals(PLAYERS * 2, roundTrips.getAndSet(0));
+
+        upserter.upsertSlots(writeAll(2), connection);
+        Assertions.assertEquals(1, roundTrips.get());
+        for (User user : users) {
+            Assertions.assertEquals(2, getSlotX(user, Database.PositionSlot.LAST_POSITION).orElseThrow());
+        }
+    }
+
+    @Test
+    @DisplayName("Test Set Slots Are Not Re-Inserted Without Update Counts")
+    public void testSlotUpsertWithoutUpdateCounts() throws SQLException {
+        upserter.upsertSlots(writeAll(0), connection);
+
+        // Drivers may report no count, or a count of 0 for unchanged rows; set slots must still be updated in place
+        noUpdateCounts = true;
+        roundTrips.set(0);
+        upserter.upsertSlots(writeAll(0), connection);
+        Assertions.assertEquals(2, roundTrips.get());
+        Assertions.assertEquals(PLAYERS, countPositions());
+
+        final User user = users.get(0);
+        upserter.upsertSlots(List.of(write(user, Database.PositionSlot.RESPAWN_POSITION, 3)), connection);
+        Assertions.assertEquals(3, getSlotX(user, Database.PositionSlot.RESPAWN_POSITION).orElseThrow());
+        Assertions.assertEquals(PLAYERS + 1, countPositions());
+    }
+
+    // The previous approach; look up the slot's position ID, then update it
+    private void legacySetSlot(Database.PositionWrite write) throws SQLException {
+        try (PreparedStatement queryStatement = connection.prepareStatement(formatTables("""
+                SELECT `last_position` FROM `%players_table%`
+                INNER JOIN `%positions_table%` ON `%players_table%`.`last_position` = `%positions_table%`.`id`
+                WHERE `uuid`=?;"""))) {
+            queryStatement.setString(1, write.user().getUuid().toString());
+            final ResultSet resultSet = queryStatement.executeQuery();
+            if (resultSet.next()) {
+                try (PreparedStatement updateStatement = connection.prepareStatement(formatTables("""
+                        UPDATE `%positions_table%` SET `x`=? WHERE `id`=?;"""))) {
+                    updateStatement.setDouble(1, Objects.requireNonNull(write.position()).getX());
+                    updateStatement.setInt(2, resultSet.getInt(1));
+                    updateStatement.executeUpdate();
+                }
+            }
+        }
+    }
+
+    private int countPositions() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(formatTables("""
+                SELECT COUNT(*) FROM `%positions_table%`;"""))) {
+            final ResultSet resultSet = statement.executeQuery();
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    private Optional<Double> getSlotX(User user, Database.PositionSlot slot) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(formatTables("""
+                SELECT `x` FROM `%players_table%`
+                INNER JOIN `%positions_table%` ON `%players_table%`.`%slot%` = `%positions_table%`.`id`
+                WHERE `uuid`=?;""").replaceAll("%slot%", slot.getColumn()))) {
+            statement.setString(1, user.getUuid().toString());
+            final ResultSet resultSet = statement.executeQuery();
+            return resultSet.next() ? Optional.of(resultSet.getDouble(1)) : Optional.empty();
+        }
+    }
+
+    private List<Database.PositionWrite> writeAll(double x) {
+        return users.stream().map(user -> write(user, Database.PositionSlot.LAST_POSITION, x)).toList();
+    }
+
+    private static Database.PositionWrite write(User user, Database.PositionSlot slot, double x) {
+        return new Database.PositionWrite(user, slot, Position.at(x, 64, 0, WORLD, "server"));
+    }
+
+    private static String getSchema() throws IOException {
+        try (InputStream stream = Objects.requireNonNull(PositionUpserterTests.class
+                .getClassLoader().getResourceAsStream("database/sqlite_schema.sql"))) {
+            return formatTables(new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String formatTables(String sql) {
+        return sql
+                .replaceAll("%positions_table%", Database.Table.POSITION_DATA.getDefaultName())
+                .replaceAll("%players_table%", Database.Table.PLAYER_DATA.getDefaultName())
+                .replaceAll("%teleports_table%", Database.Table.TELEPORT_DATA.getDefaultName())
+                .replaceAll("%saved_positions_table%", Database.Table.SAVED_POSITION_DATA.getDefaultName())
+                .replaceAll("%homes_table%", Database.Table.HOME_DATA.getDefaultName())
+                .replaceAll("%warps_table%", Database.Table.WARP_DATA.getDefaultName())
+                .replaceAll("%meta_table%", Database.Table.META_DATA.getDefaultName());
+    }
+
+    // Wrap a connection so that each statement execution is counted as a round trip, optionally hiding batch update counts
+    private static Connection countingConnection(Connection connection, AtomicInteger roundTrips,
+                                                 BooleanSupplier noUpdateCounts) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class[]{Connection.class},
+                (proxy, method, args) -> {
+                    final Object result = invoke(connection, method, args);
+                    if (!(result instanceof PreparedStatement statement)) {
+                        return result;
+                    }
+                    return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class[]{PreparedStatement.class},
+                            (statementProxy, statementMethod, statementArgs) -> {
+                                if (statementMethod.getName().startsWith("execute")) {
+                                    roundTrips.incrementAndGet();
+                                }
+                                final Object executed = invoke(statement, statementMethod, statementArgs);
+                                if (executed instanceof int[] counts && noUpdateCounts.getAsBoolean()) {
+                                    Arrays.fill(counts, Statement.SUCCESS_NO_INFO);
+                                }
+                                return executed;
+                            });
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.manager;
+
+import net.william278.huskhomes.position.Home;
+import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.position.PositionMeta;
+import net.william278.huskhomes.position.World;
+import net.william278.huskhomes.user.User;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@DisplayName("Home Cache Tests")
+public class HomeCacheTests {
+
+    private static final Position POSITION = Position.at(63.25, 127.43, -32, 180f, -94.3f,
+            World.from("TestWorld", UUID.randomUUID()), "TestServer");
+
+    @Test
+    @DisplayName("Test User Home Caching")
+    public void testUserHomeCaching() {
+        final HomeCache cache = new HomeCache();
+        final User owner = User.of(UUID.randomUUID(), "TestUser");
+        final Home home = createHome(owner, "Base", false);
+        cache.setUserHomes(owner, List.of(home, createHome(owner, "alpha", false)));
+        Assertions.assertEquals(List.of("alpha", "Base"), cache.getUserHomeNames().get("TestUser"));
+        Assertions.assertEquals(List.of("TestUser.alpha", "TestUser.Base"), cache.getUserHomeIdentifiers());
+
+        // Renaming a home must not leave its old name indexed
+        home.getMeta().setName("Renamed");
+        cache.put(home);
+        Assertions.assertEquals(List.of("alpha", "Renamed"), cache.getUserHomeNames().get("TestUser"));
+
+        cache.remove(home.getUuid());
+        Assertions.assertEquals(List.of("TestUser.alpha"), cache.getUserHomeIdentifiers());
+
+        cache.removeUserHomes(owner.getUuid());
+        Assertions.assertTrue(cache.getUserHomeIdentifiers().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test Public Home Caching")
+    public void testPublicHomeCaching() {
+        final HomeCache cache = new HomeCache();
+        final User owner = User.of(UUID.randomUUID(), "TestUser");
+        final Home home = createHome(owner, "Shop", true);
+        Assertions.assertFalse(cache.put(home));
+        Assertions.assertEquals(List.of("TestUser.Shop"), cache.getPublicHomeIdentifiers());
+        Assertions.assertEquals(List.of("Shop"), cache.getPublicHomeNames().get("TestUser"));
+
+        // Making a home private removes it from the public homes
+        home.setPublic(false);
+        Assertions.assertTrue(cache.put(home));
+        Assertions.assertTrue(cache.getPublicHomeIdentifiers().isEmpty());
+
+        home.setPublic(true);
+        cache.put(home);
+        cache.put(createHome(owner, "Farm", true));
+        Assertions.assertEquals(List.of("TestUser.Farm", "TestUser.Shop"), cache.getPublicHomeIdentifiers());
+        Assertions.assertEquals(home, cache.remove(home.getUuid()).orElseThrow());
+
+        cache.removeAllHomes(owner.getUuid());
+        Assertions.assertTrue(cache.getPublicHomeIdentifiers().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test Home Lookups")
+    public void testHomeLookups() {
+        final HomeCache cache = new HomeCache();
+        final User owner = User.of(UUID.randomUUID(), "TestUser");
+        final Home home = createHome(owner, "Base", true);
+        final Home other = createHome(owner, "base", false);
+        Assertions.assertFalse(cache.hasUserHomes(owner.getUuid()));
+        cache.setUserHomes(owner, List.of(home, other));
+        cache.put(home);
+
+        Assertions.assertEquals(home, cache.getUserHome(owner.getUuid(), "Base", false).orElseThrow());
+        Assertions.assertEquals(other, cache.getUserHome(owner.getUuid(), "base", false).orElseThrow());
+        Assertions.assertTrue(cache.getUserHome(owner.getUuid(), "BASE", true).isPresent());
+        Assertions.assertTrue(cache.getUserHome(owner.getUuid(), "BASE", false).isEmpty());
+        Assertions.assertEquals(home, cache.getPublicHome("testuser.base", true).orElseThrow());
+        Assertions.assertEquals(other, cache.getHome(other.getUuid()).orElseThrow());
+        Assertions.assertEquals(2, cache.getUserHomes(owner.getUuid()).orElseThrow().size());
+    }
+
+    @Test
+    @DisplayName("Test Home Name Completion")
+    public void testHomeNameCompletion() {
+        final HomeCache cache = new HomeCache();
+        final User owner = User.of(UUID.randomUUID(), "TestUser");
+        final Home home = createHome(owner, "Base", true);
+        cache.setUserHomes(owner, List.of(home, createHome(owner, "bastion", false), createHome(owner, "Farm", false)));
+        cache.put(home);
+
+        Assertions.assertEquals(List.of("Base", "bastion"), cache.completeUserHomeNames(owner.getUuid(), "BAS", 10));
+        Assertions.assertEquals(List.of("Base"), cache.completeUserHomeNames(owner.getUuid(), "bas", 1));
+        Assertions.assertEquals(List.of("TestUser.Farm"), cache.completeUserHomeIdentifiers("testuser.f", 10));
+        Assertions.assertEquals(List.of("TestUser.Base"), cache.completePublicHomeIdentifiers("TestUser.", 10));
+
+        // Renamed homes are completed by their new name only
+        home.getMeta().setName("Castle");
+        cache.put(home);
+        Assertions.assertEquals(List.of("bastion"), cache.completeUserHomeNames(owner.getUuid(), "bas", 10));
+        Assertions.assertEquals(List.of("TestUser.Castle"), cache.completePublicHomeIdentifiers("", 10));
+    }
+
+    @Test
+    @DisplayName("Test User Home Eviction")
+    public void testUserHomeEviction() {
+        final HomeCache cache = new HomeCache(1);
+        final User online = User.of(UUID.randomUUID(), "OnlineUser");
+        final User offline = User.of(UUID.randomUUID(), "OfflineUser");
+        cache.setUserHomes(online, List.of(createHome(online, "Base", false)));
+        cache.setUserHomes(offline, List.of(createHome(offline, "Base", false)));
+
+        // Users over the size limit are evicted, sparing pinned users
+        Assertions.assertEquals(1, cache.evict(Set.of(online.getUuid()), Long.MAX_VALUE));
+        Assertions.assertTrue(cache.hasUserHomes(online.getUuid()));
+        Assertions.assertFalse(cache.hasUserHomes(offline.getUuid()));
+        Assertions.assertEquals(List.of("OnlineUser.Base"), cache.getUserHomeIdentifiers());
+
+        // Idle users are evicted once unpinned
+        Assertions.assertEquals(0, cache.evict(Set.of(online.getUuid()), 0));
+        Assertions.assertEquals(1, cache.evict(Set.of(), 0));
+        Assertions.assertEquals(0, cache.getUserCount());
+        Assertions.assertEquals(2, cache.getEvictionCount());
+    }
+
+    @NotNull
+    private static Home createHome(@NotNull User owner, @NotNull String name, boolean isPublic) {
+        final Home home = Home.from(POSITION, PositionMeta.create(name, ""), owner);
+        home.setPublic(isPublic);
+        return home;
+    }
+
+}
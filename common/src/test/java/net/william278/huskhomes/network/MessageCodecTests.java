@@ -0,0 +1,246 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.network;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import net.william278.huskhomes.position.Home;
+import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.position.PositionMeta;
+import net.william278.huskhomes.position.Warp;
+import net.william278.huskhomes.position.World;
+import net.william278.huskhomes.teleport.TeleportRequest;
+import net.william278.huskhomes.user.User;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+@DisplayName("Message Codec Tests")
+public class MessageCodecTests {
+
+    private static final Position POSITION = Position.at(63.25, 127.43, -32, 180f, -94.3f,
+            World.from("TestWorld", UUID.randomUUID()), "TestServer");
+
+    @Test
+    @DisplayName("Test Teleport Request Message Round Trip")
+    public void testTeleportRequestRoundTrip() throws IOException {
+        final Message message = Message.builder()
+                .type(Message.Type.TELEPORT_REQUEST)
+                .scope(Message.Scope.PLAYER)
+                .target("TestTarget")
+                .payload(Payload.withTeleportRequest(TeleportRequest.from("TestRequester", POSITION,
+                        TeleportRequest.Type.TPA_HERE, TeleportRequest.Status.PENDING, 1234567890L, null)))
+                .build();
+
+        final Message decoded = MessageCodec.decode(MessageCodec.encode(message));
+        Assertions.assertEquals(message.getType(), decoded.getType());
+        Assertions.assertEquals(message.getScope(), decoded.getScope());
+        Assertions.assertEquals(message.getTarget(), decoded.getTarget());
+
+        final TeleportRequest request = decoded.getPayload().getTeleportRequest().orElseThrow();
+        Assertions.assertEquals("TestRequester", request.getRequesterName());
+        Assertions.assertEquals(TeleportRequest.Type.TPA_HERE, request.getType());
+        Assertions.assertEquals(TeleportRequest.Status.PENDING, request.getStatus());
+        Assertions.assertEquals(1234567890L, request.getExpiryTime());
+        Assertions.assertNull(request.getRecipientName());
+        assertPositionEquals(POSITION, request.getRequesterPosition());
+    }
+
+    @Test
+    @DisplayName("Test Position Message Round Trip")
+    public void testPositionRoundTrip() throws IOException {
+        final Message message = Message.builder()
+                .type(Message.Type.TELEPORT_TO_POSITION)
+                .target("TestTarget")
+                .payload(Payload.withPosition(POSITION))
+                .build();
+
+        final Message decoded = MessageCodec.decode(MessageCodec.encode(message));
+        assertPositionEquals(POSITION, decoded.getPayload().getPosition().orElseThrow());
+        Assertions.assertTrue(decoded.getPayload().getString().isEmpty());
+        Assertions.assertTrue(decoded.getPayload().getStringList().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test Cache Update Message Round Trip")
+    public void testCacheUpdateRoundTrip() throws IOException {
+        final CacheUpdate update = new CacheUpdate(300L,
+                List.of(UUID.randomUUID(), UUID.randomUUID()), List.of(UUID.randomUUID()));
+        final Message decoded = roundTrip(Message.Type.UPDATE_CACHES, Payload.withCacheUpdate(update));
+
+        final CacheUpdate decodedUpdate = decoded.getPayload().getCacheUpdate().orElseThrow();
+        Assertions.assertEquals(update.getSequence(), decodedUpdate.getSequence());
+        Assertions.assertEquals(update.getRemovedHomes(), decodedUpdate.getRemovedHomes());
+        Assertions.assertEquals(update.getRemovedWarps(), decodedUpdate.getRemovedWarps());
+        Assertions.assertTrue(decoded.getPayload().getSavedPosition().isEmpty());
+        Assertions.assertTrue(decoded.getPayload().getPlayerList().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test Saved Home Update Message Round Trip")
+    public void testSavedHomeRoundTrip() throws IOException {
+        final PositionMeta meta = PositionMeta.from("TestHome", "A test home",
+                Instant.ofEpochMilli(1234567890L), null);
+        meta.setTags(Map.of("TestTag", "TestValue"));
+        final Home home = Home.from(POSITION, meta, User.of(UUID.randomUUID(), "TestUser"));
+        home.setPublic(true);
+        final SavedPositionUpdate update = SavedPositionUpdate.of(home, 42L);
+        final Message decoded = roundTrip(Message.Type.UPDATE_HOME, Payload.withSavedPosition(update));
+
+        final SavedPositionUpdate decodedUpdate = decoded.getPayload().getSavedPosition().orElseThrow();
+        assertSavedPositionEquals(update, decodedUpdate);
+        Assertions.assertFalse(decodedUpdate.isDeleted());
+
+        final Home decodedHome = decodedUpdate.getHome().orElseThrow();
+        Assertions.assertEquals(home.getUuid(), decodedHome.getUuid());
+        Assertions.assertEquals(home.getName(), decodedHome.getName());
+        Assertions.assertEquals(home.getMeta().getDescription(), decodedHome.getMeta().getDescription());
+        Assertions.assertEquals(home.getMeta().getTags(), decodedHome.getMeta().getTags());
+        Assertions.assertEquals(home.getMeta().getCreationTime(), decodedHome.getMeta().getCreationTime());
+        Assertions.assertEquals(home.getOwner().getUuid(), decodedHome.getOwner().getUuid());
+        Assertions.assertEquals(home.getOwner().getUsername(), decodedHome.getOwner().getUsername());
+        Assertions.assertTrue(decodedHome.isPublic());
+        assertPositionEquals(home, decodedHome);
+    }
+
+    @Test
+    @DisplayName("Test Saved Warp Update Message Round Trip")
+    public void testSavedWarpRoundTrip() throws IOException {
+        final Warp warp = Warp.from(POSITION, PositionMeta.create("TestWarp", ""));
+        final SavedPositionUpdate update = SavedPositionUpdate.of(warp, 7L);
+        final Message decoded = roundTrip(Message.Type.UPDATE_WARP, Payload.withSavedPosition(update));
+
+        final SavedPositionUpdate decodedUpdate = decoded.getPayload().getSavedPosition().orElseThrow();
+        assertSavedPositionEquals(update, decodedUpdate);
+        Assertions.assertTrue(decodedUpdate.getHome().isEmpty());
+
+        final Warp decodedWarp = decodedUpdate.getWarp().orElseThrow();
+        Assertions.assertEquals(warp.getUuid(), decodedWarp.getUuid());
+        Assertions.assertEquals(warp.getName(), decodedWarp.getName());
+        assertPositionEquals(warp, decodedWarp);
+    }
+
+    @Test
+    @DisplayName("Test Deleted Saved Position Update Message Round Trip")
+    public void testDeletedSavedPositionRoundTrip() throws IOException {
+        final SavedPositionUpdate update = SavedPositionUpdate.deleted(UUID.randomUUID(), 43L);
+        final Message decoded = roundTrip(Message.Type.UPDATE_HOME, Payload.withSavedPosition(update));
+
+        final SavedPositionUpdate decodedUpdate = decoded.getPayload().getSavedPosition().orElseThrow();
+        assertSavedPositionEquals(update, decodedUpdate);
+        Assertions.assertTrue(decodedUpdate.isDeleted());
+        Assertions.assertTrue(decodedUpdate.getHome().isEmpty());
+        Assertions.assertTrue(decodedUpdate.getWarp().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test Player List Update Message Round Trip")
+    public void testPlayerListUpdateRoundTrip() throws IOException {
+        final PlayerListUpdate update = new PlayerListUpdate(12L, List.of("TestPlayer", "OtherPlayer"));
+        final Message decoded = roundTrip(Message.Type.PLAYER_LIST, Payload.withPlayerList(update));
+
+        final PlayerListUpdate decodedUpdate = decoded.getPayload().getPlayerList().orElseThrow();
+        Assertions.assertEquals(update.getSequence(), decodedUpdate.getSequence());
+        Assertions.assertEquals(update.getPlayers(), decodedUpdate.getPlayers());
+        Assertions.assertTrue(decoded.getPayload().getStringList().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test Player List Is Smaller Than JSON")
+    public void testPlayerListSize() throws IOException {
+        final List<String> players = IntStream.range(0, 500).mapToObj(i -> "TestPlayer" + i).toList();
+        final Message message = Message.builder()
+                .type(Message.Type.PLAYER_LIST)
+                .target(Message.TARGET_ALL)
+                .payload(Payload.withStringList(players))
+                .build();
+
+        final byte[] encoded = MessageCodec.encode(message);
+        Assertions.assertEquals(players, MessageCodec.decode(encoded).getPayload().getStringList().orElseThrow());
+
+        final Gson gson = new GsonBuilder().create();
+        final int jsonSize = gson.toJson(message).getBytes(StandardCharsets.UTF_8).length;
+        Assertions.assertTrue(encoded.length < jsonSize);
+    }
+
+    @Test
+    @DisplayName("Test Decoding Rejects Truncated Messages")
+    public void testTruncatedMessage() {
+        final byte[] encoded = MessageCodec.encode(Message.builder()
+                .type(Message.Type.TELEPORT_TO_NETWORKED_USER)
+                .target("TestTarget")
+                .payload(Payload.withString("TestString"))
+                .build());
+        final byte[] truncated = new byte[encoded.length - 4];
+        System.arraycopy(encoded, 0, truncated, 0, truncated.length);
+        Assertions.assertThrows(IOException.class, () -> MessageCodec.decode(truncated));
+    }
+
+    @NotNull
+    private static Message roundTrip(@NotNull Message.Type type, @NotNull Payload payload) throws IOException {
+        final Message message = Message.builder()
+                .type(type)
+                .target(Message.TARGET_ALL)
+                .payload(payload)
+                .build();
+        final Message decoded = MessageCodec.decode(MessageCodec.encode(message));
+        Assertions.assertEquals(message.getType(), decoded.getType());
+        Assertions.assertEquals(message.getTarget(), decoded.getTarget());
+        return decoded;
+    }
+
+    private static void assertSavedPositionEquals(@NotNull SavedPositionUpdate expected,
+                                                  @NotNull SavedPositionUpdate actual) {
+        Assertions.assertEquals(expected.getId(), actual.getId());
+        Assertions.assertEquals(expected.getSequence(), actual.getSequence());
+        Assertions.assertEquals(expected.getName(), actual.getName());
+        Assertions.assertEquals(expected.getDescription(), actual.getDescription());
+        Assertions.assertEquals(expected.getTags(), actual.getTags());
+        Assertions.assertEquals(expected.getCreationTime(), actual.getCreationTime());
+        Assertions.assertEquals(expected.getOwnerUuid(), actual.getOwnerUuid());
+        Assertions.assertEquals(expected.getOwnerName(), actual.getOwnerName());
+        Assertions.assertEquals(expected.isPublic(), actual.isPublic());
+        Assertions.assertEquals(expected.getPosition() == null, actual.getPosition() == null);
+        if (expected.getPosition() != null) {
+            assertPositionEquals(expected.getPosition(), actual.getPosition());
+        }
+    }
+
+    private static void assertPositionEquals(@NotNull Position expected, @NotNull Position actual) {
+        Assertions.assertEquals(expected.getX(), actual.getX());
+        Assertions.assertEquals(expected.getY(), actual.getY());
+        Assertions.assertEquals(expected.getZ(), actual.getZ());
+        Assertions.assertEquals(expected.getYaw(), actual.getYaw());
+        Assertions.assertEquals(expected.getPitch(), actual.getPitch());
+        Assertions.assertEquals(expected.getWorld().getUuid(), actual.getWorld().getUuid());
+        Assertions.assertEquals(expected.getWorld().getName(), actual.getWorld().getName());
+        Assertions.assertEquals(expected.getServer(), actual.getServer());
+    }
+
+}
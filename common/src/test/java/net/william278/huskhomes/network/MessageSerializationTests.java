@@ -21,8 +21,11 @@ package net.william278.huskhomes.network;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import net.william278.huskhomes.position.Home;
 import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.position.PositionMeta;
 import net.william278.huskhomes.position.World;
+import net.william278.huskhomes.user.User;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
@@ -66,6 +69,26 @@ public class MessageSerializationTests {
                     .payload(Payload.withPosition(
                             Position.at(63.25, 127.43, -32, 180f, -94.3f,
                                     World.from("TestWorld", UUID.randomUUID()), "TestServer")))
+                    .build(),
+            Message.builder()
+                    .type(Message.Type.UPDATE_CACHES)
+                    .target(Message.TARGET_ALL)
+                    .payload(Payload.withCacheUpdate(new CacheUpdate(1,
+                            List.of(UUID.randomUUID(), UUID.randomUUID()), List.of(UUID.randomUUID()))))
+                    .build(),
+            Message.builder()
+                    .type(Message.Type.UPDATE_HOME)
+                    .target(Message.TARGET_ALL)
+                    .payload(Payload.withSavedPosition(SavedPositionUpdate.of(Home.from(
+                            Position.at(63.25, 127.43, -32, 180f, -94.3f,
+                                    World.from("TestWorld", UUID.randomUUID()), "TestServer"),
+                            PositionMeta.create("TestHome", "A test home"),
+                            User.of(UUID.randomUUID(), "TestUser")), 1)))
+                    .build(),
+            Message.builder()
+                    .type(Message.Type.UPDATE_WARP)
+                    .target(Message.TARGET_ALL)
+                    .payload(Payload.withSavedPosition(SavedPositionUpdate.deleted(UUID.randomUUID(), 2)))
                     .build()
     );
 
@@ -86,6 +109,26 @@ public class MessageSerializationTests {
         Assertions.assertEquals(message.getPayload().getString().isPresent(), deserializedMessage.getPayload().getString().isPresent());
         Assertions.assertEquals(message.getPayload().getStringList().isPresent(), deserializedMessage.getPayload().getStringList().isPresent());
         Assertions.assertEquals(message.getPayload().getStringList().isPresent(), deserializedMessage.getPayload().getStringList().isPresent());
+        message.getPayload().getCacheUpdate().ifPresent(update -> {
+            final CacheUpdate deserializedUpdate = deserializedMessage.getPayload().getCacheUpdate().orElseThrow();
+            Assertions.assertEquals(update.getSequence(), deserializedUpdate.getSequence());
+            Assertions.assertEquals(update.getRemovedHomes(), deserializedUpdate.getRemovedHomes());
+            Assertions.assertEquals(update.getRemovedWarps(), deserializedUpdate.getRemovedWarps());
+        });
+        message.getPayload().getSavedPosition().ifPresent(update -> {
+            final SavedPositionUpdate deserializedUpdate = deserializedMessage.getPayload().getSavedPosition().orElseThrow();
+            Assertions.assertEquals(update.getId(), deserializedUpdate.getId());
+            Assertions.assertEquals(update.getSequence(), deserializedUpdate.getSequence());
+            Assertions.assertEquals(update.isDeleted(), deserializedUpdate.isDeleted());
+            update.getHome().ifPresent(home -> {
+                final Home deserializedHome = deserializedUpdate.getHome().orElseThrow();
+                Assertions.assertEquals(home.getName(), deserializedHome.getName());
+                Assertions.assertEquals(home.getMeta().getDescription(), deserializedHome.getMeta().getDescription());
+                Assertions.assertEquals(home.getOwner().getUuid(), deserializedHome.getOwner().getUuid());
+                Assertions.assertEquals(home.getX(), deserializedHome.getX());
+                Assertions.assertEquals(home.getWorld().getUuid(), deserializedHome.getWorld().getUuid());
+            });
+        });
     }
 
     @NotNull
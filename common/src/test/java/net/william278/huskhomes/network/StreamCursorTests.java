@@ -0,0 +1,74 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.network;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Stream Cursor Tests")
+public class StreamCursorTests {
+
+    @Test
+    @DisplayName("Test Unacknowledged Entries Are Read Before New Entries")
+    public void testPendingThenNew() {
+        final StreamCursor cursor = new StreamCursor();
+        Assertions.assertEquals(StreamCursor.FIRST_ENTRY, cursor.next());
+
+        cursor.onRead("1700000000000-0");
+        Assertions.assertEquals("1700000000000-0", cursor.next());
+
+        cursor.onRead(null);
+        Assertions.assertNull(cursor.next());
+
+        // Reading new entries does not move the cursor back onto unacknowledged entries
+        cursor.onRead("1700000000005-0");
+        Assertions.assertNull(cursor.next());
+    }
+
+    @Test
+    @DisplayName("Test Reconnecting Reads Unacknowledged Entries Again")
+    public void testReset() {
+        final StreamCursor cursor = new StreamCursor();
+        cursor.onRead(null);
+        Assertions.assertNull(cursor.next());
+
+        cursor.reset();
+        Assertions.assertEquals(StreamCursor.FIRST_ENTRY, cursor.next());
+    }
+
+    @Test
+    @DisplayName("Test Released Entries Are Read Again")
+    public void testRedelivery() {
+        final StreamCursor cursor = new StreamCursor();
+        cursor.onRead("1700000000000-0");
+
+        // A redelivery requested while paging unacknowledged entries waits until they have all been read
+        cursor.requestRedelivery();
+        Assertions.assertEquals("1700000000000-0", cursor.next());
+        cursor.onRead(null);
+        Assertions.assertEquals(StreamCursor.FIRST_ENTRY, cursor.next());
+
+        // Then it is only done once
+        cursor.onRead(null);
+        Assertions.assertNull(cursor.next());
+    }
+
+}
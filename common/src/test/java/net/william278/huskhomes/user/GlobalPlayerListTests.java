@@ -0,0 +1,73 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.user;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+@DisplayName("Global Player List Tests")
+public class GlobalPlayerListTests {
+
+    @Test
+    @DisplayName("Test Players Are Listed In Order And Searchable By Prefix")
+    public void testPrefixSearch() {
+        final GlobalPlayerList list = new GlobalPlayerList();
+        list.setPlayers("server1", List.of("Steve", "alex", "Alexander"), 0);
+        list.setPlayers("server2", List.of("Notch", "ALEXIS"), 0);
+
+        Assertions.assertEquals(List.of("alex", "Alexander", "ALEXIS", "Notch", "Steve"), list.getPlayers());
+        Assertions.assertEquals(List.of("alex", "Alexander", "ALEXIS"), list.getPlayers("Al"));
+        Assertions.assertEquals(List.of("Alexander"), list.getPlayers("alexa"));
+        Assertions.assertEquals(List.of(), list.getPlayers("z"));
+        Assertions.assertTrue(list.contains("STEVE"));
+        Assertions.assertEquals(2, list.getServerCount());
+    }
+
+    @Test
+    @DisplayName("Test Players Move Between Servers")
+    public void testPlayerMoves() {
+        final GlobalPlayerList list = new GlobalPlayerList();
+        list.setPlayers("server1", List.of("Steve"), 0);
+        list.addPlayers("server2", List.of("Steve"), 1);
+
+        // Leaving the old server after joining the new one must not unlist the player
+        list.removePlayers("server1", List.of("Steve"), 1);
+        Assertions.assertTrue(list.contains("Steve"));
+        list.removePlayers("server2", List.of("Steve"), 2);
+        Assertions.assertFalse(list.contains("Steve"));
+    }
+
+    @Test
+    @DisplayName("Test Missed Updates Are Detected")
+    public void testSequenceGaps() {
+        final GlobalPlayerList list = new GlobalPlayerList();
+        Assertions.assertFalse(list.addPlayers("server1", List.of("Steve"), 1));
+
+        list.setPlayers("server1", List.of("Steve"), 4);
+        Assertions.assertTrue(list.addPlayers("server1", List.of("Alex"), 5));
+        Assertions.assertTrue(list.removePlayers("server1", List.of("Steve"), 6));
+        Assertions.assertFalse(list.addPlayers("server1", List.of("Notch"), 8));
+        Assertions.assertEquals(List.of("Alex", "Notch"), list.getPlayers());
+    }
+
+}
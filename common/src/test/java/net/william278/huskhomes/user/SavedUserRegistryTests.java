@@ -0,0 +1,88 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.user;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@DisplayName("Saved User Registry Tests")
+public class SavedUserRegistryTests {
+
+    @Test
+    @DisplayName("Test Edits Replace Registered Data And Are Drained Once")
+    public void testEdits() {
+        final SavedUserRegistry registry = new SavedUserRegistry();
+        final SavedUser original = new SavedUser(User.of(UUID.randomUUID(), "TestUser"), 0, false, Instant.EPOCH);
+        registry.add(original);
+
+        final SavedUser edited = registry.edit(original.getUserUuid(), user -> user.setHomeSlots(2)).orElseThrow();
+        Assertions.assertEquals(0, original.getHomeSlots());
+        Assertions.assertEquals(2, registry.get(original.getUserUuid()).orElseThrow().getHomeSlots());
+        Assertions.assertEquals(edited, registry.get("testuser").orElseThrow());
+
+        // Reloading data from the database must not discard unsaved edits
+        registry.add(original);
+        Assertions.assertEquals(List.of(edited), registry.drainDirty());
+        Assertions.assertTrue(registry.drainDirty().isEmpty());
+        registry.add(original);
+        Assertions.assertEquals(original, registry.get(original.getUserUuid()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Test Removing A User Returns Unsaved Data")
+    public void testRemove() {
+        final SavedUserRegistry registry = new SavedUserRegistry();
+        final UUID uuid = UUID.randomUUID();
+        registry.add(new SavedUser(User.of(uuid, "TestUser"), 0, false, Instant.EPOCH));
+        Assertions.assertTrue(registry.edit(UUID.randomUUID(), user -> user.setIgnoringTeleports(true)).isEmpty());
+        registry.edit(uuid, user -> user.setIgnoringTeleports(true));
+
+        Assertions.assertTrue(registry.remove(uuid).orElseThrow().isIgnoringTeleports());
+        Assertions.assertEquals(0, registry.size());
+        Assertions.assertEquals(0, registry.getDirtyCount());
+    }
+
+    @Test
+    @DisplayName("Test Data That Failed To Save Is Drained Again")
+    public void testMarkDirty() {
+        final SavedUserRegistry registry = new SavedUserRegistry();
+        final SavedUser savedUser = new SavedUser(User.of(UUID.randomUUID(), "TestUser"), 0, false, Instant.EPOCH);
+        final SavedUser removedUser = new SavedUser(User.of(UUID.randomUUID(), "OtherUser"), 0, false, Instant.EPOCH);
+        registry.add(savedUser);
+        registry.add(removedUser);
+        registry.edit(savedUser.getUserUuid(), user -> user.setHomeSlots(2));
+        registry.edit(removedUser.getUserUuid(), user -> user.setHomeSlots(3));
+
+        final List<SavedUser> drained = registry.drainDirty();
+        Assertions.assertEquals(2, drained.size());
+        registry.remove(removedUser.getUserUuid());
+        registry.markDirty(drained);
+        Assertions.assertEquals(1, registry.getDirtyCount());
+        Assertions.assertEquals(2, registry.drainDirty(savedUser.getUserUuid()).orElseThrow().getHomeSlots());
+        Assertions.assertTrue(registry.drainDirty(savedUser.getUserUuid()).isEmpty());
+        Assertions.assertEquals(0, registry.getDirtyCount());
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.util;
+
+import net.william278.huskhomes.position.Location;
+import net.william278.huskhomes.position.World;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+@DisplayName("Safe Columns Tests")
+public class SafeColumnsTests {
+
+    private static final World WORLD = World.from("TestWorld", UUID.randomUUID());
+
+    @Test
+    @DisplayName("Test Packed Columns Resolve To Locations")
+    public void testColumnLocations() {
+        final int[] packed = {SafeColumns.pack(0, -60, 15), SafeColumns.pack(9, 70, 3)};
+        final SafeColumns columns = new SafeColumns(WORLD, -2, 3, packed, packed.length);
+
+        final Location first = columns.getLocation(0);
+        Assertions.assertEquals(-31.5, first.getX());
+        Assertions.assertEquals(-59, first.getY());
+        Assertions.assertEquals(63.5, first.getZ());
+
+        final Location nearest = columns.getNearest(-22, 52).orElseThrow();
+        Assertions.assertEquals(-22.5, nearest.getX());
+        Assertions.assertEquals(71, nearest.getY());
+        Assertions.assertEquals(51.5, nearest.getZ());
+    }
+
+    @Test
+    @DisplayName("Test Single Location Round Trips")
+    public void testSingleLocation() {
+        final SafeColumns columns = SafeColumns.of(Location.at(-100.5, 65, 200.5, WORLD));
+        Assertions.assertEquals(1, columns.size());
+
+        final Location location = columns.getLocation(0);
+        Assertions.assertEquals(-100.5, location.getX());
+        Assertions.assertEquals(65, location.getY());
+        Assertions.assertEquals(200.5, location.getZ());
+        Assertions.assertTrue(new SafeColumns(WORLD, 0, 0, new int[0], 0).getNearest(0, 0).isEmpty());
+    }
+
+}
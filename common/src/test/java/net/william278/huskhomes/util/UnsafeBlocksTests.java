@@ -0,0 +1,62 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayName("Unsafe Blocks Tests")
+public class UnsafeBlocksTests {
+
+    @Test
+    @DisplayName("Test Block IDs Are Matched With And Without Namespace")
+    public void testIsUnsafe() {
+        final UnsafeBlocks unsafeBlocks = create("minecraft:lava", "magma_block");
+        Assertions.assertTrue(unsafeBlocks.isUnsafe("lava"));
+        Assertions.assertTrue(unsafeBlocks.isUnsafe("minecraft:lava"));
+        Assertions.assertTrue(unsafeBlocks.isUnsafe("minecraft:magma_block"));
+        Assertions.assertFalse(unsafeBlocks.isUnsafe("minecraft:stone"));
+        Assertions.assertEquals(Set.of("minecraft:lava", "minecraft:magma_block"), unsafeBlocks.getUnsafeBlockIds());
+    }
+
+    @Test
+    @DisplayName("Test Compiled Lookups Are Only Compiled Once")
+    public void testCompiledOnce() {
+        final UnsafeBlocks unsafeBlocks = create("minecraft:lava", "minecraft:fire");
+        final AtomicInteger compilations = new AtomicInteger();
+        final Integer first = unsafeBlocks.getCompiled(Integer.class, ids -> compilations.incrementAndGet() * ids.size());
+        final Integer second = unsafeBlocks.getCompiled(Integer.class, ids -> compilations.incrementAndGet() * ids.size());
+        Assertions.assertEquals(2, first);
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, compilations.get());
+    }
+
+    private static UnsafeBlocks create(String... blockIds) {
+        final UnsafeBlocks unsafeBlocks = new UnsafeBlocks();
+        unsafeBlocks.unsafeBlocks = List.of(blockIds);
+        return unsafeBlocks;
+    }
+
+}
@@ -59,8 +59,9 @@ import net.william278.huskhomes.random.NormalDistributionEngine;
 import net.william278.huskhomes.random.RandomTeleportEngine;
 import net.william278.huskhomes.user.ConsoleUser;
 import net.william278.huskhomes.user.FabricUser;
+import net.william278.huskhomes.user.GlobalPlayerList;
 import net.william278.huskhomes.user.OnlineUser;
-import net.william278.huskhomes.user.SavedUser;
+import net.william278.huskhomes.user.SavedUserRegistry;
 import net.william278.huskhomes.util.FabricSafetyResolver;
 import net.william278.huskhomes.util.FabricTaskRunner;
 import net.william278.huskhomes.util.UnsafeBlocks;
@@ -98,7 +99,7 @@ public class FabricHuskHomes implements DedicatedServerModInitializer, HuskHomes
     private MinecraftServer minecraftServer;
     private ConcurrentHashMap<UUID, CompletableFuture<?>> tasks;
     private Map<String, Boolean> permissions;
-    private Set<SavedUser> savedUsers;
+    private SavedUserRegistry savedUsers;
     private Settings settings;
     private Locales locales;
     private Database database;
@@ -110,7 +111,7 @@ public class FabricHuskHomes implements DedicatedServerModInitializer, HuskHomes
     private UnsafeBlocks unsafeBlocks;
     private List<Hook> hooks;
     private List<Command> commands;
-    private Map<String, List<String>> globalPlayerList;
+    private GlobalPlayerList globalPlayerList;
     private Set<UUID> currentlyOnWarmup;
     private Server server;
     @Nullable
@@ -125,8 +126,8 @@ public class FabricHuskHomes implements DedicatedServerModInitializer, HuskHomes
         // Get plugin version from mod container
         this.tasks = new ConcurrentHashMap<>();
         this.permissions = new HashMap<>();
-        this.savedUsers = new HashSet<>();
-        this.globalPlayerList = new HashMap<>();
+        this.savedUsers = new SavedUserRegistry();
+        this.globalPlayerList = new GlobalPlayerList();
         this.currentlyOnWarmup = new HashSet<>();
         this.validator = new Validator(this);
 
@@ -228,7 +229,7 @@ public class FabricHuskHomes implements DedicatedServerModInitializer, HuskHomes
 
     @Override
     @NotNull
-    public Set<SavedUser> getSavedUsers() {
+    public SavedUserRegistry getSavedUsers() {
         return savedUsers;
     }
 
@@ -420,7 +421,7 @@ public class FabricHuskHomes implements DedicatedServerModInitializer, HuskHomes
 
     @Override
     @NotNull
-    public Map<String, List<String>> getGlobalPlayerList() {
+    public GlobalPlayerList getGlobalPlayerList() {
         return globalPlayerList;
     }
 
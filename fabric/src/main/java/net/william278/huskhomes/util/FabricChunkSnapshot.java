@@ -0,0 +1,91 @@
+/*
+ * This file is part of HuskHomes, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.util;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.chunk.Chunk;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An immutable snapshot of the surface of a chunk: the highest non-air block of each column and its state.
+ * <p>
+ * Taken on the server thread, after which it can be read safely from any thread.
+ */
+public final class FabricChunkSnapshot {
+
+    private static final int CHUNK_SIZE = 16;
+
+    private final int[] surfaceY = new int[CHUNK_SIZE * CHUNK_SIZE];
+    private final BlockState[] surfaceStates = new BlockState[CHUNK_SIZE * CHUNK_SIZE];
+
+    private FabricChunkSnapshot() {
+    }
+
+    /**
+     * Take a snapshot of a loaded chunk's surface. Must be called on the server thread
+     *
+     * @param chunk   The chunk to take a snapshot of
+     * @param bottomY The minimum Y value of the world
+     * @return The snapshot
+     */
+    @NotNull
+    public static FabricChunkSnapshot of(@NotNull Chunk chunk, int bottomY) {
+        final FabricChunkSnapshot snapshot = new FabricChunkSnapshot();
+        final BlockPos.Mutable cursor = new BlockPos.Mutable();
+        final int originX = chunk.getPos().getStartX();
+        final int originZ = chunk.getPos().getStartZ();
+        for (int x = 0; x < CHUNK_SIZE; x++) {
+            for (int z = 0; z < CHUNK_SIZE; z++) {
+                // The heightmap holds the Y value above the highest non-air block
+                final int y = Math.max(bottomY, chunk.sampleHeightmap(Heightmap.Type.WORLD_SURFACE, x, z) - 1);
+                final int index = x * CHUNK_SIZE + z;
+                snapshot.surfaceY[index] = y;
+                snapshot.surfaceStates[index] = chunk.getBlockState(cursor.set(originX + x, y, originZ + z));
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Get the Y value of the highest non-air block in a column
+     *
+     * @param x The X coordinate within the chunk, from 0 to 15
+     * @param z The Z coordinate within the chunk, from 0 to 15
+     * @return The Y value of the surface block
+     */
+    public int getSurfaceY(int x, int z) {
+        return surfaceY[x * CHUNK_SIZE + z];
+    }
+
+    /**
+     * Get the state of the highest non-air block in a column
+     *
+     * @param x The X coordinate within the chunk, from 0 to 15
+     * @param z The Z coordinate within the chunk, from 0 to 15
+     * @return The state of the surface block
+     */
+    @NotNull
+    public BlockState getSurfaceState(int x, int z) {
+        return surfaceStates[x * CHUNK_SIZE + z];
+    }
+
+}
@@ -26,18 +26,26 @@ import net.minecraft.registry.Registries;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.Identifier;
-import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.Direction;
-import net.minecraft.world.BlockView;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.chunk.ChunkStatus;
 import net.william278.huskhomes.FabricHuskHomes;
 import net.william278.huskhomes.position.Location;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.BitSet;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
 
 public interface FabricSafetyResolver extends SafetyResolver {
 
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote The chunk is loaded asynchronously through the world's chunk manager, and a snapshot of its surface
+     * taken on the server thread; the search for a safe location is then made off the server thread, from the snapshot
+     */
     @Override
     default CompletableFuture<Optional<Location>> findSafeGroundLocation(@NotNull Location location) {
         final MinecraftServer server = ((FabricHuskHomes) getPlugin()).getMinecraftServer();
@@ -57,29 +65,51 @@ public interface FabricSafetyResolver extends SafetyResolver {
             return CompletableFuture.completedFuture(Optional.empty());
         }
 
-        return CompletableFuture.completedFuture(findSafeLocationNear(location, world));
+        // Request the chunk on the server thread, snapshot it there once loaded, then search the snapshot off-thread
+        final int blockX = MathHelper.floor(location.getX());
+        final int blockZ = MathHelper.floor(location.getZ());
+        return CompletableFuture
+                .supplyAsync(() -> world.getChunkManager().getChunkFutureSyncOnMainThread(
+                        blockX >> 4, blockZ >> 4, ChunkStatus.FULL, true), server)
+                .thenCompose(chunkFuture -> chunkFuture)
+                .thenApplyAsync(result -> result.left()
+                        .map(chunk -> FabricChunkSnapshot.of(chunk, world.getBottomY())), server)
+                .thenApplyAsync(snapshot -> snapshot.flatMap(loaded -> findSafeLocationNear(location, loaded)))
+                .exceptionally(e -> {
+                    getPlugin().log(Level.WARNING, "Failed to search for a safe location in chunk ("
+                                                   + (blockX >> 4) + ", " + (blockZ >> 4) + ") of "
+                                                   + location.getWorld().getName(), e);
+                    return Optional.empty();
+                });
     }
 
     /**
      * Search for a safe ground location near the given location
      *
      * @param location The location to search around
-     * @return An optional safe location, within 4 blocks of the given location
+     * @param snapshot Snapshot of the surface of the chunk containing the location
+     * @return An optional safe location, within {@link #SEARCH_RADIUS} blocks of the given location in its chunk
      */
-    private Optional<Location> findSafeLocationNear(@NotNull Location location, @NotNull ServerWorld world) {
-        final BlockPos.Mutable blockPos = new BlockPos.Mutable(location.getX(), location.getY(), location.getZ());
-        for (int x = -SEARCH_RADIUS; x <= SEARCH_RADIUS; x++) {
-            for (int z = -SEARCH_RADIUS; z <= SEARCH_RADIUS; z++) {
-                blockPos.set(location.getX() + x, location.getY(), location.getZ() + z);
-                final int highestY = getHighestYAt(world, blockPos.getX(), blockPos.getY(), blockPos.getZ());
-
-                final Block block = world.getBlockState(blockPos.withY(highestY)).getBlock();
-                final Identifier id = Registries.BLOCK.getId(block);
-                if (!(block instanceof FluidBlock) && !(block instanceof FireBlock) && isBlockSafe(id.toString())) {
+    private Optional<Location> findSafeLocationNear(@NotNull Location location, @NotNull FabricChunkSnapshot snapshot) {
+        final int blockX = MathHelper.floor(location.getX());
+        final int blockZ = MathHelper.floor(location.getZ());
+        final int chunkX = blockX & 0xF;
+        final int chunkZ = blockZ & 0xF;
+        final BitSet unsafeBlockIds = getUnsafeBlockIds();
+        for (int dX = -SEARCH_RADIUS; dX <= SEARCH_RADIUS; dX++) {
+            for (int dZ = -SEARCH_RADIUS; dZ <= SEARCH_RADIUS; dZ++) {
+                final int x = chunkX + dX;
+                final int z = chunkZ + dZ;
+                if (x < 0 || x >= 16 || z < 0 || z >= 16) {
+                    continue;
+                }
+
+                final Block block = snapshot.getSurfaceState(x, z).getBlock();
+                if (!unsafeBlockIds.get(Registries.BLOCK.getRawId(block))) {
                     return Optional.of(Location.at(
-                            blockPos.getX() + 0.5,
-                            highestY + 1,
-                            blockPos.getZ() + 0.5,
+                            blockX + dX + 0.5,
+                            snapshot.getSurfaceY(x, z) + 1,
+                            blockZ + dZ + 0.5,
                             location.getWorld()
                     ));
                 }
@@ -89,20 +119,41 @@ public interface FabricSafetyResolver extends SafetyResolver {
     }
 
     /**
-     * Get the highest Y value at the given X and Z coordinates
+     * Returns if the block is safe
+     *
+     * @param block The {@link Block}
+     * @return {@code true} if the block is not on the unsafe blocks list, nor a fluid or fire, {@code false} otherwise
+     */
+    default boolean isBlockSafe(@NotNull Block block) {
+        return !getUnsafeBlockIds().get(Registries.BLOCK.getRawId(block));
+    }
+
+    // Get the raw registry IDs of unsafe blocks
+    @NotNull
+    private BitSet getUnsafeBlockIds() {
+        return getPlugin().getUnsafeBlocks().getCompiled(UnsafeBlockIds.class, UnsafeBlockIds::compile).rawIds();
+    }
+
+    /**
+     * The unsafe blocks list, resolved to the raw block registry IDs of unsafe blocks. Fluid and fire blocks are
+     * always included
      *
-     * @param blockView The block view to search
-     * @param x         The X coordinate
-     * @param y         The Y coordinate
-     * @param z         The Z coordinate
-     * @return The highest Y value at the given X and Z coordinates
+     * @param rawIds Set of the raw registry IDs of unsafe blocks
      */
-    private int getHighestYAt(@NotNull BlockView blockView, int x, int y, int z) {
-        final BlockPos.Mutable cursor = new BlockPos.Mutable(x, y, z);
-        while (blockView.getBlockState(cursor).isAir() && cursor.getY() > blockView.getBottomY()) {
-            cursor.move(Direction.DOWN);
+    record UnsafeBlockIds(@NotNull BitSet rawIds) {
+
+        @NotNull
+        private static UnsafeBlockIds compile(@NotNull Set<String> blockIds) {
+            final BitSet rawIds = new BitSet(Registries.BLOCK.size());
+            for (Block block : Registries.BLOCK) {
+                if (block instanceof FluidBlock || block instanceof FireBlock
+                    || blockIds.contains(Registries.BLOCK.getId(block).toString())) {
+                    rawIds.set(Registries.BLOCK.getRawId(block));
+                }
+            }
+            return new UnsafeBlockIds(rawIds);
         }
-        return cursor.getY();
+
     }
 
 }
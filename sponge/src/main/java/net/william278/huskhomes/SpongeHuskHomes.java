@@ -44,8 +44,9 @@ import net.william278.huskhomes.position.World;
 import net.william278.huskhomes.random.NormalDistributionEngine;
 import net.william278.huskhomes.random.RandomTeleportEngine;
 import net.william278.huskhomes.user.ConsoleUser;
+import net.william278.huskhomes.user.GlobalPlayerList;
 import net.william278.huskhomes.user.OnlineUser;
-import net.william278.huskhomes.user.SavedUser;
+import net.william278.huskhomes.user.SavedUserRegistry;
 import net.william278.huskhomes.user.SpongeUser;
 import net.william278.huskhomes.util.SpongeSafetyResolver;
 import net.william278.huskhomes.util.SpongeTaskRunner;
@@ -111,7 +112,7 @@ public class SpongeHuskHomes implements HuskHomes, SpongeTaskRunner, SpongeSafet
     private Metrics.Factory metricsFactory;
 
     private ConcurrentHashMap<UUID, CancellableRunnable> tasks;
-    private Set<SavedUser> savedUsers;
+    private SavedUserRegistry savedUsers;
     private Settings settings;
     private Locales locales;
     private Database database;
@@ -122,7 +123,8 @@ public class SpongeHuskHomes implements HuskHomes, SpongeTaskRunner, SpongeSafet
     private UnsafeBlocks unsafeBlocks;
     private List<Hook> hooks;
     private List<SpongeCommand> commands;
-    private Map<String, List<String>> globalPlayerList;
+    private GlobalPlayerList globalPlayerList;
+    private SpongeEventListener eventListener;
     private Set<UUID> currentlyOnWarmup;
     private Server server;
     @Nullable
@@ -135,8 +137,8 @@ public class SpongeHuskHomes implements HuskHomes, SpongeTaskRunner, SpongeSafet
 
         // Get plugin version from mod container
         this.tasks = new ConcurrentHashMap<>();
-        this.savedUsers = new HashSet<>();
-        this.globalPlayerList = new HashMap<>();
+        this.savedUsers = new SavedUserRegistry();
+        this.globalPlayerList = new GlobalPlayerList();
         this.currentlyOnWarmup = new HashSet<>();
         this.validator = new Validator(this);
 
@@ -181,7 +183,7 @@ public class SpongeHuskHomes implements HuskHomes, SpongeTaskRunner, SpongeSafet
         setRandomTeleportEngine(new NormalDistributionEngine(this));
 
         // Register events
-        initialize("events", (plugin) -> new SpongeEventListener(this));
+        initialize("events", (plugin) -> this.eventListener = new SpongeEventListener(this));
 
         // Register permissions
         initialize("permissions", (plugin) -> registerPermissions());
@@ -204,6 +206,9 @@ public class SpongeHuskHomes implements HuskHomes, SpongeTaskRunner, SpongeSafet
 
     @Listener
     public void onShutdown(final StoppingEngineEvent<org.spongepowered.api.Server> event) {
+        if (this.eventListener != null) {
+            this.eventListener.handlePluginDisable();
+        }
         if (database != null) {
             database.terminate();
         }
@@ -234,7 +239,7 @@ public class SpongeHuskHomes implements HuskHomes, SpongeTaskRunner, SpongeSafet
 
     @NotNull
     @Override
-    public Set<SavedUser> getSavedUsers() {
+    public SavedUserRegistry getSavedUsers() {
         return savedUsers;
     }
 
@@ -430,7 +435,7 @@ public class SpongeHuskHomes implements HuskHomes, SpongeTaskRunner, SpongeSafet
 
     @NotNull
     @Override
-    public Map<String, List<String>> getGlobalPlayerList() {
+    public GlobalPlayerList getGlobalPlayerList() {
         return globalPlayerList;
     }
 
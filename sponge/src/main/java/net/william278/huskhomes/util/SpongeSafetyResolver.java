@@ -22,14 +22,19 @@ package net.william278.huskhomes.util;
 import net.william278.huskhomes.position.Location;
 import net.william278.huskhomes.position.World;
 import org.jetbrains.annotations.NotNull;
+import org.spongepowered.api.ResourceKey;
 import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.block.BlockType;
 import org.spongepowered.api.registry.RegistryTypes;
 import org.spongepowered.api.world.border.WorldBorder;
 import org.spongepowered.api.world.server.ServerLocation;
 import org.spongepowered.math.vector.Vector2d;
 import org.spongepowered.math.vector.Vector3i;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 public interface SpongeSafetyResolver extends SafetyResolver {
@@ -58,11 +63,12 @@ public interface SpongeSafetyResolver extends SafetyResolver {
      * @return An optional safe location, within 4 blocks of the given location
      */
     private Optional<Location> findSafeLocationNear(@NotNull ServerLocation location, @NotNull World world) {
+        final Set<BlockType> unsafeBlockTypes = getUnsafeBlockTypes();
         for (int x = -SEARCH_RADIUS; x <= SEARCH_RADIUS; x++) {
             for (int z = -SEARCH_RADIUS; z <= SEARCH_RADIUS; z++) {
                 final Vector3i cursor = location.asHighestLocation().blockPosition().add(x, 0, z);
                 final BlockState blockState = location.world().block(cursor);
-                if (isBlockSafe(blockState.type().key(RegistryTypes.BLOCK_TYPE).asString())) {
+                if (!unsafeBlockTypes.contains(blockState.type())) {
                     return Optional.of(Location.at(
                             cursor.x() + 0.5,
                             cursor.y() + 1,
@@ -75,6 +81,22 @@ public interface SpongeSafetyResolver extends SafetyResolver {
         return Optional.empty();
     }
 
+    /**
+     * Returns if the block, by provided type, is safe
+     *
+     * @param blockType The {@link BlockType}
+     * @return {@code true} if the block is not on the unsafe blocks list, {@code false} otherwise
+     */
+    default boolean isBlockSafe(@NotNull BlockType blockType) {
+        return !getUnsafeBlockTypes().contains(blockType);
+    }
+
+    // Get the unsafe blocks list, resolved to block types
+    @NotNull
+    private Set<BlockType> getUnsafeBlockTypes() {
+        return getPlugin().getUnsafeBlocks().getCompiled(UnsafeBlockTypes.class, UnsafeBlockTypes::compile).types();
+    }
+
     private boolean isInBorder(WorldBorder border, Vector3i position) {
         final Vector2d center = border.center();
         final double radius = border.diameter() / 2;
@@ -83,4 +105,23 @@ public interface SpongeSafetyResolver extends SafetyResolver {
         return x * x + z * z < radius * radius;
     }
 
-}
\ No newline at end of file
+    /**
+     * The unsafe blocks list, resolved to a set of {@link BlockType block types}. Block types are registry singletons,
+     * so they are compared by identity
+     *
+     * @param types The unsafe block types
+     */
+    record UnsafeBlockTypes(@NotNull Set<BlockType> types) {
+
+        @NotNull
+        private static UnsafeBlockTypes compile(@NotNull Set<String> blockIds) {
+            final Set<BlockType> types = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (String blockId : blockIds) {
+                RegistryTypes.BLOCK_TYPE.get().findValue(ResourceKey.resolve(blockId)).ifPresent(types::add);
+            }
+            return new UnsafeBlockTypes(types);
+        }
+
+    }
+
+}